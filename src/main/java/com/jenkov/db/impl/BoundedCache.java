@@ -0,0 +1,77 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package com.jenkov.db.impl;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache holding at most a maximum number of values, which is safe to use from multiple threads.
+ * When the cache is full, an arbitrary value is evicted to make room for a new one. Used for
+ * values that are cheap to obtain again, where keeping track of the least recently used value
+ * is not worth the synchronization it requires.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class BoundedCache {
+
+    protected ConcurrentHashMap values  = new ConcurrentHashMap();
+    protected int               maxSize = 0;
+
+    public BoundedCache(int maxSize) {
+        if(maxSize < 1) throw new IllegalArgumentException("maxSize must be at least 1");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the value cached by the given key, or null if no value is cached by it.
+     */
+    public Object get(Object key) {
+        return this.values.get(key);
+    }
+
+    /**
+     * Caches the given value by the given key, unless a value is already cached by that key.
+     * If the cache is full, an arbitrary value is evicted first.
+     * @param key   The key to cache the value by.
+     * @param value The value to cache.
+     * @return The value cached by the key, meaning either the given value or the value cached before.
+     */
+    public Object putIfAbsent(Object key, Object value) {
+        if(this.values.size() >= this.maxSize){
+            Iterator iterator = this.values.keySet().iterator();
+            if(iterator.hasNext()){
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        Object cached = this.values.putIfAbsent(key, value);
+        return cached != null ? cached : value;
+    }
+
+    public int size() {
+        return this.values.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void clear() {
+        this.values.clear();
+    }
+}
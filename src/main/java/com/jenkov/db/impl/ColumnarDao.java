@@ -0,0 +1,62 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.impl.columnar.ColumnarResult;
+import com.jenkov.db.itf.IColumnarDao;
+import com.jenkov.db.itf.IColumnarResult;
+import com.jenkov.db.itf.IDaos;
+import com.jenkov.db.itf.IPreparedStatementManager;
+import com.jenkov.db.itf.PersistenceException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ColumnarDao implements IColumnarDao {
+
+    protected IDaos daos = null;
+
+    public ColumnarDao(IDaos daos) {
+        this.daos = daos;
+    }
+
+    public IColumnarResult read(String sql) throws PersistenceException {
+        return read(sql, new PreparedStatementManagerBase());
+    }
+
+    public IColumnarResult read(String sql, Object ... parameters) throws PersistenceException {
+        return read(sql, new PreparedStatementManagerBase(parameters));
+    }
+
+    public IColumnarResult read(String sql, IPreparedStatementManager statementManager) throws PersistenceException {
+        return (IColumnarResult) this.daos.getJdbcDao().read(sql, statementManager, new ResultSetProcessorBase(){
+
+            public void init(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
+                setResult(new ColumnarResult(result.getMetaData()));
+            }
+
+            public void process(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
+                ((ColumnarResult) getResult()).readRow(result);
+            }
+
+        });
+    }
+}
@@ -35,6 +35,7 @@ public class Daos implements IDaos {
     protected IObjectDao objectDao     = null;
     protected IJdbcDao                  jdbcDao       = null;
     protected IMapDao                   mapDao        = null;
+    protected IColumnarDao              columnarDao   = null;
 
 
     public Daos(Connection connection, IPersistenceConfiguration configuration, PersistenceManager manager) {
@@ -75,6 +76,13 @@ public class Daos implements IDaos {
         return this.mapDao;
     }
 
+    public synchronized IColumnarDao getColumnarDao() {
+        if(this.columnarDao == null){
+            this.columnarDao = new ColumnarDao(this);
+        }
+        return this.columnarDao;
+    }
+
     /*
     public synchronized ResultSetView getResultSetView(Object objectMappingKey, ResultSet result) throws PersistenceException {
         IObjectMapping    objectMapping = configuration.getObjectMapper().getObjectMapping(objectMappingKey, this.configuration, this.connection);
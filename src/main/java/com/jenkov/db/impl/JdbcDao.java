@@ -19,20 +19,31 @@
 package com.jenkov.db.impl;
 
 import com.jenkov.db.itf.IJdbcDao;
+import com.jenkov.db.itf.IObjectIterator;
+import com.jenkov.db.itf.IPersistenceConfiguration;
+import com.jenkov.db.itf.IPublisher;
 import com.jenkov.db.itf.IPreparedStatementManager;
 import com.jenkov.db.itf.IResultSetProcessor;
 import com.jenkov.db.itf.PersistenceException;
 import com.jenkov.db.itf.IDaos;
+import com.jenkov.db.util.JdbcUtil;
 
+import javax.sql.DataSource;
+import java.lang.reflect.Array;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Jakob Jenkov - Copyright 2005 Jenkov Development
  */
 public class JdbcDao implements IJdbcDao {
 
+    private static final int INITIAL_CAPACITY = 64;
+
     protected IDaos daos = null;
 
     public JdbcDao(IDaos daos) {
@@ -40,7 +51,7 @@ public class JdbcDao implements IJdbcDao {
     }
 
     public Long readLong(String sql) throws PersistenceException {
-        return (Long) readLong(sql, null);
+        return readLong(sql, (Object[]) null);
     }
 
     public Long readLong(String sql, Object ... parameters) throws PersistenceException {
@@ -48,7 +59,7 @@ public class JdbcDao implements IJdbcDao {
             private Long theLong = null;
 
             public void process(ResultSet result, IDaos daos) throws SQLException {
-                this.theLong = new Long(result.getLong(1));
+                this.theLong = Long.valueOf(result.getLong(1));
             }
 
             public Object getResult() {
@@ -57,6 +68,64 @@ public class JdbcDao implements IJdbcDao {
         }, parameters);
     }
 
+    public long readLongValue(String sql, Object ... parameters) throws PersistenceException {
+        long[] values = (long[]) read(sql, new SingleRowStatementManager(parameters), new PrimitiveArrayProcessor(long.class));
+        if(values.length == 0) throw new PersistenceException("No records returned by query: " + sql);
+        return values[0];
+    }
+
+    public int readIntValue(String sql, Object ... parameters) throws PersistenceException {
+        int[] values = (int[]) read(sql, new SingleRowStatementManager(parameters), new PrimitiveArrayProcessor(int.class));
+        if(values.length == 0) throw new PersistenceException("No records returned by query: " + sql);
+        return values[0];
+    }
+
+    public double readDoubleValue(String sql, Object ... parameters) throws PersistenceException {
+        double[] values = (double[]) read(sql, new SingleRowStatementManager(parameters), new PrimitiveArrayProcessor(double.class));
+        if(values.length == 0) throw new PersistenceException("No records returned by query: " + sql);
+        return values[0];
+    }
+
+    public long[] readLongArray(String sql, Object ... parameters) throws PersistenceException {
+        return readLongArray(sql, new PreparedStatementManagerBase(parameters));
+    }
+
+    public long[] readLongArray(String sql, IPreparedStatementManager statementManager) throws PersistenceException {
+        return (long[]) read(sql, statementManager, new PrimitiveArrayProcessor(long.class));
+    }
+
+    public int[] readIntArray(String sql, Object ... parameters) throws PersistenceException {
+        return readIntArray(sql, new PreparedStatementManagerBase(parameters));
+    }
+
+    public int[] readIntArray(String sql, IPreparedStatementManager statementManager) throws PersistenceException {
+        return (int[]) read(sql, statementManager, new PrimitiveArrayProcessor(int.class));
+    }
+
+    public double[] readDoubleArray(String sql, Object ... parameters) throws PersistenceException {
+        return readDoubleArray(sql, new PreparedStatementManagerBase(parameters));
+    }
+
+    public double[] readDoubleArray(String sql, IPreparedStatementManager statementManager) throws PersistenceException {
+        return (double[]) read(sql, statementManager, new PrimitiveArrayProcessor(double.class));
+    }
+
+    public List<String> readStringList(String sql, Object ... parameters) throws PersistenceException {
+        return readStringList(sql, new PreparedStatementManagerBase(parameters));
+    }
+
+    public List<String> readStringList(String sql, IPreparedStatementManager statementManager) throws PersistenceException {
+        return (List<String>) read(sql, statementManager, new ResultSetProcessorBase(){
+            public void init(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
+                setResult(new ArrayList());
+            }
+
+            public void process(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
+                ((List) this.result).add(result.getString(1));
+            }
+        });
+    }
+
     public String readIdString(String sql) throws PersistenceException {
         return readIdString(sql, (Object[]) null);
     }
@@ -193,4 +262,128 @@ public class JdbcDao implements IJdbcDao {
             if(persistenceException != null) throw persistenceException;
         }
     }
+
+    public IPublisher<Object[]> readPublisher(String sql, Object ... parameters) throws PersistenceException {
+        DataSource dataSource = this.daos.getConfiguration().getDataSource();
+        return createPublisher(sql, parameters, isInTransaction() ? null : dataSource);
+    }
+
+    public IPublisher<Object[]> readPublisherOnNewConnection(String sql, Object ... parameters) throws PersistenceException {
+        DataSource dataSource = this.daos.getConfiguration().getDataSource();
+        if(dataSource == null){
+            throw new PersistenceException("No DataSource set on the persistence configuration. " +
+                    "A publisher can only read on a new connection if a DataSource is set.");
+        }
+        return createPublisher(sql, parameters, dataSource);
+    }
+
+    /**
+     * Returns true if the connection of the DAOs is inside a transaction, meaning auto commit is switched off.
+     */
+    protected boolean isInTransaction() throws PersistenceException {
+        try {
+            return !this.daos.getConnection().getAutoCommit();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading the auto commit mode of the connection", e);
+        }
+    }
+
+    /**
+     * Creates a publisher of the records read by the given SQL. If dataSource is not null, each subscription
+     * obtains its own connection from it. Otherwise the connection of the DAOs is used.
+     */
+    protected IPublisher<Object[]> createPublisher(final String sql, final Object[] parameters, DataSource dataSource)
+            throws PersistenceException {
+        final IPersistenceConfiguration configuration = this.daos.getConfiguration();
+        Connection connection = dataSource == null ? this.daos.getConnection() : null;
+
+        return new ResultSetPublisher(dataSource, connection, configuration.getReadExecutor()){
+            protected IObjectIterator open(Connection connection) throws PersistenceException {
+                PreparedStatement statement = JdbcUtil.prepareStatement(connection, sql);
+                try {
+                    JdbcUtil.insertParameters(statement, parameters);
+                    JdbcUtil.setFetchSize(statement, configuration.getReadFetchSize(), configuration.getDatabase());
+                    return new ResultSetIterator(statement.executeQuery(), statement, null){
+                        private int columnCount = 0;
+
+                        protected void init(ResultSet result) throws SQLException {
+                            this.columnCount = result.getMetaData().getColumnCount();
+                        }
+
+                        protected Object read(ResultSet result) throws SQLException {
+                            Object[] row = new Object[this.columnCount];
+                            for(int i=0; i<row.length; i++){
+                                row[i] = result.getObject(i + 1);
+                            }
+                            return row;
+                        }
+                    };
+                } catch (SQLException e) {
+                    JdbcUtil.closeIgnore(statement);
+                    throw new PersistenceException("Error executing query: " + sql, e);
+                } catch (PersistenceException e) {
+                    JdbcUtil.closeIgnore(statement);
+                    throw e;
+                }
+            }
+        };
+    }
+
+    /**
+     * Reads the first column of all records into a growing <code>long</code>, <code>int</code>
+     * or <code>double</code> array, depending on the given component type. The result is the array
+     * trimmed to the number of records read.
+     */
+    private static class PrimitiveArrayProcessor extends ResultSetProcessorBase {
+        protected Class  componentType = null;
+        protected Object values        = null;
+        protected int    capacity      = INITIAL_CAPACITY;
+        protected int    size          = 0;
+
+        public PrimitiveArrayProcessor(Class componentType) {
+            this.componentType = componentType;
+            this.values        = Array.newInstance(componentType, this.capacity);
+        }
+
+        public void process(ResultSet result, IDaos daos) throws SQLException {
+            if(this.size == this.capacity){
+                this.capacity = grow(this.capacity);
+                this.values   = copyOf(this.capacity);
+            }
+            if(this.componentType == long.class)     ((long[])   this.values)[this.size] = result.getLong(1);
+            else if(this.componentType == int.class) ((int[])    this.values)[this.size] = result.getInt(1);
+            else                                     ((double[]) this.values)[this.size] = result.getDouble(1);
+            this.size++;
+        }
+
+        public Object getResult() {
+            return copyOf(this.size);
+        }
+
+        private Object copyOf(int length) {
+            Object copy = Array.newInstance(this.componentType, length);
+            System.arraycopy(this.values, 0, copy, 0, Math.min(this.size, length));
+            return copy;
+        }
+    }
+
+    /**
+     * A statement manager limiting the query to a single record, so the driver does not
+     * transfer the remaining records when only the first one is read.
+     */
+    private static class SingleRowStatementManager extends PreparedStatementManagerBase {
+        public SingleRowStatementManager(Object[] parameters) {
+            super(parameters);
+        }
+
+        public void init(PreparedStatement statement) throws SQLException, PersistenceException {
+            super.init(statement);
+            statement.setMaxRows(1);
+        }
+    }
+
+    private static int grow(int capacity) {
+        if(capacity >= Integer.MAX_VALUE / 2) return Integer.MAX_VALUE - 8;
+        return capacity * 2;
+    }
 }
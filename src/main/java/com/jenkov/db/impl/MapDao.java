@@ -24,10 +24,8 @@ import com.jenkov.db.itf.PersistenceException;
 import com.jenkov.db.itf.IDaos;
 
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -53,27 +51,21 @@ public class MapDao implements IMapDao {
     public Map readMap(String sql, IPreparedStatementManager statementManager) throws PersistenceException {
         return (Map) this.daos.getJdbcDao().read(sql, statementManager, new ResultSetProcessorBase(){
 
-            ResultSetMetaData metaData = null;
+            RowMap.Columns columns = null;
 
             public void init(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
-                this.metaData = result.getMetaData();
+                this.columns = new RowMap.Columns(result.getMetaData(), daos.getConfiguration().getMapStringCache());
             }
 
             public void process(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
-                setResult(readRecordIntoMap(result, this.metaData, (Map) getResult()));
+                RowMap row = (RowMap) getResult();
+                if(row == null) row = new RowMap(this.columns);
+                setResult(row.read(result));
             }
 
         });
     }
 
-    private Map readRecordIntoMap(ResultSet result, ResultSetMetaData metaData, Map map) throws SQLException {
-        if(map == null) map = new HashMap();
-        for(int i=1, n=metaData.getColumnCount(); i<=n; i++){
-            map.put(metaData.getColumnName(i), result.getObject(i));
-        }
-        return map;
-    }
-
     public List readMapList(String sql) throws PersistenceException {
         return readMapList(sql, new PreparedStatementManagerBase());
     }
@@ -84,15 +76,15 @@ public class MapDao implements IMapDao {
 
     public List readMapList(String sql, IPreparedStatementManager statementManager) throws PersistenceException{
         return (List) this.daos.getJdbcDao().read(sql, statementManager,  new ResultSetProcessorBase(){
-            ResultSetMetaData metaData = null;
+            RowMap.Columns columns = null;
 
             public void init(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
                 setResult(new ArrayList());
-                this.metaData = result.getMetaData();
+                this.columns = new RowMap.Columns(result.getMetaData(), daos.getConfiguration().getMapStringCache());
             }
 
             public void process(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
-                ((List) getResult()).add(readRecordIntoMap(result, this.metaData, null));
+                ((List) getResult()).add(new RowMap(this.columns).read(result));
             }
 
         });
@@ -19,17 +19,38 @@
 package com.jenkov.db.impl;
 
 import com.jenkov.db.itf.*;
+import com.jenkov.db.itf.mapping.IGetterMapping;
+import com.jenkov.db.itf.mapping.IKey;
+import com.jenkov.db.itf.mapping.IKeyValue;
+import com.jenkov.db.itf.mapping.IMethodMapping;
 import com.jenkov.db.itf.mapping.IObjectMapper;
 import com.jenkov.db.itf.mapping.IObjectMapping;
 import com.jenkov.db.itf.mapping.IObjectMappingCache;
+import com.jenkov.db.impl.filter.PageReadFilter;
 import com.jenkov.db.util.ClassUtil;
 import com.jenkov.db.util.JdbcUtil;
 
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Jakob Jenkov,
@@ -37,6 +58,9 @@ import java.util.List;
  */
 public class ObjectDao implements IObjectDao {
 
+    private static final String TEMPORARY_KEY_TABLE_PREFIX = "BP_KEYS_";
+    private static final String TEMPORARY_KEY_COLUMN       = "KEY_VALUE";
+
     protected IPersistenceConfiguration configuration = null;
 
     protected Connection connection    = null;
@@ -331,16 +355,733 @@ public class ObjectDao implements IObjectDao {
      //==============================
 
     public List readListByPrimaryKeys(Object objectMappingKey, Collection primaryKeys) throws PersistenceException {
+        return readListByPrimaryKeys(getObjectMapping(objectMappingKey), primaryKeys, null);
+    }
+
+    /**
+     * Reads the objects for the given primary keys in chunks. If columns is not null, only the given columns
+     * and the primary key columns are read.
+     */
+    protected List readListByPrimaryKeys(IObjectMapping mapping, Collection primaryKeys, Collection columns) throws PersistenceException {
         if(primaryKeys.size() == 0) return new ArrayList();
-        IObjectMapping mapping = getObjectMapping(objectMappingKey);
-        String  sql = getSqlGenerator().generateReadListByPrimaryKeysStatement(mapping, primaryKeys.size());
-        return getObjectReader().readListByPrimaryKeys(mapping, primaryKeys, sql, getConnection());
+        IPersistenceConfiguration configuration = getConfigurationOrFail();
+
+        if(mapping.getPrimaryKey().getColumns().size() == 1 && isTemporaryTableUsed(primaryKeys.size())){
+            String keyColumn = (String) mapping.getPrimaryKey().getColumns().iterator().next();
+            List values = new ArrayList(new LinkedHashSet(getPrimaryKeyColumnValues(mapping, primaryKeys)));
+            if(getTemporaryKeyColumnType(values) != null){
+                return readListByTemporaryTable(mapping, columns, keyColumn, values, null);
+            }
+        }
+
+        String arrayInClause = getArrayInClause(mapping);
+        Array  keyArray      = arrayInClause != null
+                ? createKeyArray(new ArrayList(new LinkedHashSet(getPrimaryKeyColumnValues(mapping, primaryKeys))))
+                : null;
+        if(keyArray != null){
+            String sql = getReadListByPrimaryKeyArraySql(mapping, columns, arrayInClause);
+            return getObjectReader().readList(mapping, sql, new Object[]{keyArray}, getConnection());
+        }
+
+        List keys      = new ArrayList(new LinkedHashSet(primaryKeys));
+        int  chunkSize = configuration.getMaxPrimaryKeysPerStatement();
+        List chunks    = new ArrayList();
+        for(int i=0; i<keys.size(); i+=chunkSize){
+            chunks.add(keys.subList(i, Math.min(i + chunkSize, keys.size())));
+        }
+
+        if(chunks.size() > 1 && configuration.getPrimaryKeyChunkParallelism() > 1 && configuration.getDataSource() != null
+                && !isInTransaction()){
+            return readChunksByPrimaryKeysParallel(mapping, chunks, columns, configuration);
+        }
+
+        List objects = new ArrayList();
+        for(int i=0; i<chunks.size(); i++){
+            objects.addAll(readChunkByPrimaryKeys(mapping, (List) chunks.get(i), columns, getConnection()));
+        }
+        return objects;
+    }
+
+    /**
+     * Reads the objects for a chunk of primary keys. The chunk is padded to the next power of two
+     * (or the maximum number of primary keys per statement) by repeating the last primary key,
+     * so the SQL can be taken from the cache, and the database can reuse its plan for the SQL.
+     */
+    protected List readChunkByPrimaryKeys(IObjectMapping mapping, List primaryKeys, Collection columns,
+                                          Connection connection) throws PersistenceException {
+        String sql = getReadChunkByPrimaryKeysSql(mapping, primaryKeys.size(), columns);
+        return getObjectReader().readListByPrimaryKeys(mapping, padPrimaryKeys(primaryKeys), sql, connection);
+    }
+
+    /**
+     * Returns the SQL for reading a chunk of the given number of primary keys. The SQL is generated for
+     * the bucket size of the primary key count, and cached per object mapping, columns and bucket size.
+     */
+    protected String getReadChunkByPrimaryKeysSql(IObjectMapping mapping, int primaryKeyCount, Collection columns)
+    throws PersistenceException {
+        IPersistenceConfiguration configuration = getConfigurationOrFail();
+        int bucketSize = getPrimaryKeysBucketSize(primaryKeyCount, configuration.getMaxPrimaryKeysPerStatement());
+
+        List bucketKey = columns == null
+                ? Arrays.asList(new Object[]{mapping, Integer.valueOf(bucketSize)})
+                : Arrays.asList(new Object[]{mapping, new ArrayList(columns), Integer.valueOf(bucketSize)});
+        String sql = getSqlFromCache(bucketKey, configuration.getReadListByPrimaryKeysSqlCache());
+        if(sql == null){
+            Database database = configuration.getDatabase();
+            sql = getSqlGenerator().generateReadListByPrimaryKeysInStatement(mapping, columns, bucketSize,
+                    database != null && database.isRowValueInSupported());
+            storeSqlInCache(bucketKey, configuration.getReadListByPrimaryKeysSqlCache(), sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Pads the primary keys to the bucket size of their count by repeating the last primary key.
+     */
+    protected List padPrimaryKeys(List primaryKeys) throws PersistenceException {
+        int bucketSize = getPrimaryKeysBucketSize(primaryKeys.size(), getConfigurationOrFail().getMaxPrimaryKeysPerStatement());
+        List paddedKeys = primaryKeys;
+        if(bucketSize > primaryKeys.size()){
+            paddedKeys = new ArrayList(bucketSize);
+            paddedKeys.addAll(primaryKeys);
+            Object lastKey = primaryKeys.get(primaryKeys.size() - 1);
+            while(paddedKeys.size() < bucketSize){
+                paddedKeys.add(lastKey);
+            }
+        }
+        return paddedKeys;
+    }
+
+    /**
+     * Returns the array in clause of the database if the given object mapping has a single column primary key,
+     * and the database supports array parameters. Else null is returned, and objects must be read by primary keys
+     * using chunked IN lists.
+     */
+    protected String getArrayInClause(IObjectMapping mapping) throws PersistenceException {
+        Database database = getConfigurationOrFail().getDatabase();
+        if(database == null || mapping.getPrimaryKey().getColumns().size() != 1) return null;
+        return database.getArrayInClause();
+    }
+
+    /**
+     * Creates an SQL array of the given key values, to bind as the parameter of the array in clause of the database.
+     * Returns null if the database has no array type for the values (see <code>Database.getArrayTypeName(...)</code>),
+     * or the driver fails to create the array, for instance because it does not support
+     * <code>Connection.createArrayOf(...)</code>. The keys must then be read using chunked IN lists instead.
+     */
+    protected Array createKeyArray(Collection values) throws PersistenceException {
+        Database database = getConfigurationOrFail().getDatabase();
+        String typeName = database != null ? database.getArrayTypeName(values) : null;
+        if(typeName == null) return null;
+        try{
+            return getConnection().createArrayOf(typeName, values.toArray());
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the SQL for reading objects by an array parameter of primary key values. The SQL is cached
+     * per object mapping and columns.
+     */
+    protected String getReadListByPrimaryKeyArraySql(IObjectMapping mapping, Collection columns, String arrayInClause)
+    throws PersistenceException {
+        IPersistenceConfiguration configuration = getConfigurationOrFail();
+        List cacheKey = columns == null
+                ? Arrays.asList(new Object[]{mapping, arrayInClause})
+                : Arrays.asList(new Object[]{mapping, new ArrayList(columns), arrayInClause});
+        String sql = getSqlFromCache(cacheKey, configuration.getReadListByPrimaryKeysSqlCache());
+        if(sql == null){
+            String keyColumn = (String) mapping.getPrimaryKey().getColumns().iterator().next();
+            sql = getSqlGenerator().generateReadListByColumnArrayStatement(mapping, columns, keyColumn, arrayInClause);
+            storeSqlInCache(cacheKey, configuration.getReadListByPrimaryKeysSqlCache(), sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Returns the values of the single primary key column of the given primary keys. The primary keys
+     * can be <code>IKeyValue</code> instances, objects of the mapped class, or the primary key values themselves.
+     */
+    protected List getPrimaryKeyColumnValues(IObjectMapping mapping, Collection primaryKeys) throws PersistenceException {
+        String keyColumn = (String) mapping.getPrimaryKey().getColumns().iterator().next();
+        List values = new ArrayList(primaryKeys.size());
+        Iterator iterator = primaryKeys.iterator();
+        while(iterator.hasNext()){
+            Object primaryKey = iterator.next();
+            if(primaryKey instanceof IKeyValue){
+                values.add(((IKeyValue) primaryKey).getColumnValue(keyColumn));
+            } else if(primaryKey != null && mapping.getObjectClass().equals(primaryKey.getClass())){
+                values.add(mapping.getPrimaryKeyValueForObject(primaryKey, null).getColumnValue(keyColumn));
+            } else {
+                values.add(primaryKey);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the bucket size for the given number of primary keys: The smallest power of two
+     * that is equal to or larger than the number of primary keys, but no larger than maxPrimaryKeys.
+     * The number of primary keys must not be larger than maxPrimaryKeys.
+     */
+    protected int getPrimaryKeysBucketSize(int primaryKeyCount, int maxPrimaryKeys){
+        int bucketSize = 1;
+        while(bucketSize < primaryKeyCount){
+            bucketSize <<= 1;
+        }
+        return Math.min(bucketSize, maxPrimaryKeys);
+    }
+
+    /**
+     * Returns true if the connection of this DAO is inside a transaction, meaning auto commit is switched off.
+     */
+    protected boolean isInTransaction() throws PersistenceException {
+        try {
+            return !getConnection().getAutoCommit();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading the auto commit mode of the connection", e);
+        }
+    }
+
+    /**
+     * Reads the chunks of primary keys on the read executor, using separate connections obtained from the
+     * <code>DataSource</code> of the persistence configuration. The chunks are distributed over as many
+     * tasks as the primary key chunk parallelism allows. The objects are returned in chunk order.
+     * If reading a chunk fails, the remaining tasks are cancelled.
+     */
+    protected List readChunksByPrimaryKeysParallel(final IObjectMapping mapping, final List chunks, final Collection columns,
+                                                   final IPersistenceConfiguration configuration) throws PersistenceException {
+        int taskCount = Math.min(configuration.getPrimaryKeyChunkParallelism(), chunks.size());
+        final List[] results = new List[chunks.size()];
+        List tasks = new ArrayList();
+
+        for(int t=0; t<taskCount; t++){
+            final int firstChunk = t;
+            final int chunkStep  = taskCount;
+            FutureTask task = new FutureTask(new Callable(){
+                public Object call() throws Exception {
+                    Connection connection = configuration.getDataSource().getConnection();
+                    try{
+                        for(int i=firstChunk; i<chunks.size(); i+=chunkStep){
+                            results[i] = readChunkByPrimaryKeys(mapping, (List) chunks.get(i), columns, connection);
+                        }
+                        return null;
+                    } finally {
+                        JdbcUtil.close(connection);
+                    }
+                }
+            });
+            configuration.getReadExecutor().execute(task);
+            tasks.add(task);
+        }
+
+        try {
+            for(int i=0; i<tasks.size(); i++){
+                ((FutureTask) tasks.get(i)).get();
+            }
+        } catch (InterruptedException e) {
+            cancelTasks(tasks);
+            Thread.currentThread().interrupt();
+            throw new PersistenceException("Interrupted while reading objects by primary keys", e);
+        } catch (ExecutionException e) {
+            cancelTasks(tasks);
+            if(e.getCause() instanceof PersistenceException) throw (PersistenceException) e.getCause();
+            throw new PersistenceException("Error reading objects by primary keys", e.getCause());
+        }
+
+        List objects = new ArrayList();
+        for(int i=0; i<results.length; i++){
+            objects.addAll(results[i]);
+        }
+        return objects;
+    }
+
+    private void cancelTasks(List tasks){
+        for(int i=0; i<tasks.size(); i++){
+            ((FutureTask) tasks.get(i)).cancel(true);
+        }
     }
 
     public <T> List<T> readListByPrimaryKeys(Class<T> objectMappingKey, Collection primaryKeys) throws PersistenceException {
         return readListByPrimaryKeys((Object) objectMappingKey, primaryKeys);
     }
 
+    public IProjectedList readListByPrimaryKeys(Object objectMappingKey, Collection primaryKeys, Collection eagerColumns)
+    throws PersistenceException {
+        IObjectMapping mapping = getObjectMapping(objectMappingKey);
+        return new ProjectedList(this, mapping, eagerColumns, readListByPrimaryKeys(mapping, primaryKeys, eagerColumns));
+    }
+
+    public <T> IProjectedList<T> readListByPrimaryKeys(Class<T> objectMappingKey, Collection primaryKeys, Collection eagerColumns)
+    throws PersistenceException {
+        return readListByPrimaryKeys((Object) objectMappingKey, primaryKeys, eagerColumns);
+    }
+
+    public Map readListByForeignKeys(Object objectMappingKey, String foreignKeyColumn, Collection foreignKeys)
+    throws PersistenceException {
+        Map childrenByKey = readListByForeignKeys(getObjectMapping(objectMappingKey), foreignKeyColumn, foreignKeys);
+        Map children = new LinkedHashMap();
+        Iterator iterator = foreignKeys.iterator();
+        while(iterator.hasNext()){
+            Object foreignKey = iterator.next();
+            if(foreignKey != null && !children.containsKey(foreignKey)){
+                children.put(foreignKey, childrenByKey.get(normalizeForeignKey(foreignKey)));
+            }
+        }
+        return children;
+    }
+
+    public <T> Map<Object, List<T>> readListByForeignKeys(Class<T> objectMappingKey, String foreignKeyColumn,
+                                                          Collection foreignKeys) throws PersistenceException {
+        return readListByForeignKeys((Object) objectMappingKey, foreignKeyColumn, foreignKeys);
+    }
+
+    public List readListByColumnValues(Object objectMappingKey, String column, Collection values)
+    throws PersistenceException {
+        List distinctValues = new ArrayList();
+        Set  normalizedValues = new HashSet();
+        Iterator iterator = values.iterator();
+        while(iterator.hasNext()){
+            Object value = iterator.next();
+            if(value != null && normalizedValues.add(normalizeForeignKey(value))){
+                distinctValues.add(value);
+            }
+        }
+        if(distinctValues.size() == 0) return new ArrayList();
+        return readListByColumnValues(getObjectMapping(objectMappingKey), column, distinctValues, null);
+    }
+
+    public <T> List<T> readListByColumnValues(Class<T> objectMappingKey, String column, Collection values)
+    throws PersistenceException {
+        return readListByColumnValues((Object) objectMappingKey, column, values);
+    }
+
+    public List readChildren(Object objectMappingKey, String foreignKeyColumn, Collection parents, IAssociation association)
+    throws PersistenceException {
+        List keys = new ArrayList(parents.size());
+        Iterator iterator = parents.iterator();
+        while(iterator.hasNext()){
+            keys.add(association.getKey(iterator.next()));
+        }
+        Map childrenByKey = readListByForeignKeys(getObjectMapping(objectMappingKey), foreignKeyColumn, keys);
+
+        iterator = parents.iterator();
+        for(int i=0; iterator.hasNext(); i++){
+            Object key = keys.get(i);
+            List children = key != null ? (List) childrenByKey.get(normalizeForeignKey(key)) : null;
+            association.setChildren(iterator.next(), children != null ? children : new ArrayList());
+        }
+
+        List allChildren = new ArrayList();
+        iterator = childrenByKey.values().iterator();
+        while(iterator.hasNext()){
+            allChildren.addAll((List) iterator.next());
+        }
+        return allChildren;
+    }
+
+    public <P, C> List<C> readChildren(Class<C> objectMappingKey, String foreignKeyColumn, Collection<P> parents,
+                                       IAssociation<P, C> association) throws PersistenceException {
+        return readChildren((Object) objectMappingKey, foreignKeyColumn, parents, (IAssociation) association);
+    }
+
+    /**
+     * Reads the objects for the given foreign keys in chunks, and returns them in lists keyed
+     * by the normalized foreign key values (see <code>normalizeForeignKey(...)</code>). The chunks
+     * are padded the same way as chunks of primary keys, so the SQL can be taken from the cache.
+     */
+    protected Map readListByForeignKeys(IObjectMapping mapping, String foreignKeyColumn, Collection foreignKeys)
+    throws PersistenceException {
+        Map children = new LinkedHashMap();
+        List keys = new ArrayList();
+        Iterator iterator = foreignKeys.iterator();
+        while(iterator.hasNext()){
+            Object foreignKey = iterator.next();
+            if(foreignKey == null) continue;
+            Object normalizedKey = normalizeForeignKey(foreignKey);
+            if(!children.containsKey(normalizedKey)){
+                children.put(normalizedKey, new ArrayList());
+                keys.add(foreignKey);
+            }
+        }
+
+        if(keys.size() == 0) return children;
+
+        ColumnValueReadFilter filter = new ColumnValueReadFilter(foreignKeyColumn);
+        List objects = readListByColumnValues(mapping, foreignKeyColumn, keys, filter);
+        for(int i=0; i<objects.size(); i++){
+            List list = (List) children.get(normalizeForeignKey(filter.values.get(i)));
+            if(list != null) list.add(objects.get(i));
+        }
+        return children;
+    }
+
+    /**
+     * Reads the objects whose value in the given column is one of the given values, which must be distinct
+     * and not null. If the number of values reaches the temporary table key threshold, and the database has
+     * a temporary table statement, the values are inserted into a temporary table which is joined against.
+     * Else, if the database supports array parameters of the values, they are read with a single statement. Otherwise
+     * the values are read in chunks, padded the same way as chunks of primary keys, so the SQL can be taken
+     * from the cache.
+     */
+    protected List readListByColumnValues(IObjectMapping mapping, String column, List values, IReadFilter filter)
+    throws PersistenceException {
+        if(isTemporaryTableUsed(values.size()) && getTemporaryKeyColumnType(values) != null){
+            return readListByTemporaryTable(mapping, null, column, values, filter);
+        }
+
+        IPersistenceConfiguration configuration = getConfigurationOrFail();
+        Database database = configuration.getDatabase();
+        String arrayInClause = database != null ? database.getArrayInClause() : null;
+        Array  valueArray    = arrayInClause != null ? createKeyArray(values) : null;
+        if(valueArray != null){
+            List cacheKey = Arrays.asList(new Object[]{mapping, column, arrayInClause});
+            String sql = getSqlFromCache(cacheKey, configuration.getReadListByForeignKeysSqlCache());
+            if(sql == null){
+                sql = getSqlGenerator().generateReadListByColumnArrayStatement(mapping, null, column, arrayInClause);
+                storeSqlInCache(cacheKey, configuration.getReadListByForeignKeysSqlCache(), sql);
+            }
+            return getObjectReader().readList(mapping, sql, new Object[]{valueArray}, getConnection(), filter);
+        }
+
+        List objects = new ArrayList();
+        int chunkSize = configuration.getMaxPrimaryKeysPerStatement();
+        for(int i=0; i<values.size(); i+=chunkSize){
+            List chunk = values.subList(i, Math.min(i + chunkSize, values.size()));
+            int bucketSize = getPrimaryKeysBucketSize(chunk.size(), chunkSize);
+
+            List bucketKey = Arrays.asList(new Object[]{mapping, column, Integer.valueOf(bucketSize)});
+            String sql = getSqlFromCache(bucketKey, configuration.getReadListByForeignKeysSqlCache());
+            if(sql == null){
+                sql = getSqlGenerator().generateReadListByColumnInStatement(mapping, column, bucketSize);
+                storeSqlInCache(bucketKey, configuration.getReadListByForeignKeysSqlCache(), sql);
+            }
+            List chunkObjects = getObjectReader().readList(mapping, sql, padPrimaryKeys(chunk).toArray(), getConnection(), filter);
+            objects.addAll(chunkObjects);
+            if(chunkObjects instanceof ICloseableList) ((ICloseableList) chunkObjects).close();
+        }
+        return objects;
+    }
+
+    /**
+     * Returns true if objects read by the given number of keys should be read by inserting the keys into
+     * a temporary table, meaning the number of keys reaches the temporary table key threshold of the
+     * persistence configuration, and the database has a temporary table statement.
+     */
+    protected boolean isTemporaryTableUsed(int keyCount) throws PersistenceException {
+        IPersistenceConfiguration configuration = getConfigurationOrFail();
+        int threshold = configuration.getTemporaryTableKeyThreshold();
+        if(threshold == 0 || keyCount < threshold) return false;
+        Database database = configuration.getDatabase();
+        return database != null && database.getTemporaryTableStatement() != null;
+    }
+
+    /**
+     * Inserts the given values into a temporary table, and reads the objects whose value in the given column
+     * is among them. If columns is not null, only the given columns and the primary key columns are read.
+     * The temporary table is emptied again afterwards, so it can be reused by later reads on the same connection.
+     * If inserting the values or reading the objects fails, errors emptying the temporary table are ignored,
+     * so the original exception is thrown.
+     */
+    protected List readListByTemporaryTable(IObjectMapping mapping, Collection columns, String column, List values,
+                                            IReadFilter filter) throws PersistenceException {
+        String  columnType = getTemporaryKeyColumnType(values);
+        String  keyTable   = TEMPORARY_KEY_TABLE_PREFIX + getTemporaryKeyTableSuffix(columnType);
+        boolean read       = false;
+        try{
+            insertTemporaryKeys(keyTable, columnType, values);
+            String sql = getSqlGenerator().generateReadListByColumnInTableStatement(
+                    mapping, columns, column, keyTable, TEMPORARY_KEY_COLUMN);
+            List objects = getObjectReader().readList(mapping, sql, getConnection(), filter);
+            read = true;
+            return objects;
+        } finally {
+            if(read) deleteTemporaryKeys(keyTable);
+            else     deleteTemporaryKeysIgnore(keyTable);
+        }
+    }
+
+    /**
+     * Creates the given temporary key table with the given column type, if it does not already exist,
+     * and inserts the values into it using JDBC batches of the temporary table batch size of the
+     * persistence configuration. Null values are not inserted, since they never match any column value.
+     */
+    protected void insertTemporaryKeys(String keyTable, String columnType, List values) throws PersistenceException {
+        int    batchSize = getConfigurationOrFail().getTemporaryTableBatchSize();
+        String createSql = String.format(getConfigurationOrFail().getDatabase().getTemporaryTableStatement(),
+                keyTable, TEMPORARY_KEY_COLUMN + " " + columnType);
+        String insertSql = "insert into " + keyTable + " (" + TEMPORARY_KEY_COLUMN + ") values (?)";
+        String sql       = createSql;
+
+        Statement statement = null;
+        PreparedStatement preparedStatement = null;
+        try{
+            statement = getConnection().createStatement();
+            statement.execute(createSql);
+
+            sql = insertSql;
+            preparedStatement = getConnection().prepareStatement(insertSql);
+            int batched = 0;
+            for(int i=0; i<values.size(); i++){
+                if(values.get(i) == null) continue;
+                JdbcUtil.insertParameter(preparedStatement, 1, values.get(i));
+                preparedStatement.addBatch();
+                if(++batched == batchSize){
+                    preparedStatement.executeBatch();
+                    batched = 0;
+                }
+            }
+            if(batched > 0) preparedStatement.executeBatch();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error inserting keys into temporary table " + keyTable + "\nSql: " + sql, e);
+        } finally {
+            JdbcUtil.close(statement);
+            JdbcUtil.close(preparedStatement);
+        }
+    }
+
+    /**
+     * Deletes all keys from the given temporary key table.
+     */
+    protected void deleteTemporaryKeys(String keyTable) throws PersistenceException {
+        Statement statement = null;
+        try{
+            statement = getConnection().createStatement();
+            statement.executeUpdate("delete from " + keyTable);
+        } catch (SQLException e) {
+            throw new PersistenceException("Error deleting keys from temporary table " + keyTable, e);
+        } finally {
+            JdbcUtil.close(statement);
+        }
+    }
+
+    /**
+     * Deletes all keys from the given temporary key table, ignoring any errors. Used when reading by the
+     * temporary key table has already failed, in which case the table may not exist, or the transaction
+     * may be aborted.
+     */
+    protected void deleteTemporaryKeysIgnore(String keyTable) {
+        try{
+            deleteTemporaryKeys(keyTable);
+        } catch (PersistenceException e) {
+            //ignore, the original exception is more important.
+        }
+    }
+
+    /**
+     * Returns the column type of the temporary key table for the given values, or null if the values cannot
+     * be stored in a single column. Null values are skipped. Integral numbers are stored as bigint, and if
+     * mixed with BigInteger's as numeric(38). Numbers mixed with BigDecimal's are stored as numeric(38, 10),
+     * else numbers mixed with Double's or Float's as double precision. Values of other types, and collections
+     * of only null values, are stored as varchar. Null is returned if numbers are mixed with values of other types.
+     */
+    protected String getTemporaryKeyColumnType(List values){
+        boolean integral = false, bigInteger = false, decimal = false, floating = false, other = false;
+        for(int i=0; i<values.size(); i++){
+            Object value = values.get(i);
+            if(value == null) continue;
+            if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) integral = true;
+            else if(value instanceof BigInteger) bigInteger = true;
+            else if(value instanceof BigDecimal) decimal    = true;
+            else if(value instanceof Double || value instanceof Float) floating = true;
+            else other = true;
+        }
+        boolean number = integral || bigInteger || decimal || floating;
+        if(number && other) return null;
+        if(decimal)    return "numeric(38, 10)";
+        if(floating)   return "double precision";
+        if(bigInteger) return "numeric(38)";
+        if(integral)   return "bigint";
+        return "varchar(4000)";
+    }
+
+    private String getTemporaryKeyTableSuffix(String columnType){
+        int end = 0;
+        while(end < columnType.length() && Character.isLetter(columnType.charAt(end))) end++;
+        return columnType.substring(0, end).toUpperCase();
+    }
+
+    /**
+     * Returns the given foreign key value in a form that equals the values read from the foreign key column,
+     * regardless of the numeric type of the column and of the value. Integral numbers are returned as
+     * <code>Long</code>. Other values are returned as they are.
+     */
+    protected Object normalizeForeignKey(Object foreignKey){
+        if(foreignKey instanceof Long) return foreignKey;
+        if(foreignKey instanceof Integer || foreignKey instanceof Short || foreignKey instanceof Byte){
+            return Long.valueOf(((Number) foreignKey).longValue());
+        }
+        if(foreignKey instanceof BigDecimal || foreignKey instanceof BigInteger){
+            try{
+                return Long.valueOf(new BigDecimal(foreignKey.toString()).longValueExact());
+            } catch (ArithmeticException e){
+                return foreignKey;
+            }
+        }
+        return foreignKey;
+    }
+
+    /**
+     * A read filter accepting all records, and collecting the value of the given column of each record,
+     * so the values can be matched with the objects read from the same records.
+     */
+    private static class ColumnValueReadFilter implements IReadFilter {
+
+        protected String column      = null;
+        protected int    columnIndex = 0;
+        protected List   values      = new ArrayList();
+
+        public ColumnValueReadFilter(String column) {
+            this.column = column;
+        }
+
+        public void init(ResultSet result) throws SQLException, PersistenceException {
+            this.columnIndex = result.findColumn(this.column);
+        }
+
+        public boolean accept(ResultSet result) throws SQLException, PersistenceException {
+            this.values.add(result.getObject(this.columnIndex));
+            return true;
+        }
+
+        public boolean acceptMore()                                       { return true; }
+        public void    acceptedByAllFilters(boolean wasAcceptedByAllFilters) { /* do nothing */ }
+        public void    clear()                                            { this.values.clear(); }
+    }
+
+    /**
+     * Reads the mapped columns not among the eager columns into the given objects, in chunks of
+     * primary keys. The objects are refreshed in place, matched by their primary keys.
+     */
+    protected void readRemainingColumns(IObjectMapping mapping, List objects, Collection eagerColumns) throws PersistenceException {
+        if(objects.size() == 0) return;
+
+        List remainingColumns = new ArrayList();
+        Iterator setterMappings = mapping.getSetterMappings().iterator();
+        while(setterMappings.hasNext()){
+            IMethodMapping setterMapping = (IMethodMapping) setterMappings.next();
+            if(setterMapping.isTableMapped() && !containsColumn(eagerColumns, setterMapping.getColumnName())
+                    && !containsColumn(mapping.getPrimaryKey().getColumns(), setterMapping.getColumnName())){
+                remainingColumns.add(setterMapping.getColumnName());
+            }
+        }
+        if(remainingColumns.size() == 0) return;
+
+        String arrayInClause = getArrayInClause(mapping);
+        Array  keyArray      = arrayInClause != null ? createKeyArray(getPrimaryKeyColumnValues(mapping, objects)) : null;
+        if(keyArray != null){
+            String sql = getReadListByPrimaryKeyArraySql(mapping, remainingColumns, arrayInClause);
+            getObjectReader().readList(mapping, sql, new Object[]{keyArray}, getConnection(), null, objects);
+            return;
+        }
+
+        int chunkSize = getConfigurationOrFail().getMaxPrimaryKeysPerStatement();
+        for(int i=0; i<objects.size(); i+=chunkSize){
+            List chunk = objects.subList(i, Math.min(i + chunkSize, objects.size()));
+            List primaryKeys = new ArrayList(chunk.size());
+            for(int j=0; j<chunk.size(); j++){
+                primaryKeys.add(mapping.getPrimaryKeyValueForObject(chunk.get(j), null));
+            }
+            String sql = getReadChunkByPrimaryKeysSql(mapping, primaryKeys.size(), remainingColumns);
+
+            List parameters = new ArrayList();
+            Iterator paddedKeys = padPrimaryKeys(primaryKeys).iterator();
+            while(paddedKeys.hasNext()){
+                IKeyValue keyValue = (IKeyValue) paddedKeys.next();
+                Iterator keyColumns = mapping.getPrimaryKey().getColumns().iterator();
+                while(keyColumns.hasNext()){
+                    parameters.add(keyValue.getColumnValue((String) keyColumns.next()));
+                }
+            }
+            getObjectReader().readList(mapping, sql, parameters.toArray(), getConnection(), null, chunk);
+        }
+    }
+
+    private boolean containsColumn(Collection columns, String column) {
+        if(columns == null) return false;
+        Iterator iterator = columns.iterator();
+        while(iterator.hasNext()){
+            if(column.equalsIgnoreCase((String) iterator.next())) return true;
+        }
+        return false;
+    }
+
+    public List readListAfter(Object objectMappingKey, Object lastPrimaryKey, int pageSize) throws PersistenceException {
+        return readListAfter(objectMappingKey, null, lastPrimaryKey, pageSize);
+    }
+
+    public <T> List<T> readListAfter(Class<T> objectMappingKey, Object lastPrimaryKey, int pageSize) throws PersistenceException {
+        return readListAfter((Object) objectMappingKey, null, lastPrimaryKey, pageSize);
+    }
+
+    public List readListAfter(Object objectMappingKey, IKey orderBy, Object lastKey, int pageSize) throws PersistenceException {
+        IObjectMapping mapping = getObjectMapping(objectMappingKey);
+        IPersistenceConfiguration configuration = getConfigurationOrFail();
+        if(orderBy == null) orderBy = mapping.getPrimaryKey();
+
+        Database database  = configuration.getDatabase();
+        boolean  rowValues = database != null && database.isRowValueInSupported();
+        boolean  afterKey  = lastKey != null;
+
+        List cacheKey = Arrays.asList(new Object[]{mapping, new ArrayList(orderBy.getColumns()), Boolean.valueOf(afterKey)});
+        String sql = getSqlFromCache(cacheKey, configuration.getReadListAfterKeySqlCache());
+        if(sql == null){
+            sql = getSqlGenerator().generateReadListAfterKeyStatement(mapping, orderBy, afterKey, rowValues);
+            storeSqlInCache(cacheKey, configuration.getReadListAfterKeySqlCache(), sql);
+        }
+
+        Object[] parameters = afterKey ? getAfterKeyParameters(mapping, orderBy, lastKey, rowValues) : new Object[0];
+        PageReadFilter filter = new PageReadFilter(0, pageSize);
+        filter.setDatabasePaging(true);
+        return getObjectReader().readList(mapping, sql, parameters, getConnection(), filter);
+    }
+
+    public <T> List<T> readListAfter(Class<T> objectMappingKey, IKey orderBy, Object lastKey, int pageSize) throws PersistenceException {
+        return readListAfter((Object) objectMappingKey, orderBy, lastKey, pageSize);
+    }
+
+    /**
+     * Returns the parameters for the SQL generated by <code>generateReadListAfterKeyStatement(...)</code>,
+     * in the sequence the ?-marks of the key comparison appear in.
+     */
+    protected Object[] getAfterKeyParameters(IObjectMapping mapping, IKey orderBy, Object lastKey, boolean rowValues)
+    throws PersistenceException {
+        String[] columns = (String[]) orderBy.getColumns().toArray(new String[orderBy.size()]);
+        Object[] values  = new Object[columns.length];
+
+        if(lastKey instanceof IKeyValue || !mapping.getObjectClass().equals(lastKey.getClass())){
+            IKeyValue keyValue = lastKey instanceof IKeyValue ? (IKeyValue) lastKey : orderBy.toKeyValue(lastKey);
+            if(!orderBy.isValid(keyValue)){
+                throw new PersistenceException("The last key value is not valid. Key is: " + orderBy +
+                        ". Key value is: " + keyValue);
+            }
+            for(int i=0; i<columns.length; i++){
+                values[i] = keyValue.getColumnValue(columns[i]);
+            }
+        } else {
+            for(int i=0; i<columns.length; i++){
+                IGetterMapping getterMapping = mapping.getGetterMapping(columns[i]);
+                if(getterMapping == null){
+                    throw new PersistenceException("No getter mapped to the column " + columns[i] +
+                            " to order by, in object mapping " + mapping);
+                }
+                values[i] = getterMapping.getValueFromObject(lastKey);
+            }
+        }
+
+        if(columns.length == 1 || rowValues) return values;
+
+        List parameters = new ArrayList();
+        parameters.add(values[0]);
+        for(int i=0; i<values.length; i++){
+            for(int j=0; j<=i; j++){
+                parameters.add(values[j]);
+            }
+        }
+        return parameters.toArray();
+    }
+
     public List readList(Object objectMappingKey, String sql) throws PersistenceException {
         return getObjectReader().readList(getObjectMapping(objectMappingKey), sql, connection);
     }
@@ -445,6 +1186,136 @@ public class ObjectDao implements IObjectDao {
         return readList((Object) objectMappingKey, sql, filter, parameters);
     }
 
+    public ICloseableList readSpillingList(Object objectMappingKey, String sql, Object ...  parameters) throws PersistenceException {
+        return readSpillingList(objectMappingKey, sql, (IReadFilter) null, parameters);
+    }
+
+    public <T> ICloseableList<T> readSpillingList(Class<T> objectMappingKey, String sql, Object ...  parameters) throws PersistenceException {
+        return readSpillingList((Object) objectMappingKey, sql, (IReadFilter) null, parameters);
+    }
+
+    public ICloseableList readSpillingList(Object objectMappingKey, String sql, IReadFilter filter, Object ...  parameters) throws PersistenceException {
+        return getObjectReader().readSpillingList(getObjectMapping(objectMappingKey), sql, parameters, getConnection(), filter);
+    }
+
+    public <T> ICloseableList<T> readSpillingList(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ...  parameters) throws PersistenceException {
+        return readSpillingList((Object) objectMappingKey, sql, filter, parameters);
+    }
+
+
+    public IObjectIterator readIterator(Object objectMappingKey, String sql, Object ... parameters) throws PersistenceException {
+        return readIterator(objectMappingKey, sql, (IReadFilter) null, parameters);
+    }
+
+    public <T> IObjectIterator<T> readIterator(Class<T> objectMappingKey, String sql, Object ... parameters) throws PersistenceException {
+        return readIterator((Object) objectMappingKey, sql, (IReadFilter) null, parameters);
+    }
+
+    public IObjectIterator readIterator(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException {
+        return getObjectReader().readIterator(getObjectMapping(objectMappingKey), sql, parameters, getConnection(), filter);
+    }
+
+    public <T> IObjectIterator<T> readIterator(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException {
+        return readIterator((Object) objectMappingKey, sql, filter, parameters);
+    }
+
+    public Stream readStream(Object objectMappingKey, String sql, Object ... parameters) throws PersistenceException {
+        return readStream(objectMappingKey, sql, (IReadFilter) null, parameters);
+    }
+
+    public <T> Stream<T> readStream(Class<T> objectMappingKey, String sql, Object ... parameters) throws PersistenceException {
+        return readStream((Object) objectMappingKey, sql, (IReadFilter) null, parameters);
+    }
+
+    public Stream readStream(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException {
+        final IObjectIterator iterator = readIterator(objectMappingKey, sql, filter, parameters);
+        Stream stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+        return (Stream) stream.onClose(new Runnable(){
+            public void run() {
+                try {
+                    iterator.close();
+                } catch (PersistenceException e) {
+                    throw new PersistenceExceptionUnchecked(e);
+                }
+            }
+        });
+    }
+
+    public <T> Stream<T> readStream(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException {
+        return readStream((Object) objectMappingKey, sql, filter, parameters);
+    }
+
+    public IPublisher readPublisher(Object objectMappingKey, String sql, Object ... parameters) throws PersistenceException {
+        return readPublisher(objectMappingKey, sql, (IReadFilter) null, parameters);
+    }
+
+    public <T> IPublisher<T> readPublisher(Class<T> objectMappingKey, String sql, Object ... parameters) throws PersistenceException {
+        return readPublisher((Object) objectMappingKey, sql, (IReadFilter) null, parameters);
+    }
+
+    public IPublisher readPublisher(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException {
+        DataSource dataSource = getConfigurationOrFail().getDataSource();
+        return createPublisher(objectMappingKey, sql, filter, parameters, isInTransaction() ? null : dataSource);
+    }
+
+    public <T> IPublisher<T> readPublisher(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException {
+        return readPublisher((Object) objectMappingKey, sql, filter, parameters);
+    }
+
+    public IPublisher readPublisherOnNewConnection(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException {
+        DataSource dataSource = getConfigurationOrFail().getDataSource();
+        if(dataSource == null){
+            throw new PersistenceException("No DataSource set on the persistence configuration. " +
+                    "A publisher can only read on a new connection if a DataSource is set.");
+        }
+        return createPublisher(objectMappingKey, sql, filter, parameters, dataSource);
+    }
+
+    public <T> IPublisher<T> readPublisherOnNewConnection(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException {
+        return readPublisherOnNewConnection((Object) objectMappingKey, sql, filter, parameters);
+    }
+
+    /**
+     * Creates a publisher of the objects read by the given SQL. If dataSource is not null, each subscription
+     * obtains its own connection from it. Otherwise the connection of this DAO is used.
+     */
+    protected IPublisher createPublisher(Object objectMappingKey, final String sql, final IReadFilter filter,
+                                         final Object[] parameters, DataSource dataSource) throws PersistenceException {
+        final IObjectMapping mapping = getObjectMapping(objectMappingKey);
+        final IObjectReader  reader  = getObjectReader();
+        Connection connection = dataSource == null ? getConnection() : null;
+
+        return new ResultSetPublisher(dataSource, connection, getConfigurationOrFail().getReadExecutor()){
+            protected IObjectIterator open(Connection connection) throws PersistenceException {
+                return reader.readIterator(mapping, sql, parameters, connection, filter);
+            }
+        };
+    }
+
+    public int readEach(Object objectMappingKey, String sql, IObjectConsumer consumer, Object ... parameters) throws PersistenceException {
+        return readEach(objectMappingKey, sql, 0, consumer, parameters);
+    }
+
+    public <T> int readEach(Class<T> objectMappingKey, String sql, IObjectConsumer<? super T> consumer, Object ... parameters) throws PersistenceException {
+        return readEach((Object) objectMappingKey, sql, 0, consumer, parameters);
+    }
+
+    public int readEach(Object objectMappingKey, String sql, int reuseInstances, IObjectConsumer consumer, Object ... parameters) throws PersistenceException {
+        return getObjectReader().readEach(getObjectMapping(objectMappingKey), sql, parameters, getConnection(), null, reuseInstances, consumer);
+    }
+
+    public <T> int readEach(Class<T> objectMappingKey, String sql, int reuseInstances, IObjectConsumer<? super T> consumer, Object ... parameters) throws PersistenceException {
+        return readEach((Object) objectMappingKey, sql, reuseInstances, consumer, parameters);
+    }
+
+    public List refreshList(Object objectMappingKey, String sql, Collection persistentObjects, Object ... parameters) throws PersistenceException {
+        return getObjectReader().readList(getObjectMapping(objectMappingKey), sql, parameters, getConnection(), null, persistentObjects);
+    }
+
+    public <T> List<T> refreshList(Class<T> objectMappingKey, String sql, Collection<T> persistentObjects, Object ... parameters) throws PersistenceException {
+        return refreshList((Object) objectMappingKey, sql, (Collection) persistentObjects, parameters);
+    }
+
 
     // ***********************************
     //  Insert, Update and Delete Methods
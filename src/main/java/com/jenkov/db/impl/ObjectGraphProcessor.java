@@ -0,0 +1,304 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.IAssociation;
+import com.jenkov.db.itf.IDaos;
+import com.jenkov.db.itf.IPersistenceConfiguration;
+import com.jenkov.db.itf.PersistenceException;
+import com.jenkov.db.itf.mapping.IObjectMapping;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A result set processor reading a graph of objects (for instance orders with their order lines,
+ * and the order lines with their deliveries) from a single joined query. Each level of the graph is
+ * described by a <code>Node</code> with an object mapping, the key columns identifying an object of
+ * that level, and an <code>IAssociation</code> attaching the objects to their parent objects.
+ *
+ * <br/><br/>
+ * The columns of each node are matched against the object mapping of the node by their column labels,
+ * with the column prefix of the node removed. Use column aliases with a prefix per node in the query,
+ * so columns with the same names in different tables can be told apart, for instance
+ * <code>select o.*, l.id as line_id, l.item as line_item from orders o left join lines l on ...</code>.
+ *
+ * <br/><br/>
+ * For each record, the key column values of each node are compared with those of the previous record,
+ * using column indexes resolved once per <code>ResultSet</code>. Only when the key values change is the
+ * object looked up in the identity map of the node, and only the first time a key is seen is an object
+ * read from the record. Each object is thus read once, even if the join repeats its columns in many records,
+ * and objects appearing under several parents are the same instance. If all key columns of a node are
+ * NULL (outer joins), no object is read for the node and its child nodes in that record.
+ *
+ * <br/><br/>
+ * When the processing is done the children of each parent object are attached via the association of
+ * the child node, in the order they were first read. Parents without children get an empty list.
+ * The result is the list of root objects. Example:
+ *
+ * <pre>
+ * ObjectGraphProcessor graph = new ObjectGraphProcessor(Order.class);
+ * graph.getRoot().addChild(OrderLine.class, "LINE_", new String[]{"ID"}, orderLines);
+ * List orders = (List) daos.getJdbcDao().read(sql, graph, customerId);
+ * </pre>
+ *
+ * A processor instance can only be used to process one <code>ResultSet</code>.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ObjectGraphProcessor extends ResultSetProcessorBase {
+
+    protected Node    root     = null;
+    protected List    nodes    = new ArrayList();
+    protected boolean finished = false;
+
+    /**
+     * Creates a processor with a root node for the given object mapping key, identified by
+     * the primary key of the object mapping, without a column prefix.
+     * @param objectMappingKey The object mapping key of the root objects.
+     */
+    public ObjectGraphProcessor(Object objectMappingKey) {
+        this(objectMappingKey, null, null);
+    }
+
+    /**
+     * Creates a processor with a root node for the given object mapping key.
+     * @param objectMappingKey The object mapping key of the root objects.
+     * @param columnPrefix The prefix of the column labels of the root objects, or null if none.
+     * @param keyColumns The key columns of the root objects, named as in the object mapping.
+     *                   If null the primary key columns of the object mapping are used.
+     */
+    public ObjectGraphProcessor(Object objectMappingKey, String columnPrefix, String[] keyColumns) {
+        this.root = new Node(this, null, objectMappingKey, columnPrefix, keyColumns, null);
+    }
+
+    public Node getRoot() {
+        return root;
+    }
+
+    public void init(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
+        String[] columnLabels = getColumnLabels(result);
+        for(int i=0; i<this.nodes.size(); i++){
+            ((Node) this.nodes.get(i)).compile(columnLabels, daos);
+        }
+    }
+
+    public void process(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
+        process(this.root, result, null, false);
+    }
+
+    protected void process(Node node, ResultSet result, Object parent, boolean parentChanged)
+            throws SQLException, PersistenceException {
+        boolean changed = node.readKey(result) || parentChanged;
+        if(changed){
+            node.current = node.isKeyNull() ? null : node.getOrRead(result);
+            if(node.current != null && parent != null) node.link(parent, node.current);
+        }
+        if(node.current == null) return;
+
+        for(int i=0; i<node.children.size(); i++){
+            process((Node) node.children.get(i), result, node.current, changed);
+        }
+    }
+
+    public Object getResult() throws PersistenceException {
+        if(!this.finished){
+            for(int i=1; i<this.nodes.size(); i++){
+                ((Node) this.nodes.get(i)).attachChildren();
+            }
+            setResult(new ArrayList(this.root.objects.values()));
+            this.finished = true;
+        }
+        return super.getResult();
+    }
+
+    protected String[] getColumnLabels(ResultSet result) throws SQLException {
+        ResultSetMetaData metaData = result.getMetaData();
+        String[] columnLabels = new String[metaData.getColumnCount()];
+        for(int i=0; i<columnLabels.length; i++){
+            columnLabels[i] = metaData.getColumnLabel(i + 1);
+        }
+        return columnLabels;
+    }
+
+
+    /**
+     * A level of the object graph read by an <code>ObjectGraphProcessor</code>.
+     */
+    public static class Node {
+
+        protected ObjectGraphProcessor processor    = null;
+        protected Node                 parent       = null;
+        protected Object               objectMappingKey = null;
+        protected String               columnPrefix = null;
+        protected String[]             keyColumns   = null;
+        protected IAssociation         association  = null;
+        protected List                 children     = new ArrayList();
+
+        protected RowPlan  plan            = null;
+        protected int[]    keyIndexes      = null;
+        protected Object[] keyValues       = null;
+        protected Object[] previousValues  = null;
+        protected boolean  hasPrevious     = false;
+        protected Object   current         = null;
+        protected Object   currentKey      = null;
+
+        protected Map      objects         = new LinkedHashMap();
+        protected Map      links           = new IdentityHashMap();
+
+        protected Node(ObjectGraphProcessor processor, Node parent, Object objectMappingKey, String columnPrefix,
+                       String[] keyColumns, IAssociation association) {
+            this.processor        = processor;
+            this.parent           = parent;
+            this.objectMappingKey = objectMappingKey;
+            this.columnPrefix     = columnPrefix;
+            this.keyColumns       = keyColumns;
+            this.association      = association;
+            processor.nodes.add(this);
+        }
+
+        /**
+         * Adds a child node to this node. The objects of the child node are attached to the objects of
+         * this node via the given association. The key of the association is not used.
+         *
+         * @param objectMappingKey The object mapping key of the child objects.
+         * @param columnPrefix The prefix of the column labels of the child objects, or null if none.
+         * @param keyColumns The key columns of the child objects, named as in the object mapping.
+         *                   If null the primary key columns of the object mapping are used.
+         * @param association The association attaching the child objects to the objects of this node.
+         * @return The child node.
+         */
+        public Node addChild(Object objectMappingKey, String columnPrefix, String[] keyColumns, IAssociation association) {
+            Node child = new Node(this.processor, this, objectMappingKey, columnPrefix, keyColumns, association);
+            this.children.add(child);
+            return child;
+        }
+
+        /**
+         * Returns the objects read for this node, in the order they were first read.
+         */
+        public Collection getObjects() {
+            return this.objects.values();
+        }
+
+        protected void compile(String[] columnLabels, IDaos daos) throws PersistenceException {
+            IPersistenceConfiguration configuration = daos.getConfiguration();
+            IObjectMapping mapping = configuration.getObjectMapper().getObjectMapping(
+                    this.objectMappingKey, configuration, daos.getConnection());
+
+            String[] columnNames = new String[columnLabels.length];
+            for(int i=0; i<columnLabels.length; i++){
+                columnNames[i] = "";
+                if(this.columnPrefix == null){
+                    columnNames[i] = columnLabels[i];
+                } else if(columnLabels[i].length() > this.columnPrefix.length()
+                        && columnLabels[i].regionMatches(true, 0, this.columnPrefix, 0, this.columnPrefix.length())){
+                    columnNames[i] = columnLabels[i].substring(this.columnPrefix.length());
+                }
+            }
+            this.plan = new RowPlan(mapping, columnNames);
+
+            String[] keys = this.keyColumns;
+            if(keys == null){
+                keys = (String[]) mapping.getPrimaryKey().getColumns().toArray(new String[0]);
+            }
+            if(keys.length == 0){
+                throw new PersistenceException("No key columns given for " + this.objectMappingKey
+                        + ", and the object mapping has no primary key");
+            }
+            this.keyIndexes = new int[keys.length];
+            for(int i=0; i<keys.length; i++){
+                this.keyIndexes[i] = this.plan.getColumnIndex(keys[i]);
+                if(this.keyIndexes[i] == -1){
+                    throw new PersistenceException("The key column " + keys[i] + " of " + this.objectMappingKey
+                            + " is not present in the ResultSet"
+                            + (this.columnPrefix != null ? " (with the column prefix " + this.columnPrefix + ")" : ""));
+                }
+            }
+            this.keyValues      = new Object[keys.length];
+            this.previousValues = new Object[keys.length];
+        }
+
+        /**
+         * Reads the key column values of the current record, and returns true if they differ
+         * from the key column values of the previous record.
+         */
+        protected boolean readKey(ResultSet result) throws SQLException {
+            Object[] values = this.previousValues;
+            this.previousValues = this.keyValues;
+            this.keyValues      = values;
+
+            boolean changed = !this.hasPrevious;
+            for(int i=0; i<this.keyIndexes.length; i++){
+                this.keyValues[i] = result.getObject(this.keyIndexes[i]);
+                if(!changed){
+                    Object previous = this.previousValues[i];
+                    changed = previous == null ? this.keyValues[i] != null : !previous.equals(this.keyValues[i]);
+                }
+            }
+            this.hasPrevious = true;
+            return changed;
+        }
+
+        protected boolean isKeyNull() {
+            for(int i=0; i<this.keyValues.length; i++){
+                if(this.keyValues[i] != null) return false;
+            }
+            return true;
+        }
+
+        protected Object getOrRead(ResultSet result) throws PersistenceException {
+            this.currentKey = this.keyValues.length == 1 ? this.keyValues[0] : Arrays.asList(this.keyValues.clone());
+            Object object = this.objects.get(this.currentKey);
+            if(object == null){
+                object = this.plan.read(result, this.plan.newInstance(result));
+                this.objects.put(this.currentKey, object);
+            }
+            return object;
+        }
+
+        protected void link(Object parentObject, Object child) {
+            Map children = (Map) this.links.get(parentObject);
+            if(children == null){
+                children = new LinkedHashMap();
+                this.links.put(parentObject, children);
+            }
+            if(!children.containsKey(this.currentKey)){
+                children.put(this.currentKey, child);
+            }
+        }
+
+        protected void attachChildren() {
+            Iterator parents = this.parent.objects.values().iterator();
+            while(parents.hasNext()){
+                Object parentObject = parents.next();
+                Map children = (Map) this.links.get(parentObject);
+                this.association.setChildren(parentObject, children != null ? new ArrayList(children.values()) : new ArrayList());
+            }
+        }
+    }
+}
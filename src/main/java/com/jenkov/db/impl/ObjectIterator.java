@@ -0,0 +1,69 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.IReadFilter;
+import com.jenkov.db.itf.PersistenceException;
+import com.jenkov.db.itf.mapping.IObjectMapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The default implementation of the <code>IObjectIterator</code> interface. Reads one object
+ * at a time from an open <code>ResultSet</code>, using the row plan of the object reader
+ * that created it.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ObjectIterator extends ResultSetIterator {
+
+    protected ObjectReader   reader    = null;
+    protected IObjectMapping mapping   = null;
+    protected RowPlan        plan      = null;
+
+    /**
+     * Creates a new object iterator reading from the given <code>ResultSet</code>.
+     * @param reader    The object reader to read the objects with.
+     * @param mapping   The object mapping to use to read the objects.
+     * @param result    The <code>ResultSet</code> to read the objects from.
+     * @param statement The statement the <code>ResultSet</code> was created from, if it is to be
+     *                  closed along with the <code>ResultSet</code>. Null if not.
+     * @param filter    The filter to apply to the records. Null means accept all records.
+     */
+    public ObjectIterator(ObjectReader reader, IObjectMapping mapping, ResultSet result, Statement statement,
+                          IReadFilter filter) {
+        super(result, statement, filter);
+        this.reader    = reader;
+        this.mapping   = mapping;
+    }
+
+    protected void init(ResultSet result) throws SQLException {
+        this.plan = this.reader.getRowPlan(this.mapping, result);
+    }
+
+    protected boolean isPositionedAtRecord(ResultSet result) throws SQLException {
+        return this.reader.isPositionedAtRecord(result);
+    }
+
+    protected Object read(ResultSet result) throws PersistenceException {
+        return this.reader.read(this.plan, result);
+    }
+}
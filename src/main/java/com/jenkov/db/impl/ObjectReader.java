@@ -19,13 +19,16 @@
 package com.jenkov.db.impl;
 
 import com.jenkov.db.impl.filter.AcceptAllReadFilter;
+import com.jenkov.db.impl.filter.PageReadFilter;
+import com.jenkov.db.itf.ICloseableList;
+import com.jenkov.db.itf.IObjectConsumer;
+import com.jenkov.db.itf.IObjectIterator;
 import com.jenkov.db.itf.IObjectReader;
 import com.jenkov.db.itf.IReadFilter;
 import com.jenkov.db.itf.PersistenceException;
 import com.jenkov.db.itf.Database;
 import com.jenkov.db.itf.mapping.IKeyValue;
 import com.jenkov.db.itf.mapping.IObjectMapping;
-import com.jenkov.db.itf.mapping.ISetterMapping;
 import com.jenkov.db.util.JdbcUtil;
 import com.jenkov.db.util.MappingUtil;
 
@@ -33,6 +36,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 /**
  * The default implementation of the <code>IObjectReader</code> interface.
@@ -41,12 +46,83 @@ import java.util.*;
  */
 public class ObjectReader implements IObjectReader {
 
-    protected Database database = null;
+    /**
+     * The maximum number of row plans cached before the row plan cache is cleared.
+     */
+    public static final int MAX_ROW_PLANS = 1024;
+
+    /**
+     * Matches SQL clauses after which a paging clause cannot simply be appended.
+     */
+    private static final Pattern PAGING_INCOMPATIBLE_SQL = Pattern.compile(
+            "\\b(limit|offset|fetch|for\\s+update|union|intersect|except)\\b|--|/\\*", Pattern.CASE_INSENSITIVE);
+
+    protected Database database              = null;
+    protected Map      rowPlans              = new ConcurrentHashMap();
+    protected ParameterCountCache parameterCountCache = new ParameterCountCache();
+    protected int      spillThreshold        = 0;
+    protected int      fetchSize             = 0;
 
     public void setDatabase(Database database) {
         this.database = database;
     }
 
+    /**
+     * Sets the number of objects a list read by <code>readList(...)</code> or <code>readSpillingList(...)</code>
+     * keeps on the heap, before the remaining records are spilled to a temporary file. 0 disables spilling,
+     * which is the default.
+     *
+     * @param spillThreshold The spill threshold of read lists.
+     */
+    public void setSpillThreshold(int spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * Sets the fetch size of the statements executed by the streaming reads of this ObjectReader,
+     * meaning <code>readIterator(...)</code> and <code>readEach(...)</code>.
+     * 0 leaves the fetch size at the driver default, which is the default.
+     *
+     * @param fetchSize The fetch size of streaming reads.
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Returns the row plan for reading records of the given <code>ResultSet</code> into objects
+     * of the given object mapping. Row plans are cached per object mapping and
+     * <code>ResultSet</code> column layout, so the plan (including the strategy for creating
+     * new objects) is only compiled the first time a given column layout is read with a
+     * given object mapping.
+     *
+     * @param mapping The object mapping to read the objects by.
+     * @param result The <code>ResultSet</code> to read the records from.
+     * @return The row plan for the object mapping and <code>ResultSet</code> column layout.
+     * @throws SQLException If reading the <code>ResultSetMetaData</code> fails.
+     */
+    public RowPlan getRowPlan(IObjectMapping mapping, ResultSet result) throws SQLException {
+        RowPlanKey key = new RowPlanKey(mapping, RowPlan.getColumnNames(result));
+        RowPlan plan = (RowPlan) this.rowPlans.get(key);
+        if(plan == null){
+            if(this.rowPlans.size() >= MAX_ROW_PLANS){
+                this.rowPlans.clear();
+            }
+            plan = new RowPlan(mapping, key.columnNames);
+            this.rowPlans.put(key, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Removes all cached row plans. Row plans are compiled from the setter mappings of an
+     * object mapping, so if you change an object mapping after it has been used to read
+     * objects, you should call this method afterwards.
+     */
+    public void clearRowPlans(){
+        this.rowPlans.clear();
+    }
+
 
     public Object readByPrimaryKey(IObjectMapping mapping, Object primaryKey, String sql, Connection connection) throws PersistenceException{
         assertPrimaryKeyHasColumns(mapping);
@@ -113,25 +189,33 @@ public class ObjectReader implements IObjectReader {
 
     public Object read(IObjectMapping mapping, ResultSet result, Object persistentObject)  throws PersistenceException{
         try{
-            for(int i=1, n=result.getMetaData().getColumnCount(); i <= n; i++){
-                String columnName = result.getMetaData().getColumnName(i);
-                ISetterMapping fieldMapping = mapping.getSetterMapping(columnName);
-                if(fieldMapping != null){
-                    fieldMapping.insertValueIntoObject(persistentObject, result);
-                }
-            }
+            return getRowPlan(mapping, result).read(result, persistentObject);
         } catch(SQLException e){
             throw new PersistenceException("Error populating persistent object with values", e);
         }
-
-        return persistentObject;
      }
 
     public Object read(IObjectMapping mapping, ResultSet result)  throws PersistenceException{
-        Object persistentObject = newInstance(mapping.getObjectClass(), result);
-        return read(mapping, result, persistentObject);
+        try{
+            return read(getRowPlan(mapping, result), result);
+        } catch(SQLException e){
+            throw new PersistenceException("Error populating persistent object with values", e);
+        }
      }
 
+    /**
+     * Creates a new object and moves the values of the record the <code>ResultSet</code>
+     * is currently positioned at into it, using the given row plan.
+     * @param plan The row plan to read the record by.
+     * @param result The <code>ResultSet</code> to read the record from.
+     * @return The new object.
+     * @throws PersistenceException If creating or populating the object fails.
+     */
+    protected Object read(RowPlan plan, ResultSet result) throws PersistenceException {
+        Object persistentObject = plan.newInstance(result);
+        return plan.read(result, persistentObject);
+    }
+
     //todo read into existing object
     public Object read(IObjectMapping mapping, Statement statement, String sql) throws PersistenceException{
          ResultSet result = null;
@@ -202,17 +286,7 @@ public class ObjectReader implements IObjectReader {
 
         try {
             statement = JdbcUtil.prepareStatement(connection, sql);
-
-            //todo no need to redetermine the database for each object read.
-            if (this.database.isPreparedStatementParameterCountSupported()) {
-                int parameterCount = JdbcUtil.parameterCount(statement);
-                if(parameters.size() != parameterCount){
-                    throw new PersistenceException("Parameter count in prepared statement and " +
-                            "parameter collection does not match. Prepared statement has " +
-                            parameterCount + " parameters (question marks). " +
-                            "Parameter collection has " + parameters.size() + " parameters.");
-                }
-            }
+            validateParameterCount(sql, statement, parameters.size());
             JdbcUtil.insertParameters(statement, parameters);
             return read(mapping, statement);
         } finally {
@@ -227,15 +301,7 @@ public class ObjectReader implements IObjectReader {
 
         try {
             statement = JdbcUtil.prepareStatement(connection, sql);
-            if (this.database.isPreparedStatementParameterCountSupported()){
-                int parameterCount = JdbcUtil.parameterCount(statement);
-                if(parameters.length != parameterCount){
-                    throw new PersistenceException("Parameter count in prepared statement and " +
-                            "parameter collection does not match. Prepared statement has " +
-                            parameterCount + " parameters (question marks). " +
-                            "Parameter collection has " + parameters.length + " parameters.");
-                }
-            }
+            validateParameterCount(sql, statement, parameters.length);
             JdbcUtil.insertParameters(statement, parameters);
             return read(mapping, statement);
         } finally {
@@ -243,6 +309,23 @@ public class ObjectReader implements IObjectReader {
         }
     }
 
+    /**
+     * Validates that the given number of parameters matches the number of parameters (question marks)
+     * in the SQL the statement was prepared from, if the database supports counting them.
+     * The parameter counts are cached by SQL in the parameter count cache of this object reader.
+     */
+    protected void validateParameterCount(String sql, PreparedStatement statement, int parametersSize) throws PersistenceException {
+        if(this.database == null || !this.database.isPreparedStatementParameterCountSupported()) return;
+
+        int parameterCount = this.parameterCountCache.getParameterCount(sql, statement);
+        if(parametersSize != parameterCount){
+            throw new PersistenceException("Parameter count in prepared statement and " +
+                    "parameter collection does not match. Prepared statement has " +
+                    parameterCount + " parameters (question marks). " +
+                    "Parameter collection has " + parametersSize + " parameters.");
+        }
+    }
+
     public List readListByPrimaryKeys(IObjectMapping mapping, Collection primaryKeys, String sql, Connection connection) throws PersistenceException {
         return readListByPrimaryKeys(mapping, primaryKeys, sql, connection, AcceptAllReadFilter.ACCEPT_ALL_FILTER);
     }
@@ -274,7 +357,8 @@ public class ObjectReader implements IObjectReader {
                 }
                 index = MappingUtil.insertPrimaryKey(mapping, keyValue, statement, index);
             }
-            return readList(mapping, statement, filter);
+            //read on the heap, since the lists read by primary keys are often chunks combined by the caller.
+            return readList(mapping, statement, filter, Collections.EMPTY_LIST);
         } catch (SQLException e){
             throw new PersistenceException("Error reading objects by primary keys (" + primaryKeys + ") using SQL(" +
                     sql + ") and object mapping (" + mapping + ")", e);
@@ -321,34 +405,107 @@ public class ObjectReader implements IObjectReader {
      * FILTERED READ LIST METHODS BELOW
      *************************************/
     public List readList(IObjectMapping mapping, ResultSet result, IReadFilter filter) throws PersistenceException {
+        if(this.spillThreshold > 0){
+            return readSpillingList(mapping, result, filter);
+        }
         List list = new ArrayList();
         if(filter == null) filter = AcceptAllReadFilter.ACCEPT_ALL_FILTER;
 
         try{
             filter.init(result);
+            RowPlan plan = getRowPlan(mapping, result);
+
+            //change for MS SQL Server Driver compatibility :-(
+            if(isPositionedAtRecord(result) && filter.accept(result)){
+                list.add(read(plan, result));
+            }
+            while(result.next() && filter.acceptMore()){
+                if(filter.accept(result)){
+                    list.add(read(plan, result));
+                }
+            }
+            return list;
+        } catch (SQLException e){
+            throw new PersistenceException("Error reading list of objects from ResultSet", e);
+        }
+    }
+
+    /**
+     * Reads the accepted records into a <code>SpillingList</code>, which keeps the first
+     * <code>spillThreshold</code> objects on the heap, and spills the values of the remaining records
+     * to a temporary file. If the spill threshold is 0, or the objects cannot be re-created from their
+     * values, all objects are kept on the heap.
+     */
+    public ICloseableList readSpillingList(IObjectMapping mapping, ResultSet result, IReadFilter filter)
+            throws PersistenceException {
+        if(filter == null) filter = AcceptAllReadFilter.ACCEPT_ALL_FILTER;
+
+        SpillingList list = null;
+        try{
+            filter.init(result);
+            RowPlan plan = getRowPlan(mapping, result);
+            list = new SpillingList(plan, this.spillThreshold > 0 && plan.isValuesReadable()
+                    ? this.spillThreshold : Integer.MAX_VALUE);
 
             //change for MS SQL Server Driver compatibility :-(
             if(isPositionedAtRecord(result) && filter.accept(result)){
-                list.add(read(mapping, result));
+                addToSpillingList(list, plan, result);
             }
             while(result.next() && filter.acceptMore()){
                 if(filter.accept(result)){
-                    list.add(read(mapping, result));
+                    addToSpillingList(list, plan, result);
                 }
             }
             return list;
         } catch (SQLException e){
+            if(list != null) list.close();
             throw new PersistenceException("Error reading list of objects from ResultSet", e);
+        } catch (PersistenceException e){
+            if(list != null) list.close();
+            throw e;
+        }
+    }
+
+    public ICloseableList readSpillingList(IObjectMapping mapping, String sql, Object[] parameters, Connection connection,
+                                           IReadFilter filter) throws PersistenceException {
+        if(isDatabasePagingPossible(sql, filter)){
+            PageReadFilter pageFilter = (PageReadFilter) filter;
+            sql        = appendPagingClause(sql);
+            parameters = appendPagingParameters(parameters, pageFilter);
+            filter     = new PageReadFilter(0, pageFilter.getPageSize());
+        }
+        PreparedStatement statement = null;
+        ResultSet         result    = null;
+        try {
+            statement = JdbcUtil.prepareStatement(connection, sql);
+            JdbcUtil.insertParameters(statement, parameters);
+            result = statement.executeQuery();
+            return readSpillingList(mapping, result, filter);
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading list of objects from PreparedStatement", e);
+        } finally {
+            try {
+                JdbcUtil.close(result);
+            } finally {
+                JdbcUtil.close(statement);
+            }
+        }
+    }
+
+    private void addToSpillingList(SpillingList list, RowPlan plan, ResultSet result) throws PersistenceException {
+        if(list.isSpilling()){
+            list.addValues(plan.readValues(result));
+        } else {
+            list.addObject(read(plan, result));
         }
     }
 
-    //todo change to read into existing objects ... call read(..., persistentObject);
     public List readList(IObjectMapping mapping, ResultSet result, IReadFilter filter,
                          Collection persistentObjects) throws PersistenceException {
         Map persistentObjectsMap = toMap(mapping, persistentObjects);
         return readList(mapping, result, filter, persistentObjectsMap);
     }
-    //todo change to read into existing objects ... call read(..., persistentObject);
+
     public List readList(IObjectMapping mapping, ResultSet result, IReadFilter filter, Map persistentObjects)
             throws PersistenceException {
         List list = new ArrayList();
@@ -356,14 +513,16 @@ public class ObjectReader implements IObjectReader {
 
         try{
             filter.init(result);
+            RowPlan plan = getRowPlan(mapping, result);
+            if(!plan.isRefreshable()) persistentObjects = null;
 
             //change for MS SQL Server Driver compatibility :-(
             if(isPositionedAtRecord(result) && filter.accept(result)){
-                list.add(read(mapping, result));
+                list.add(read(plan, result, persistentObjects));
             }
             while(result.next() && filter.acceptMore()){
                 if(filter.accept(result)){
-                    list.add(read(mapping, result));
+                    list.add(read(plan, result, persistentObjects));
                 }
             }
             return list;
@@ -372,6 +531,53 @@ public class ObjectReader implements IObjectReader {
         }
     }
 
+    /**
+     * Reads the current record into the persistent object with the same primary key value,
+     * if the map contains one. Else a new object is read.
+     */
+    protected Object read(RowPlan plan, ResultSet result, Map persistentObjects) throws PersistenceException {
+        if(persistentObjects != null && persistentObjects.size() > 0){
+            IKeyValue keyValue = plan.getPrimaryKeyValue(result);
+            if(keyValue == null) keyValue = plan.getObjectMapping().getPrimaryKeyValueForRecord(result, null);
+
+            Object persistentObject = persistentObjects.get(keyValue);
+            if(persistentObject != null){
+                return plan.refresh(result, persistentObject);
+            }
+        }
+        return read(plan, result);
+    }
+
+    /**
+     * Returns true if the records before the page of the given filter can be skipped by the database,
+     * by appending the paging clause of the database to the SQL. This is the case if the filter is a
+     * <code>PageReadFilter</code> (not a subclass, nor combined with other filters) with database paging enabled,
+     * the database has a paging clause, and the SQL is a select statement without a paging clause,
+     * for update clause, union or comment of its own.
+     */
+    protected boolean isDatabasePagingPossible(String sql, IReadFilter filter) {
+        if(this.database == null || this.database.getPagingClause() == null) return false;
+        if(filter == null || filter.getClass() != PageReadFilter.class) return false;
+        if(!((PageReadFilter) filter).isDatabasePaging()) return false;
+
+        String trimmedSql = sql.trim();
+        if(!trimmedSql.regionMatches(true, 0, "select", 0, 6) || trimmedSql.endsWith(";")) return false;
+        return !PAGING_INCOMPATIBLE_SQL.matcher(trimmedSql).find();
+    }
+
+    protected String appendPagingClause(String sql) {
+        return sql.trim() + this.database.getPagingClause();
+    }
+
+    protected Object[] appendPagingParameters(Object[] parameters, PageReadFilter filter) {
+        int parameterCount = parameters != null ? parameters.length : 0;
+        Object[] pagingParameters = new Object[parameterCount + 2];
+        if(parameterCount > 0) System.arraycopy(parameters, 0, pagingParameters, 0, parameterCount);
+        pagingParameters[parameterCount]     = Long.valueOf(filter.getOffset());
+        pagingParameters[parameterCount + 1] = Integer.valueOf(filter.getPageSize());
+        return pagingParameters;
+    }
+
     /**
      * This method tries to determine if the result set is positioned at a record or, before first record.
      * Unfortunately the many different implementations of JDBC drivers makes it impossible to use something
@@ -380,7 +586,7 @@ public class ObjectReader implements IObjectReader {
      * @return
      * @throws SQLException
      */
-    private boolean isPositionedAtRecord(ResultSet result) throws SQLException {
+    protected boolean isPositionedAtRecord(ResultSet result) throws SQLException {
         if(database.isResultSetGetRowSupported()){
             return result.getRow() > 0;
         }
@@ -409,6 +615,9 @@ public class ObjectReader implements IObjectReader {
 
 
     public List readList(IObjectMapping mapping, String sql, Connection connection, IReadFilter filter) throws PersistenceException {
+        if(isDatabasePagingPossible(sql, filter)){
+            return readList(mapping, sql, new Object[0], connection, filter);
+        }
         Statement statement = null;
         try {
             statement = connection.createStatement();
@@ -437,7 +646,7 @@ public class ObjectReader implements IObjectReader {
         ResultSet result = null;
         try {
             result = preparedStatement.executeQuery();
-            return readList(mapping, result, filter); //todo change to include persistent objects.
+            return readList(mapping, result, filter, persistentObjects);
         } catch (SQLException e) {
            throw new PersistenceException("Error reading list of objects from PreparedStatement", e);
         } finally {
@@ -446,6 +655,9 @@ public class ObjectReader implements IObjectReader {
     }
 
     public List readList(IObjectMapping mapping, String sql, Collection parameters, Connection connection, IReadFilter filter) throws PersistenceException {
+        if(isDatabasePagingPossible(sql, filter)){
+            return readList(mapping, sql, parameters != null ? parameters.toArray() : new Object[0], connection, filter);
+        }
         PreparedStatement statement = null;
         try {
             statement = JdbcUtil.prepareStatement(connection, sql);
@@ -457,6 +669,12 @@ public class ObjectReader implements IObjectReader {
     }
 
     public List readList(IObjectMapping mapping, String sql, Object[] parameters, Connection connection, IReadFilter filter) throws PersistenceException {
+        if(isDatabasePagingPossible(sql, filter)){
+            PageReadFilter pageFilter = (PageReadFilter) filter;
+            sql        = appendPagingClause(sql);
+            parameters = appendPagingParameters(parameters, pageFilter);
+            filter     = new PageReadFilter(0, pageFilter.getPageSize());
+        }
         PreparedStatement statement = null;
         try {
             statement = JdbcUtil.prepareStatement(connection, sql);
@@ -468,23 +686,149 @@ public class ObjectReader implements IObjectReader {
     }
 
 
-   /**************************
-    *   UTILTY METHODS BELOW
-    **************************/
+    public List readList(IObjectMapping mapping, String sql, Object[] parameters, Connection connection, IReadFilter filter,
+                         Collection persistentObjects) throws PersistenceException {
+        PreparedStatement statement = null;
+        ResultSet         result    = null;
+        try {
+            statement = JdbcUtil.prepareStatement(connection, sql);
+            JdbcUtil.insertParameters(statement, parameters);
+            result = statement.executeQuery();
+            return readList(mapping, result, filter, persistentObjects);
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading list of objects from PreparedStatement", e);
+        } finally {
+            try {
+                JdbcUtil.close(result);
+            } finally {
+                JdbcUtil.close(statement);
+            }
+        }
+    }
+
+
+    /*************************************
+     * LAZY READ METHODS BELOW
+     *************************************/
+    public IObjectIterator readIterator(IObjectMapping mapping, ResultSet result, IReadFilter filter) throws PersistenceException {
+        return new ObjectIterator(this, mapping, result, null, filter);
+    }
+
+    public IObjectIterator readIterator(IObjectMapping mapping, String sql, Collection parameters, Connection connection,
+                                        IReadFilter filter) throws PersistenceException {
+        if(isDatabasePagingPossible(sql, filter)){
+            return readIterator(mapping, sql, parameters != null ? parameters.toArray() : new Object[0], connection, filter);
+        }
+        PreparedStatement statement = JdbcUtil.prepareStatement(connection, sql);
+        try {
+            JdbcUtil.insertParameters(statement, parameters);
+            return readIterator(mapping, statement, filter);
+        } catch (PersistenceException e){
+            JdbcUtil.closeIgnore(statement);
+            throw e;
+        }
+    }
 
-    protected Object newInstance(Class persistentObjectClass, ResultSet result) throws PersistenceException{
-        Constructor constructor = null;
+    public IObjectIterator readIterator(IObjectMapping mapping, String sql, Object[] parameters, Connection connection,
+                                        IReadFilter filter) throws PersistenceException {
+        if(isDatabasePagingPossible(sql, filter)){
+            PageReadFilter pageFilter = (PageReadFilter) filter;
+            sql        = appendPagingClause(sql);
+            parameters = appendPagingParameters(parameters, pageFilter);
+            filter     = new PageReadFilter(0, pageFilter.getPageSize());
+        }
+        PreparedStatement statement = JdbcUtil.prepareStatement(connection, sql);
+        try {
+            JdbcUtil.insertParameters(statement, parameters);
+            return readIterator(mapping, statement, filter);
+        } catch (PersistenceException e){
+            JdbcUtil.closeIgnore(statement);
+            throw e;
+        }
+    }
+
+    protected IObjectIterator readIterator(IObjectMapping mapping, PreparedStatement statement, IReadFilter filter)
+            throws PersistenceException {
+        try {
+            JdbcUtil.setFetchSize(statement, this.fetchSize, this.database);
+            return new ObjectIterator(this, mapping, statement.executeQuery(), statement, filter);
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading objects from PreparedStatement", e);
+        }
+    }
+
+
+    /*************************************
+     * CALLBACK READ METHODS BELOW
+     *************************************/
+    public int readEach(IObjectMapping mapping, ResultSet result, IReadFilter filter, int reuseInstances,
+                        IObjectConsumer consumer) throws PersistenceException {
+        if(filter == null) filter = AcceptAllReadFilter.ACCEPT_ALL_FILTER;
 
         try{
-            constructor = persistentObjectClass.getConstructor(new Class[] {ResultSet.class});
-            return createResultSetArgumentInstance(persistentObjectClass, result, constructor);
-        } catch(NoSuchMethodException e){
-            //checking if class has a constructor taking a ResultSet as argument.
+            filter.init(result);
+            RowPlan  plan  = getRowPlan(mapping, result);
+            Object[] ring  = reuseInstances > 0 && plan.isRefreshable() ? new Object[reuseInstances] : null;
+            int      count = 0;
+
+            //change for MS SQL Server Driver compatibility :-(
+            if(isPositionedAtRecord(result) && filter.accept(result)){
+                consumer.consume(readEach(plan, result, ring, count++));
+            }
+            while(result.next() && filter.acceptMore()){
+                if(filter.accept(result)){
+                    consumer.consume(readEach(plan, result, ring, count++));
+                }
+            }
+            return count;
+        } catch (SQLException e){
+            throw new PersistenceException("Error reading objects from ResultSet", e);
         }
+    }
 
-        return createNoArgumentInstance(persistentObjectClass);
+    private Object readEach(RowPlan plan, ResultSet result, Object[] ring, int count) throws PersistenceException {
+        if(ring == null) return read(plan, result);
+
+        int index = count % ring.length;
+        if(ring[index] == null){
+            ring[index] = read(plan, result);
+            return ring[index];
+        }
+        return plan.refresh(result, ring[index]);
+    }
+
+    public int readEach(IObjectMapping mapping, String sql, Object[] parameters, Connection connection, IReadFilter filter,
+                        int reuseInstances, IObjectConsumer consumer) throws PersistenceException {
+        if(isDatabasePagingPossible(sql, filter)){
+            PageReadFilter pageFilter = (PageReadFilter) filter;
+            sql        = appendPagingClause(sql);
+            parameters = appendPagingParameters(parameters, pageFilter);
+            filter     = new PageReadFilter(0, pageFilter.getPageSize());
+        }
+        PreparedStatement statement = null;
+        ResultSet         result    = null;
+        try {
+            statement = JdbcUtil.prepareStatement(connection, sql);
+            JdbcUtil.insertParameters(statement, parameters);
+            JdbcUtil.setFetchSize(statement, this.fetchSize, this.database);
+            result = statement.executeQuery();
+            return readEach(mapping, result, filter, reuseInstances, consumer);
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading objects from PreparedStatement", e);
+        } finally {
+            try {
+                JdbcUtil.close(result);
+            } finally {
+                JdbcUtil.close(statement);
+            }
+        }
     }
 
+
+   /**************************
+    *   UTILTY METHODS BELOW
+    **************************/
+
     public Object createNoArgumentInstance(Class persistentObjectClass) throws PersistenceException{
         try {
             return persistentObjectClass.newInstance();
@@ -515,7 +859,7 @@ public class ObjectReader implements IObjectReader {
 
     }
 
-    private Map toMap(IObjectMapping mapping, Collection persistentObjects) throws PersistenceException {
+    protected Map toMap(IObjectMapping mapping, Collection persistentObjects) throws PersistenceException {
         Map map = new HashMap();
         Iterator iterator = persistentObjects.iterator();
         while(iterator.hasNext()){
@@ -532,4 +876,30 @@ public class ObjectReader implements IObjectReader {
 
 
 
+
+    /**
+     * The key of a cached row plan: the object mapping (compared by identity) and
+     * the column names of the <code>ResultSet</code>.
+     */
+    private static class RowPlanKey {
+        protected IObjectMapping mapping     = null;
+        protected String[]       columnNames = null;
+        protected int            hashCode    = 0;
+
+        public RowPlanKey(IObjectMapping mapping, String[] columnNames) {
+            this.mapping     = mapping;
+            this.columnNames = columnNames;
+            this.hashCode    = System.identityHashCode(mapping) * 31 + Arrays.hashCode(columnNames);
+        }
+
+        public boolean equals(Object o) {
+            if(!(o instanceof RowPlanKey)) return false;
+            RowPlanKey other = (RowPlanKey) o;
+            return this.mapping == other.mapping && Arrays.equals(this.columnNames, other.columnNames);
+        }
+
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
 }
@@ -33,6 +33,8 @@ import com.jenkov.db.util.JdbcUtil;
 import java.sql.*;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  *
@@ -41,12 +43,45 @@ import java.util.Iterator;
  */
 public class ObjectWriter implements IObjectWriter{
 
-    protected Database database = null;
+    protected static final int DEFAULT_ADAPTIVE_BATCH_SIZE = 1000;
+    protected static final int MIN_ADAPTIVE_BATCH_SIZE     = 16;
+    protected static final int MAX_ADAPTIVE_BATCH_SIZE     = 65536;
+
+    protected Database database     = null;
+    protected int      batchSize    = 0;
+    protected long     batchLatency = 0;
+    protected Map      adaptedBatchSizes = new ConcurrentHashMap();
 
     public void setDatabase(Database database) {
         this.database = database;
     }
 
+    /**
+     * Sets the maximum number of objects this ObjectWriter adds to a JDBC batch before executing it,
+     * when writing collections of objects in batches. Larger collections are written in chunks of this size,
+     * and the <code>UpdateResult</code>'s of the chunks are aggregated into one. Object mappings with a batch
+     * size of their own (see <code>IObjectMapping.getBatchSize()</code>) use that instead.
+     * 0 means all objects are added to a single batch, which is the default.
+     *
+     * @param batchSize The maximum number of objects per JDBC batch.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets the target execution time in milliseconds of each JDBC batch, enabling adaptive batch sizes.
+     * Starting from the configured batch size (or 1000 if none is configured), the batch size of each object
+     * mapping is halved when a batch takes longer than the target, and doubled when it takes less than half
+     * of the target. 0 disables adaptive batch sizes, which is the default.
+     *
+     * @param batchLatency The target execution time of each JDBC batch, in milliseconds.
+     */
+    public void setBatchLatency(long batchLatency) {
+        this.batchLatency = batchLatency;
+        this.adaptedBatchSizes.clear();
+    }
+
     public UpdateResult insert(IObjectMapping mapping, Object object, String sql, Connection connection) throws PersistenceException {
         PreparedStatement preparedStatement = null;
         try {
@@ -74,15 +109,14 @@ public class ObjectWriter implements IObjectWriter{
         PreparedStatement preparedStatement = null;
         try {
             preparedStatement = prepareStatementForInsert(mapping, connection, sql, preparedStatement);
+            ChunkedBatch batch = new ChunkedBatch(mapping, preparedStatement, objects.size(), true);
             Iterator iterator = objects.iterator();
             while(iterator.hasNext()){
                 Object object = iterator.next();
                 insertObjectFieldsInStatement(mapping, object, preparedStatement);
-                preparedStatement.addBatch();
+                batch.addBatch();
             }
-            UpdateResult result = new UpdateResult();
-            result.setAffectedRecords(preparedStatement.executeBatch());
-            addGeneratedKeys(mapping, preparedStatement, result);
+            UpdateResult result = batch.executeBatch();
             // if versioning object,check update.
             if(mapping.getVersiongMapping() != null){
 	            IVersioningMapping m = mapping.getVersiongMapping();
@@ -171,6 +205,7 @@ public class ObjectWriter implements IObjectWriter{
         PreparedStatement preparedStatement = null;
         try {
             preparedStatement = connection.prepareStatement(sql);
+            ChunkedBatch batch = new ChunkedBatch(mapping, preparedStatement, objects.size(), false);
             Iterator iterator = objects.iterator();
             while(iterator.hasNext()){
                 Object object = iterator.next();
@@ -180,11 +215,10 @@ public class ObjectWriter implements IObjectWriter{
                 if(mapping.getVersiongMapping() != null){
                 	insertVersioningValue(mapping ,object, preparedStatement,versioningIndex);
                 }
-                preparedStatement.addBatch();
+                batch.addBatch();
             }
 
-            UpdateResult result = new UpdateResult();
-            result.setAffectedRecords(preparedStatement.executeBatch());
+            UpdateResult result = batch.executeBatch();
 
             // if versioning object,check update.
             if(mapping.getVersiongMapping() != null){
@@ -223,6 +257,7 @@ public class ObjectWriter implements IObjectWriter{
         PreparedStatement preparedStatement = null;
         try {
             preparedStatement = connection.prepareStatement(sql);
+            ChunkedBatch batch = new ChunkedBatch(mapping, preparedStatement, objects.size(), false);
             Iterator objectIterator        = objects.iterator();
             Iterator oldPrimaryKeyIterator = oldPrimaryKeys.iterator();
 
@@ -235,10 +270,9 @@ public class ObjectWriter implements IObjectWriter{
                 if(mapping.getVersiongMapping() != null){
                 	insertVersioningValue(mapping ,object, preparedStatement,versioningIndex);
                 }
-                preparedStatement.addBatch();
+                batch.addBatch();
             }
-            UpdateResult result = new UpdateResult();
-            result.setAffectedRecords(preparedStatement.executeBatch());
+            UpdateResult result = batch.executeBatch();
             
             // if versioning object,check update.
             if(mapping.getVersiongMapping() != null){
@@ -304,6 +338,7 @@ public class ObjectWriter implements IObjectWriter{
         PreparedStatement preparedStatement = null;
         try {
             preparedStatement = connection.prepareStatement(sql);
+            ChunkedBatch batch = new ChunkedBatch(mapping, preparedStatement, objects.size(), false);
             Iterator iterator = objects.iterator();
             while(iterator.hasNext()){
                 Object object = iterator.next();
@@ -312,11 +347,10 @@ public class ObjectWriter implements IObjectWriter{
                 if(mapping.getVersiongMapping() != null){
                 	insertVersioningValue(mapping ,object, preparedStatement,versioningIndex);
                 }
-                preparedStatement.addBatch();
+                batch.addBatch();
             }
 
-            UpdateResult result = new UpdateResult();
-            result.setAffectedRecords(preparedStatement.executeBatch());
+            UpdateResult result = batch.executeBatch();
 //            addGeneratedKeys(preparedStatement, result);
             return result;
         } catch (SQLException e) {
@@ -351,14 +385,14 @@ public class ObjectWriter implements IObjectWriter{
         PreparedStatement preparedStatement = null;
         try {
             preparedStatement = connection.prepareStatement(sql);
+            ChunkedBatch batch = new ChunkedBatch(mapping, preparedStatement, primaryKeys.size(), false);
             Iterator iterator = primaryKeys.iterator();
             while(iterator.hasNext()){
                 Object primaryKey = iterator.next();
                 insertPrimaryKeyValue(mapping, primaryKey, preparedStatement, 1);
-                preparedStatement.addBatch();
+                batch.addBatch();
             }
-            UpdateResult result = new UpdateResult();
-            result.setAffectedRecords(preparedStatement.executeBatch());
+            UpdateResult result = batch.executeBatch();
 //            addGeneratedKeys(preparedStatement, result);
             return result;
         } catch (SQLException e) {
@@ -415,6 +449,102 @@ public class ObjectWriter implements IObjectWriter{
     	return parameterCount + 1;
     }
 
+    /**
+     * Returns the maximum number of objects of the given object mapping to add to a JDBC batch, before
+     * executing it. 0 means all objects are added to a single batch. If adaptive batching is enabled
+     * (a batch latency is set), the batch size adapted for the object mapping so far is returned.
+     */
+    protected int getBatchSize(IObjectMapping mapping) {
+        int size = mapping.getBatchSize() > 0 ? mapping.getBatchSize() : this.batchSize;
+        if(this.batchLatency <= 0) return size;
+
+        Integer adaptedSize = (Integer) this.adaptedBatchSizes.get(mapping);
+        if(adaptedSize != null) return adaptedSize.intValue();
+        return size > 0 ? size : DEFAULT_ADAPTIVE_BATCH_SIZE;
+    }
+
+    /**
+     * Adapts the batch size of the given object mapping to the time it took to execute a full batch of the given size.
+     * The batch size is halved if the batch took longer than the batch latency, and doubled if it took
+     * less than half of it, within MIN_ADAPTIVE_BATCH_SIZE and MAX_ADAPTIVE_BATCH_SIZE.
+     */
+    protected void adaptBatchSize(IObjectMapping mapping, int size, long elapsedMillis) {
+        if(this.batchLatency <= 0) return;
+        int adaptedSize = size;
+        if(elapsedMillis > this.batchLatency){
+            adaptedSize = Math.max(MIN_ADAPTIVE_BATCH_SIZE, size / 2);
+        } else if(elapsedMillis < this.batchLatency / 2){
+            adaptedSize = Math.min(MAX_ADAPTIVE_BATCH_SIZE, size * 2);
+        }
+        this.adaptedBatchSizes.put(mapping, Integer.valueOf(adaptedSize));
+    }
+
+    /**
+     * A JDBC batch which is executed in chunks of the batch size of its object mapping, so large collections
+     * of objects do not build one huge batch in the JDBC driver. The affected record counts and generated
+     * keys of all chunks are aggregated into a single <code>UpdateResult</code>.
+     */
+    private class ChunkedBatch {
+
+        protected IObjectMapping    mapping           = null;
+        protected PreparedStatement preparedStatement = null;
+        protected boolean           generatedKeys     = false;
+        protected UpdateResult      result            = new UpdateResult();
+        protected int[]             affectedRecords   = null;
+        protected int               affectedCount     = 0;
+        protected int               size              = 0;
+        protected int               pending           = 0;
+
+        public ChunkedBatch(IObjectMapping mapping, PreparedStatement preparedStatement, int objectCount,
+                            boolean generatedKeys) {
+            this.mapping           = mapping;
+            this.preparedStatement = preparedStatement;
+            this.generatedKeys     = generatedKeys;
+            this.affectedRecords   = new int[objectCount];
+            this.size              = getBatchSize(mapping);
+        }
+
+        public void addBatch() throws SQLException {
+            this.preparedStatement.addBatch();
+            this.pending++;
+            if(this.size > 0 && this.pending >= this.size){
+                executeChunk();
+            }
+        }
+
+        public UpdateResult executeBatch() throws SQLException {
+            if(this.pending > 0) executeChunk();
+            if(this.affectedCount < this.affectedRecords.length){
+                int[] trimmed = new int[this.affectedCount];
+                System.arraycopy(this.affectedRecords, 0, trimmed, 0, this.affectedCount);
+                this.affectedRecords = trimmed;
+            }
+            this.result.setAffectedRecords(this.affectedRecords);
+            return this.result;
+        }
+
+        private void executeChunk() throws SQLException {
+            long start = System.currentTimeMillis();
+            int[] counts = this.preparedStatement.executeBatch();
+            long elapsed = System.currentTimeMillis() - start;
+
+            if(this.affectedCount + counts.length > this.affectedRecords.length){
+                int[] grown = new int[this.affectedCount + counts.length];
+                System.arraycopy(this.affectedRecords, 0, grown, 0, this.affectedCount);
+                this.affectedRecords = grown;
+            }
+            System.arraycopy(counts, 0, this.affectedRecords, this.affectedCount, counts.length);
+            this.affectedCount += counts.length;
+            if(this.generatedKeys) addGeneratedKeys(this.mapping, this.preparedStatement, this.result);
+
+            if(this.size > 0 && this.pending == this.size){
+                adaptBatchSize(this.mapping, this.size, elapsed);
+                this.size = getBatchSize(this.mapping);
+            }
+            this.pending = 0;
+        }
+    }
+
     private void addGeneratedKeys(IObjectMapping objectMapping, PreparedStatement preparedStatement, UpdateResult result) throws SQLException {
         if(!objectMapping.hasAutoGeneratedKeys()) return;
         if(database.isPrepareStatementStatement_RETURN_GENERATED_KEYS_supported()){
@@ -0,0 +1,79 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.PersistenceException;
+import com.jenkov.db.util.JdbcUtil;
+
+import java.sql.PreparedStatement;
+
+/**
+ * A bounded cache of the parameter counts of prepared SQL statements, keyed by the SQL text.
+ * Obtaining the parameter count from the <code>ParameterMetaData</code> of a prepared statement
+ * requires a round trip to the database on some drivers. Since the parameter count only depends on
+ * the SQL text, it is only obtained the first time a given SQL string is used, regardless of the
+ * connection it is prepared on. The cache is safe to use from multiple threads.
+ *
+ * <br/><br/>
+ * When the cache is full, an arbitrary parameter count is evicted to make room for a new one.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ParameterCountCache {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    protected BoundedCache parameterCounts = null;
+
+    public ParameterCountCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public ParameterCountCache(int maxSize) {
+        this.parameterCounts = new BoundedCache(maxSize);
+    }
+
+    /**
+     * Returns the parameter count of the given SQL. If the count is not cached it is obtained
+     * from the parameter meta data of the given statement, which must be prepared from the given SQL.
+     * @param sql The SQL the statement was prepared from.
+     * @param statement The statement prepared from the SQL.
+     * @return The number of parameters (question marks) in the SQL.
+     * @throws PersistenceException If the parameter count cannot be obtained from the statement.
+     */
+    public int getParameterCount(String sql, PreparedStatement statement) throws PersistenceException {
+        Integer parameterCount = (Integer) this.parameterCounts.get(sql);
+        if(parameterCount == null){
+            parameterCount = (Integer) this.parameterCounts.putIfAbsent(sql,
+                    Integer.valueOf(JdbcUtil.parameterCount(statement)));
+        }
+        return parameterCount.intValue();
+    }
+
+    public int getMaxSize() {
+        return this.parameterCounts.getMaxSize();
+    }
+
+    public void clear() {
+        this.parameterCounts.clear();
+    }
+
+    public int size() {
+        return this.parameterCounts.size();
+    }
+}
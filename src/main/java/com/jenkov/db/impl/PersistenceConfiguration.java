@@ -31,6 +31,12 @@ import com.jenkov.db.itf.mapping.IObjectMapper;
 import com.jenkov.db.itf.mapping.IObjectMappingCache;
 
 import javax.sql.DataSource;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class is an implementation of the <code>IPersistenceConfiguration</code> interface.
@@ -53,12 +59,25 @@ public class PersistenceConfiguration implements IPersistenceConfiguration{
     protected ISqlCache           insertSqlCache           = new SqlCache();
     protected ISqlCache           updateSqlCache           = new SqlCache();
     protected ISqlCache           deleteSqlCache           = new SqlCache();
+    protected ISqlCache           readListByPrimaryKeysSqlCache = new SqlCache();
+    protected ISqlCache           readListAfterKeySqlCache      = new SqlCache();
+    protected ISqlCache           readListByForeignKeysSqlCache = new SqlCache();
+    protected int                 maxPrimaryKeysPerStatement    = 512;
+    protected int                 primaryKeyChunkParallelism    = 1;
+    protected int                 readListSpillThreshold        = 0;
+    protected int                 readFetchSize                 = 0;
+    protected int                 temporaryTableKeyThreshold    = 10000;
+    protected int                 temporaryTableBatchSize       = 1000;
+    protected int                 writeBatchSize                = 0;
+    protected long                writeBatchLatency             = 0;
+    protected StringCache         mapStringCache                = null;
 
     protected Database            database                 = null;
     protected DataSource          dataSource               = null;
 
     protected DatabaseInitializer databaseInitializer      = new DatabaseInitializer();
     protected IScopeFactory       scopeFactory             = null;
+    protected Executor            readExecutor             = null;
 
 
     public PersistenceConfiguration(PersistenceManager persistenceManager){
@@ -148,6 +167,10 @@ public class PersistenceConfiguration implements IPersistenceConfiguration{
 
     public synchronized void setObjectReader(IObjectReader reader) {
         this.reader = reader;
+        if(this.reader instanceof ObjectReader){
+            ((ObjectReader) this.reader).setFetchSize(this.readFetchSize);
+            ((ObjectReader) this.reader).setSpillThreshold(this.readListSpillThreshold);
+        }
     }
 
     public synchronized IObjectWriter getObjectWriter() {
@@ -156,6 +179,10 @@ public class PersistenceConfiguration implements IPersistenceConfiguration{
 
     public synchronized void setObjectWriter(IObjectWriter writer) {
         this.writer = writer;
+        if(this.writer instanceof ObjectWriter){
+            ((ObjectWriter) this.writer).setBatchSize(this.writeBatchSize);
+            ((ObjectWriter) this.writer).setBatchLatency(this.writeBatchLatency);
+        }
     }
 
     public synchronized ISqlGenerator getSqlGenerator() {
@@ -199,6 +226,114 @@ public class PersistenceConfiguration implements IPersistenceConfiguration{
         this.readByPrimaryKeySqlCache = readByPrimaryKeySqlCache;
     }
 
+    public synchronized ISqlCache getReadListByPrimaryKeysSqlCache() {
+        return readListByPrimaryKeysSqlCache;
+    }
+
+    public synchronized void setReadListByPrimaryKeysSqlCache(ISqlCache readListByPrimaryKeysSqlCache) {
+        this.readListByPrimaryKeysSqlCache = readListByPrimaryKeysSqlCache;
+    }
+
+    public synchronized ISqlCache getReadListAfterKeySqlCache() {
+        return readListAfterKeySqlCache;
+    }
+
+    public synchronized void setReadListAfterKeySqlCache(ISqlCache readListAfterKeySqlCache) {
+        this.readListAfterKeySqlCache = readListAfterKeySqlCache;
+    }
+
+    public synchronized ISqlCache getReadListByForeignKeysSqlCache() {
+        return readListByForeignKeysSqlCache;
+    }
+
+    public synchronized void setReadListByForeignKeysSqlCache(ISqlCache readListByForeignKeysSqlCache) {
+        this.readListByForeignKeysSqlCache = readListByForeignKeysSqlCache;
+    }
+
+    public synchronized int getMaxPrimaryKeysPerStatement() {
+        return maxPrimaryKeysPerStatement;
+    }
+
+    public synchronized void setMaxPrimaryKeysPerStatement(int maxPrimaryKeysPerStatement) {
+        if(maxPrimaryKeysPerStatement < 1) throw new IllegalArgumentException("maxPrimaryKeysPerStatement must be at least 1");
+        this.maxPrimaryKeysPerStatement = maxPrimaryKeysPerStatement;
+    }
+
+    public synchronized int getTemporaryTableKeyThreshold() {
+        return temporaryTableKeyThreshold;
+    }
+
+    public synchronized void setTemporaryTableKeyThreshold(int temporaryTableKeyThreshold) {
+        if(temporaryTableKeyThreshold < 0) throw new IllegalArgumentException("temporaryTableKeyThreshold must not be negative");
+        this.temporaryTableKeyThreshold = temporaryTableKeyThreshold;
+    }
+
+    public synchronized int getTemporaryTableBatchSize() {
+        return temporaryTableBatchSize;
+    }
+
+    public synchronized void setTemporaryTableBatchSize(int temporaryTableBatchSize) {
+        if(temporaryTableBatchSize < 1) throw new IllegalArgumentException("temporaryTableBatchSize must be at least 1");
+        this.temporaryTableBatchSize = temporaryTableBatchSize;
+    }
+
+    public synchronized int getPrimaryKeyChunkParallelism() {
+        return primaryKeyChunkParallelism;
+    }
+
+    public synchronized void setPrimaryKeyChunkParallelism(int primaryKeyChunkParallelism) {
+        if(primaryKeyChunkParallelism < 1) throw new IllegalArgumentException("primaryKeyChunkParallelism must be at least 1");
+        this.primaryKeyChunkParallelism = primaryKeyChunkParallelism;
+    }
+
+    public synchronized int getReadListSpillThreshold() {
+        return readListSpillThreshold;
+    }
+
+    public synchronized void setReadListSpillThreshold(int readListSpillThreshold) {
+        if(readListSpillThreshold < 0) throw new IllegalArgumentException("readListSpillThreshold must not be negative");
+        this.readListSpillThreshold = readListSpillThreshold;
+        if(this.reader instanceof ObjectReader) ((ObjectReader) this.reader).setSpillThreshold(readListSpillThreshold);
+    }
+
+    public synchronized int getReadFetchSize() {
+        return readFetchSize;
+    }
+
+    public synchronized void setReadFetchSize(int readFetchSize) {
+        if(readFetchSize < 0) throw new IllegalArgumentException("readFetchSize must not be negative");
+        this.readFetchSize = readFetchSize;
+        if(this.reader instanceof ObjectReader) ((ObjectReader) this.reader).setFetchSize(readFetchSize);
+    }
+
+    public synchronized int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    public synchronized void setWriteBatchSize(int writeBatchSize) {
+        if(writeBatchSize < 0) throw new IllegalArgumentException("writeBatchSize must not be negative");
+        this.writeBatchSize = writeBatchSize;
+        if(this.writer instanceof ObjectWriter) ((ObjectWriter) this.writer).setBatchSize(writeBatchSize);
+    }
+
+    public synchronized long getWriteBatchLatency() {
+        return writeBatchLatency;
+    }
+
+    public synchronized void setWriteBatchLatency(long writeBatchLatency) {
+        if(writeBatchLatency < 0) throw new IllegalArgumentException("writeBatchLatency must not be negative");
+        this.writeBatchLatency = writeBatchLatency;
+        if(this.writer instanceof ObjectWriter) ((ObjectWriter) this.writer).setBatchLatency(writeBatchLatency);
+    }
+
+    public synchronized StringCache getMapStringCache() {
+        return mapStringCache;
+    }
+
+    public synchronized void setMapStringCache(StringCache mapStringCache) {
+        this.mapStringCache = mapStringCache;
+    }
+
     public DatabaseInitializer getDatabaseInitializer() {
         return databaseInitializer;
     }
@@ -206,4 +341,33 @@ public class PersistenceConfiguration implements IPersistenceConfiguration{
     public void setDatabaseInitializer(DatabaseInitializer databaseInitializer) {
         this.databaseInitializer = databaseInitializer;
     }
+
+    public synchronized Executor getReadExecutor() {
+        if(this.readExecutor == null) this.readExecutor = createReadExecutor();
+        return this.readExecutor;
+    }
+
+    /**
+     * Creates the default read executor: A pool of daemon threads dedicated to database reads, bounded to
+     * twice the number of processors (at least 4). Idle threads are stopped after 60 seconds.
+     */
+    protected Executor createReadExecutor() {
+        int threads = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue(), new ThreadFactory(){
+                    private AtomicInteger threadCount = new AtomicInteger();
+
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "butterfly-read-" + this.threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public synchronized void setReadExecutor(Executor executor) {
+        this.readExecutor = executor;
+    }
 }
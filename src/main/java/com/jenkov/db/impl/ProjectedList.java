@@ -0,0 +1,65 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.IProjectedList;
+import com.jenkov.db.itf.PersistenceException;
+import com.jenkov.db.itf.mapping.IObjectMapping;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * The default implementation of the <code>IProjectedList</code> interface. The remaining
+ * columns are read by the <code>ObjectDao</code> that read the list.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ProjectedList extends ArrayList implements IProjectedList {
+
+    protected ObjectDao      dao             = null;
+    protected IObjectMapping mapping         = null;
+    protected Collection     eagerColumns    = null;
+    protected boolean        remainingLoaded = false;
+
+    public ProjectedList(ObjectDao dao, IObjectMapping mapping, Collection eagerColumns, Collection objects) {
+        super(objects);
+        this.dao          = dao;
+        this.mapping      = mapping;
+        this.eagerColumns = eagerColumns;
+    }
+
+    public Collection getEagerColumns() {
+        return eagerColumns;
+    }
+
+    public boolean isRemainingLoaded() {
+        return remainingLoaded;
+    }
+
+    public void loadRemaining() throws PersistenceException {
+        if(this.remainingLoaded) return;
+        this.dao.readRemainingColumns(this.mapping, this, this.eagerColumns);
+        this.remainingLoaded = true;
+    }
+
+    public Object getLoaded(int index) throws PersistenceException {
+        loadRemaining();
+        return get(index);
+    }
+}
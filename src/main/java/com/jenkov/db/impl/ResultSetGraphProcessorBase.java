@@ -37,6 +37,9 @@ public class ResultSetGraphProcessorBase extends ResultSetProcessorBase implemen
     protected Map<Set, Map> previousColumnSetValues = new HashMap<Set, Map>();
     protected Set<String>[] columnSets              = null;
 
+    private int[][]    columnSetIndexes = null;
+    private Object[][] previousValues   = null;
+
 
     public void init(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
         onInit(result);
@@ -47,9 +50,10 @@ public class ResultSetGraphProcessorBase extends ResultSetProcessorBase implemen
     }
 
     public void process(ResultSet result, IDaos daos) throws SQLException, PersistenceException {
-        for(Set<String> columnSet : columnSets){
-            if(hasColumnChanged(result, columnSet)){
-                onColumnChange(result, daos, columnSet);
+        if(this.columnSetIndexes == null) compileColumnSets(result);
+        for(int i=0; i<columnSets.length; i++){
+            if(hasColumnChanged(result, i)){
+                onColumnChange(result, daos, columnSets[i]);
             }
         }
         onRecord(result, daos);
@@ -85,35 +89,53 @@ public class ResultSetGraphProcessorBase extends ResultSetProcessorBase implemen
 
     }
 
-    private boolean hasColumnChanged(ResultSet result, Set<String> columnSet) throws SQLException {
-        boolean hasColumnsChanged = false;
-
-        Map previousValues = this.previousColumnSetValues.get(columnSet);
+    /**
+     * Resolves the indexes of the columns in the column sets once, so the column values of each
+     * record can be compared with those of the previous record without column name lookups.
+     */
+    private void compileColumnSets(ResultSet result) throws SQLException {
+        this.columnSetIndexes = new int[this.columnSets.length][];
+        this.previousValues   = new Object[this.columnSets.length][];
+        for(int i=0; i<this.columnSets.length; i++){
+            this.columnSetIndexes[i] = new int[this.columnSets[i].size()];
+            int index = 0;
+            for(String column : this.columnSets[i]){
+                this.columnSetIndexes[i][index++] = result.findColumn(column);
+            }
+        }
+    }
 
+    /**
+     * Compares the values of the given column set in the current record with those of the previous record.
+     * When they have changed, the new values are also put into <code>previousColumnSetValues</code>.
+     */
+    private boolean hasColumnChanged(ResultSet result, int columnSet) throws SQLException {
+        int[]    indexes        = this.columnSetIndexes[columnSet];
+        Object[] previousValues = this.previousValues[columnSet];
+        boolean  hasColumnsChanged = previousValues == null;
         if(previousValues == null){
-            this.previousColumnSetValues.put(columnSet, readColumnValues(result, columnSet));
+            previousValues = new Object[indexes.length];
+            this.previousValues[columnSet] = previousValues;
         }
 
-        Map recordValues = readColumnValues(result, columnSet);
-        hasColumnsChanged = !recordValues.equals(previousValues);
+        for(int i=0; i<indexes.length; i++){
+            Object value = result.getObject(indexes[i]);
+            if(hasColumnsChanged || (value == null ? previousValues[i] != null : !value.equals(previousValues[i]))){
+                hasColumnsChanged = true;
+                previousValues[i] = value;
+            }
+        }
 
         if(hasColumnsChanged){
-            this.previousColumnSetValues.put(columnSet, recordValues);
+            Map values = new HashMap();
+            int index = 0;
+            for(String column : this.columnSets[columnSet]){
+                values.put(column, previousValues[index++]);
+            }
+            this.previousColumnSetValues.put(this.columnSets[columnSet], values);
         }
 
         return hasColumnsChanged;
     }
 
-    private Map readColumnValues(ResultSet result, Set<String> columnSet) throws SQLException {
-        Map values = new HashMap();
-
-        for(String column : columnSet){
-            values.put(column, result.getObject(column));
-        }
-
-        return values;
-    }
-
-
-
 }
@@ -0,0 +1,170 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.impl.filter.AcceptAllReadFilter;
+import com.jenkov.db.itf.IObjectIterator;
+import com.jenkov.db.itf.IReadFilter;
+import com.jenkov.db.itf.PersistenceException;
+import com.jenkov.db.itf.PersistenceExceptionUnchecked;
+import com.jenkov.db.util.JdbcUtil;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.NoSuchElementException;
+
+/**
+ * A base class for <code>IObjectIterator</code> implementations. Iterates the records of an open
+ * <code>ResultSet</code>, applying the read filter the same way <code>ObjectReader.readList(...)</code>
+ * does, and closes the <code>ResultSet</code> (and <code>Statement</code>, if given) when done.
+ * Subclasses only need to implement <code>read(ResultSet result)</code>, which creates the object
+ * for the record the <code>ResultSet</code> is currently positioned at.
+ *
+ * <br/><br/>
+ * The iterator reads one record ahead, since <code>hasNext()</code> cannot otherwise know
+ * whether the read filter will accept any of the remaining records.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public abstract class ResultSetIterator implements IObjectIterator {
+
+    protected ResultSet      result    = null;
+    protected Statement      statement = null;
+    protected IReadFilter    filter    = null;
+
+    protected Object         next      = null;
+    protected boolean        started   = false;
+    protected boolean        closed    = false;
+
+    /**
+     * Creates a new iterator reading from the given <code>ResultSet</code>.
+     * @param result    The <code>ResultSet</code> to read the objects from.
+     * @param statement The statement the <code>ResultSet</code> was created from, if it is to be
+     *                  closed along with the <code>ResultSet</code>. Null if not.
+     * @param filter    The filter to apply to the records. Null means accept all records.
+     */
+    public ResultSetIterator(ResultSet result, Statement statement, IReadFilter filter) {
+        this.result    = result;
+        this.statement = statement;
+        this.filter    = filter != null ? filter : AcceptAllReadFilter.ACCEPT_ALL_FILTER;
+    }
+
+    /**
+     * Called once before the first record is read. Override to prepare reading,
+     * for instance by reading the <code>ResultSetMetaData</code>.
+     * @param result The <code>ResultSet</code> to be read.
+     * @throws SQLException If preparing fails in the driver.
+     * @throws PersistenceException If something else fails.
+     */
+    protected void init(ResultSet result) throws SQLException, PersistenceException {
+    }
+
+    /**
+     * Creates the object for the record the <code>ResultSet</code> is currently positioned at.
+     * Must not return null.
+     * @param result The <code>ResultSet</code> to read the object from.
+     * @return The object read.
+     * @throws SQLException If reading fails in the driver.
+     * @throws PersistenceException If something else fails.
+     */
+    protected abstract Object read(ResultSet result) throws SQLException, PersistenceException;
+
+    /**
+     * Returns true if the <code>ResultSet</code> is positioned at a record before the first
+     * call to <code>next()</code>. By default returns false, meaning the <code>ResultSet</code>
+     * is expected to be positioned before the first record, as it is right after being executed.
+     * @param result The <code>ResultSet</code> to check.
+     * @return True if the <code>ResultSet</code> is positioned at a record.
+     * @throws SQLException If checking fails in the driver.
+     */
+    protected boolean isPositionedAtRecord(ResultSet result) throws SQLException {
+        return false;
+    }
+
+    public boolean hasNext() {
+        if(this.next != null) return true;
+        if(this.closed)       return false;
+
+        try {
+            this.next = readNext();
+            if(this.next == null) close();
+            return this.next != null;
+        } catch (PersistenceException e) {
+            closeIgnore();
+            throw new PersistenceExceptionUnchecked(e);
+        }
+    }
+
+    public Object next() {
+        if(!hasNext()) throw new NoSuchElementException("No more objects to read from ResultSet");
+        Object object = this.next;
+        this.next = null;
+        return object;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("Objects cannot be removed via an IObjectIterator");
+    }
+
+    protected Object readNext() throws PersistenceException {
+        try{
+            if(!this.started){
+                this.started = true;
+                this.filter.init(this.result);
+                init(this.result);
+
+                //change for MS SQL Server Driver compatibility :-(
+                if(isPositionedAtRecord(this.result) && this.filter.accept(this.result)){
+                    return read(this.result);
+                }
+            }
+            while(this.result.next() && this.filter.acceptMore()){
+                if(this.filter.accept(this.result)){
+                    return read(this.result);
+                }
+            }
+            return null;
+        } catch (SQLException e){
+            throw new PersistenceException("Error reading object from ResultSet", e);
+        }
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    public void close() throws PersistenceException {
+        if(this.closed) return;
+        this.closed = true;
+        this.next   = null;
+        try{
+            JdbcUtil.close(this.result);
+        } finally {
+            JdbcUtil.close(this.statement);
+        }
+    }
+
+    protected void closeIgnore(){
+        this.closed = true;
+        this.next   = null;
+        JdbcUtil.closeIgnore(this.result);
+        JdbcUtil.closeIgnore(this.statement);
+    }
+}
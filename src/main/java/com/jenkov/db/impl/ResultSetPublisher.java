@@ -0,0 +1,216 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.IObjectIterator;
+import com.jenkov.db.itf.IPublisher;
+import com.jenkov.db.itf.ISubscriber;
+import com.jenkov.db.itf.ISubscription;
+import com.jenkov.db.itf.PersistenceException;
+import com.jenkov.db.itf.PersistenceExceptionUnchecked;
+import com.jenkov.db.util.JdbcUtil;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A base class for <code>IPublisher</code> implementations that publish the records of a query.
+ * Each subscription opens its own <code>IObjectIterator</code> via <code>open(Connection)</code>,
+ * and moves it forward only as far as the subscriber has requested. All reading and all calls
+ * to the subscriber happen as tasks on the executor, never on the thread calling
+ * <code>request()</code> or <code>cancel()</code>.
+ *
+ * <br/><br/>
+ * If a <code>DataSource</code> is given, each subscription obtains its connection from it on the
+ * executor thread, and closes the connection again when the subscription completes, fails or is
+ * cancelled. With a <code>ScopingDataSource</code> this releases the connection, since the executor
+ * thread is not inside any connection or transaction scope. If no <code>DataSource</code> is given,
+ * the given connection is used and left open. Since a connection must not be used by several threads
+ * at a time, only one subscription at a time can read on the given connection. A subscription
+ * requesting objects while another one is still reading on it fails.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public abstract class ResultSetPublisher implements IPublisher {
+
+    protected DataSource dataSource = null;
+    protected Connection connection = null;
+    protected Executor   executor   = null;
+    protected AtomicBoolean connectionInUse = new AtomicBoolean(false);
+
+    /**
+     * Creates a new publisher.
+     * @param dataSource The <code>DataSource</code> to obtain a connection from per subscription,
+     *                   or null to use the given connection.
+     * @param connection The connection to use if no <code>DataSource</code> is given.
+     * @param executor   The executor to read the records and call the subscribers on.
+     */
+    public ResultSetPublisher(DataSource dataSource, Connection connection, Executor executor) {
+        this.dataSource = dataSource;
+        this.connection = connection;
+        this.executor   = executor;
+    }
+
+    /**
+     * Executes the query on the given connection, and returns an iterator over the objects
+     * to publish. Called on the executor thread when the subscriber first requests objects.
+     * @param connection The connection to execute the query on.
+     * @return An iterator over the objects to publish.
+     * @throws PersistenceException If executing the query fails.
+     */
+    protected abstract IObjectIterator open(Connection connection) throws PersistenceException;
+
+    public void subscribe(ISubscriber subscriber) {
+        if(subscriber == null) throw new NullPointerException("subscriber cannot be null");
+        subscriber.onSubscribe(new Subscription(subscriber));
+    }
+
+
+    protected class Subscription implements ISubscription, Runnable {
+
+        protected ISubscriber     subscriber = null;
+        protected AtomicLong      demand     = new AtomicLong();
+        protected AtomicInteger   pending    = new AtomicInteger();
+        protected volatile boolean cancelled = false;
+        protected volatile Throwable error   = null;
+
+        //only accessed by the executor task, which never runs concurrently with itself.
+        protected Connection      ownConnection = null;
+        protected boolean         sharedConnection = false;
+        protected IObjectIterator iterator      = null;
+        protected boolean         done          = false;
+
+        public Subscription(ISubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        public void request(long n) {
+            if(n <= 0){
+                this.error = new IllegalArgumentException("The number of objects requested must be positive: " + n);
+            } else {
+                long current, next;
+                do {
+                    current = this.demand.get();
+                    next    = current + n < 0 ? Long.MAX_VALUE : current + n;
+                } while(!this.demand.compareAndSet(current, next));
+            }
+            schedule();
+        }
+
+        public void cancel() {
+            this.cancelled = true;
+            schedule();
+        }
+
+        protected void schedule() {
+            if(this.pending.getAndIncrement() != 0) return;
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                this.cancelled = true;
+                release();
+                this.subscriber.onError(e);
+            }
+        }
+
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = this.pending.addAndGet(-missed);
+            } while(missed != 0);
+        }
+
+        protected void drain() {
+            if(this.done) return;
+            if(this.cancelled){
+                this.done = true;
+                release();
+                return;
+            }
+            try {
+                if(this.error != null) throw this.error;
+                if(this.iterator == null) {
+                    this.iterator = open(getConnection());
+                }
+                while(this.demand.get() > 0 && !this.cancelled){
+                    if(!this.iterator.hasNext()) break;
+                    Object next = this.iterator.next();
+                    if(this.demand.get() != Long.MAX_VALUE) this.demand.decrementAndGet();
+                    this.subscriber.onNext(next);
+                }
+                if(this.cancelled){
+                    this.done = true;
+                    release();
+                } else if(!this.iterator.hasNext()){
+                    this.done = true;
+                    release();
+                    this.subscriber.onComplete();
+                }
+            } catch (Throwable t) {
+                this.done = true;
+                release();
+                if(t instanceof PersistenceExceptionUnchecked && t.getCause() instanceof PersistenceException){
+                    t = t.getCause();
+                }
+                this.subscriber.onError(t);
+            }
+        }
+
+        protected Connection getConnection() throws PersistenceException {
+            if(dataSource == null){
+                if(!connectionInUse.compareAndSet(false, true)){
+                    throw new PersistenceException("The connection of this publisher is already used by another " +
+                            "subscription. Only one subscription at a time can read on it.");
+                }
+                this.sharedConnection = true;
+                return connection;
+            }
+            try {
+                this.ownConnection = dataSource.getConnection();
+                return this.ownConnection;
+            } catch (SQLException e) {
+                throw new PersistenceException("Error obtaining connection from DataSource", e);
+            }
+        }
+
+        protected void release() {
+            if(this.iterator != null){
+                try {
+                    this.iterator.close();
+                } catch (PersistenceException e) {
+                    //ignore - the objects have been read.
+                }
+            }
+            JdbcUtil.closeIgnore(this.ownConnection);
+            this.ownConnection = null;
+            if(this.sharedConnection){
+                this.sharedConnection = false;
+                connectionInUse.set(false);
+            }
+        }
+    }
+
+}
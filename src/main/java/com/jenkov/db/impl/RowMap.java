@@ -0,0 +1,316 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A <code>Map</code> holding the column values of a single record, keyed by column name.
+ * The values are kept in an array, and the column names and their indexes are kept in a
+ * <code>RowMap.Columns</code> instance shared by all rows read from the same <code>ResultSet</code>.
+ * This takes considerably less memory than a <code>HashMap</code> per record, and the column
+ * names are only read from the <code>ResultSetMetaData</code> once per <code>ResultSet</code>.
+ *
+ * <br/><br/>
+ * The map can be modified like any other map. Values put for columns not in the record are
+ * kept in a separate map for that row only.
+ *
+ * <br/><br/>
+ * The map is serializable if its values are. The string cache of the columns is not serialized,
+ * so rows read with deserialized columns do not deduplicate their strings.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class RowMap extends AbstractMap implements Serializable {
+
+    private static final Object ABSENT = new Object();
+
+    protected Columns  columns = null;
+    protected transient Object[] values = null;
+    protected Map      extra   = null;
+    protected int      size    = 0;
+
+    /**
+     * The column names of a <code>ResultSet</code>, mapped to their indexes in the values of a
+     * <code>RowMap</code>. If the same column name occurs more than once, the last occurrence is used,
+     * as when putting the values into a <code>HashMap</code>.
+     */
+    public static class Columns implements Serializable {
+
+        protected String[] names             = null;
+        protected int[]    resultSetIndexes  = null;
+        protected Map      indexes           = new HashMap();
+        protected transient StringCache stringCache = null;
+
+        public Columns(ResultSetMetaData metaData) throws SQLException {
+            this(metaData, null);
+        }
+
+        /**
+         * Creates the columns of the given <code>ResultSetMetaData</code>. If a string cache is
+         * given, the <code>String</code> values of rows read with these columns are deduplicated via it.
+         */
+        public Columns(ResultSetMetaData metaData, StringCache stringCache) throws SQLException {
+            this.stringCache = stringCache;
+            int columnCount = metaData.getColumnCount();
+            for(int i=1; i<=columnCount; i++){
+                this.indexes.put(metaData.getColumnName(i), Integer.valueOf(i));
+            }
+            this.names            = new String[this.indexes.size()];
+            this.resultSetIndexes = new int[this.indexes.size()];
+            int index = 0;
+            for(int i=1; i<=columnCount; i++){
+                String name = metaData.getColumnName(i);
+                if(((Integer) this.indexes.get(name)).intValue() == i){
+                    this.names[index]            = name;
+                    this.resultSetIndexes[index] = i;
+                    this.indexes.put(name, Integer.valueOf(index++));
+                }
+            }
+            this.indexes = Collections.unmodifiableMap(this.indexes);
+        }
+
+        public int size() {
+            return this.names.length;
+        }
+
+        public String getName(int index) {
+            return this.names[index];
+        }
+
+        /**
+         * Returns the index of the given column, or -1 if the column is not found.
+         */
+        public int indexOf(Object name) {
+            Integer index = (Integer) this.indexes.get(name);
+            return index != null ? index.intValue() : -1;
+        }
+    }
+
+    public RowMap(Columns columns) {
+        this.columns = columns;
+        this.values  = new Object[columns.size()];
+        Arrays.fill(this.values, ABSENT);
+    }
+
+    /**
+     * Reads the values of the record the <code>ResultSet</code> is positioned at into this row.
+     * The <code>ResultSet</code> must have the columns this row was created with.
+     */
+    public RowMap read(ResultSet result) throws SQLException {
+        for(int i=0; i<this.values.length; i++){
+            if(this.values[i] == ABSENT) this.size++;
+            this.values[i] = result.getObject(this.columns.resultSetIndexes[i]);
+            if(this.columns.stringCache != null && this.values[i] instanceof String){
+                this.values[i] = this.columns.stringCache.deduplicate((String) this.values[i]);
+            }
+        }
+        return this;
+    }
+
+    public Columns getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the value of the column at the given index, in the sequence the columns
+     * were returned by the <code>ResultSet</code> (duplicate column names excluded).
+     */
+    public Object get(int index) {
+        Object value = this.values[index];
+        return value == ABSENT ? null : value;
+    }
+
+    public Object get(Object key) {
+        int index = this.columns.indexOf(key);
+        if(index != -1) return get(index);
+        return this.extra != null ? this.extra.get(key) : null;
+    }
+
+    public boolean containsKey(Object key) {
+        int index = this.columns.indexOf(key);
+        if(index != -1) return this.values[index] != ABSENT;
+        return this.extra != null && this.extra.containsKey(key);
+    }
+
+    public Object put(Object key, Object value) {
+        int index = this.columns.indexOf(key);
+        if(index != -1){
+            Object previous = this.values[index];
+            this.values[index] = value;
+            if(previous == ABSENT){
+                this.size++;
+                return null;
+            }
+            return previous;
+        }
+        if(this.extra == null) this.extra = new HashMap();
+        return this.extra.put(key, value);
+    }
+
+    public Object remove(Object key) {
+        int index = this.columns.indexOf(key);
+        if(index != -1){
+            Object previous = this.values[index];
+            if(previous == ABSENT) return null;
+            this.values[index] = ABSENT;
+            this.size--;
+            return previous;
+        }
+        return this.extra != null ? this.extra.remove(key) : null;
+    }
+
+    public int size() {
+        return this.size + (this.extra != null ? this.extra.size() : 0);
+    }
+
+    public Set entrySet() {
+        return new AbstractSet(){
+            public int size() {
+                return RowMap.this.size();
+            }
+
+            public Iterator iterator() {
+                return new EntryIterator();
+            }
+        };
+    }
+
+    public String getString(Object column) {
+        Object value = get(column);
+        return value != null ? value.toString() : null;
+    }
+
+    public Integer getInteger(Object column) {
+        Object value = get(column);
+        if(value == null || value instanceof Integer) return (Integer) value;
+        return Integer.valueOf(((Number) value).intValue());
+    }
+
+    public Long getLong(Object column) {
+        Object value = get(column);
+        if(value == null || value instanceof Long) return (Long) value;
+        return Long.valueOf(((Number) value).longValue());
+    }
+
+    public Double getDouble(Object column) {
+        Object value = get(column);
+        if(value == null || value instanceof Double) return (Double) value;
+        return Double.valueOf(((Number) value).doubleValue());
+    }
+
+    public BigDecimal getBigDecimal(Object column) {
+        Object value = get(column);
+        if(value == null || value instanceof BigDecimal) return (BigDecimal) value;
+        return new BigDecimal(value.toString());
+    }
+
+    public Boolean getBoolean(Object column) {
+        Object value = get(column);
+        if(value == null || value instanceof Boolean) return (Boolean) value;
+        return Boolean.valueOf(((Number) value).intValue() != 0);
+    }
+
+    public java.util.Date getDate(Object column) {
+        return (java.util.Date) get(column);
+    }
+
+    /**
+     * Writes the values of the row, marking the columns removed from the row, since the marker
+     * for them cannot be serialized.
+     */
+    private void writeObject(ObjectOutputStream output) throws IOException {
+        output.defaultWriteObject();
+        for(int i=0; i<this.values.length; i++){
+            boolean present = this.values[i] != ABSENT;
+            output.writeBoolean(present);
+            if(present) output.writeObject(this.values[i]);
+        }
+    }
+
+    private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+        input.defaultReadObject();
+        this.values = new Object[this.columns.size()];
+        for(int i=0; i<this.values.length; i++){
+            this.values[i] = input.readBoolean() ? input.readObject() : ABSENT;
+        }
+    }
+
+    private class EntryIterator implements Iterator {
+        int      next      = -1;
+        int      current   = -1;
+        Iterator extraIterator = null;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            do { this.next++; } while(this.next < values.length && values[this.next] == ABSENT);
+        }
+
+        public boolean hasNext() {
+            if(this.next < values.length) return true;
+            if(this.extraIterator == null && extra != null) this.extraIterator = extra.entrySet().iterator();
+            return this.extraIterator != null && this.extraIterator.hasNext();
+        }
+
+        public Object next() {
+            if(!hasNext()) throw new NoSuchElementException();
+            if(this.next < values.length){
+                final int index = this.current = this.next;
+                advance();
+                return new SimpleEntry(columns.getName(index), values[index]){
+                    public Object setValue(Object value) {
+                        values[index] = value;
+                        return super.setValue(value);
+                    }
+                };
+            }
+            this.current = -1;
+            return this.extraIterator.next();
+        }
+
+        public void remove() {
+            if(this.current == -1){
+                if(this.extraIterator == null) throw new IllegalStateException();
+                this.extraIterator.remove();
+                return;
+            }
+            if(values[this.current] == ABSENT) throw new IllegalStateException();
+            values[this.current] = ABSENT;
+            size--;
+        }
+    }
+}
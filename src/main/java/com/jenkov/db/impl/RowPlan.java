@@ -0,0 +1,388 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.impl.mapping.KeyValue;
+import com.jenkov.db.impl.mapping.method.*;
+import com.jenkov.db.itf.PersistenceException;
+import com.jenkov.db.itf.mapping.IConstructorMapping;
+import com.jenkov.db.itf.mapping.IKey;
+import com.jenkov.db.itf.mapping.IKeyValue;
+import com.jenkov.db.itf.mapping.IObjectMapping;
+import com.jenkov.db.itf.mapping.ISetterMapping;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A precompiled plan for moving the values of a record in a <code>ResultSet</code> into an object.
+ * The plan is compiled once from the column names of the <code>ResultSet</code> and the setter
+ * mappings of the object mapping. It consists of the indexes of the columns that are both
+ * present in the <code>ResultSet</code> and mapped by the object mapping, and the setter
+ * mappings for those columns. Reading a record via the plan thus requires neither
+ * <code>ResultSetMetaData</code> calls nor setter mapping lookups by column name.
+ *
+ * <br/><br/>
+ * If the same column name occurs more than once in the <code>ResultSet</code>
+ * (e.g. in joins), only the first occurrence is mapped.
+ *
+ * <br/><br/>
+ * The row plan also holds the strategy for creating new objects, determined once when the
+ * plan is compiled: Via the constructor mapping of the object mapping if it has one (with the
+ * constructor arguments read from precompiled column indexes), else via a constructor taking
+ * a <code>ResultSet</code> if the object class has one, else via the no-argument constructor.
+ *
+ * <br/><br/>
+ * A row plan is immutable once compiled and can be shared between threads.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class RowPlan {
+
+    protected IObjectMapping   mapping        = null;
+    protected String[]         columnNames    = null;
+    protected int[]            columnIndexes  = null;
+    protected ISetterMapping[] setterMappings = null;
+
+    protected String[]         primaryKeyColumns        = null;
+    protected int[]            primaryKeyColumnIndexes  = null;
+    protected ISetterMapping[] primaryKeySetterMappings = null;
+
+    protected IConstructorMapping constructorMapping       = null;
+    protected int[]               constructorColumnIndexes = null;
+    protected String              missingConstructorColumn = null;
+    protected Constructor         resultSetConstructor     = null;
+    protected Constructor         noArgumentConstructor    = null;
+
+    public RowPlan(IObjectMapping mapping, String[] columnNames){
+        this.mapping     = mapping;
+        this.columnNames = columnNames;
+        compile();
+        compilePrimaryKey();
+        compileInstantiation();
+    }
+
+    protected void compile(){
+        int[]            indexes  = new int[columnNames.length];
+        ISetterMapping[] setters  = new ISetterMapping[columnNames.length];
+        Set              mapped   = new HashSet();
+        int count = 0;
+
+        for(int i=0; i<columnNames.length; i++){
+            ISetterMapping setterMapping = mapping.getSetterMapping(columnNames[i]);
+            if(setterMapping != null && mapped.add(setterMapping)){
+                indexes[count] = i + 1;
+                setters[count] = setterMapping;
+                count++;
+            }
+        }
+
+        this.columnIndexes  = new int[count];
+        this.setterMappings = new ISetterMapping[count];
+        System.arraycopy(indexes, 0, this.columnIndexes , 0, count);
+        System.arraycopy(setters, 0, this.setterMappings, 0, count);
+    }
+
+    protected void compilePrimaryKey(){
+        IKey primaryKey = this.mapping.getPrimaryKey();
+        if(primaryKey == null || primaryKey.getColumns() == null || primaryKey.getColumns().size() == 0) return;
+
+        String[]         columns  = (String[]) primaryKey.getColumns().toArray(new String[primaryKey.getColumns().size()]);
+        int[]            indexes  = new int[columns.length];
+        ISetterMapping[] setters  = new ISetterMapping[columns.length];
+        for(int i=0; i<columns.length; i++){
+            indexes[i] = getColumnIndex(columns[i]);
+            setters[i] = this.mapping.getSetterMapping(columns[i]);
+            if(indexes[i] == -1 || setters[i] == null) return;
+        }
+        this.primaryKeyColumns        = columns;
+        this.primaryKeyColumnIndexes  = indexes;
+        this.primaryKeySetterMappings = setters;
+    }
+
+    protected void compileInstantiation(){
+        this.constructorMapping = this.mapping.getConstructorMapping();
+        if(this.constructorMapping != null){
+            String[] constructorColumns   = this.constructorMapping.getColumnNames();
+            this.constructorColumnIndexes = new int[constructorColumns.length];
+            for(int i=0; i<constructorColumns.length; i++){
+                this.constructorColumnIndexes[i] = getColumnIndex(constructorColumns[i]);
+                if(this.constructorColumnIndexes[i] == -1){
+                    this.constructorColumnIndexes[i] = getColumnIndexIgnoreUnderscores(constructorColumns[i]);
+                }
+                if(this.constructorColumnIndexes[i] == -1 && this.missingConstructorColumn == null){
+                    this.missingConstructorColumn = constructorColumns[i];
+                }
+            }
+            return;
+        }
+
+        Class objectClass = this.mapping.getObjectClass();
+        try {
+            this.resultSetConstructor = objectClass.getConstructor(new Class[]{ResultSet.class});
+            return;
+        } catch (NoSuchMethodException e) {
+            //no constructor taking a ResultSet - use the no-argument constructor.
+        }
+        try {
+            this.noArgumentConstructor = objectClass.getConstructor(new Class[0]);
+        } catch (NoSuchMethodException e) {
+            //reported when the first object is created.
+        }
+    }
+
+    private int getColumnIndexIgnoreUnderscores(String columnName){
+        String name = columnName.replace("_", "");
+        for(int i=0; i<columnNames.length; i++){
+            if(columnNames[i].replace("_", "").equalsIgnoreCase(name)) return i + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Creates a new object for the record the <code>ResultSet</code> is currently positioned at,
+     * using the instantiation strategy determined when this plan was compiled. If the object
+     * is created via a constructor mapping, the constructor arguments are read from the record.
+     * The remaining column values are not moved into the object. Call <code>read()</code> for that.
+     *
+     * @param result The <code>ResultSet</code> the new object is to be read from.
+     * @return The new object.
+     * @throws PersistenceException If the object cannot be created.
+     */
+    public Object newInstance(ResultSet result) throws PersistenceException {
+        Class objectClass = this.mapping.getObjectClass();
+        try {
+            if(this.constructorMapping != null){
+                if(this.missingConstructorColumn != null){
+                    throw new PersistenceException("The column " + this.missingConstructorColumn + " mapped to the " +
+                            "constructor of " + objectClass.getName() + " is not present in the ResultSet");
+                }
+                return this.constructorMapping.newInstance(result, this.constructorColumnIndexes);
+            }
+            if(this.resultSetConstructor != null){
+                return this.resultSetConstructor.newInstance(new Object[]{result});
+            }
+            if(this.noArgumentConstructor != null){
+                return this.noArgumentConstructor.newInstance(new Object[0]);
+            }
+        } catch (InstantiationException e) {
+            throw new PersistenceException("Error occurred when trying to create instance of class " +
+                    objectClass.getName(), e);
+        } catch (IllegalAccessException e) {
+            throw new PersistenceException("Error occurred when trying to create instance of class " +
+                    objectClass.getName(), e);
+        } catch (InvocationTargetException e) {
+            throw new PersistenceException("Error occurred when trying to create instance of class " +
+                    objectClass.getName(), e);
+        }
+        throw new PersistenceException("Error occurred when trying to create instance of class " +
+                objectClass.getName() + " (no public no-argument constructor)");
+    }
+
+    /**
+     * Returns the object mapping this row plan was compiled from.
+     * @return The object mapping this row plan was compiled from.
+     */
+    public IObjectMapping getObjectMapping() {
+        return mapping;
+    }
+
+    /**
+     * Returns the column names of the <code>ResultSet</code> this row plan was compiled for.
+     * The column at array index 0 is column 1 in the <code>ResultSet</code>.
+     * @return The column names of the <code>ResultSet</code> this row plan was compiled for.
+     */
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Returns the <code>ResultSet</code> index of the given column, or -1 if the
+     * column is not present in the <code>ResultSet</code> this row plan was compiled for.
+     * The column name is matched case insensitively.
+     * @param columnName The name of the column to get the index of.
+     * @return The <code>ResultSet</code> index of the column, or -1 if not present.
+     */
+    public int getColumnIndex(String columnName){
+        for(int i=0; i<columnNames.length; i++){
+            if(columnNames[i].equalsIgnoreCase(columnName)) return i + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the values of the record the <code>ResultSet</code> is currently positioned at
+     * into the given object.
+     * @param result The <code>ResultSet</code> to read the values from.
+     * @param target The object to insert the values into.
+     * @return The target object.
+     * @throws PersistenceException If moving any of the values fails.
+     */
+    public Object read(ResultSet result, Object target) throws PersistenceException {
+        for(int i=0; i<setterMappings.length; i++){
+            setterMappings[i].insertValueIntoObject(target, result, columnIndexes[i]);
+        }
+        return target;
+    }
+
+    /**
+     * Moves the values of the record the <code>ResultSet</code> is currently positioned at
+     * into an existing object, which may hold values from a previously read record. Unlike
+     * <code>read(ResultSet, Object)</code> values that are NULL in the record are reset in the
+     * object (to null, or zero for primitives), so no values are left over from the previous record.
+     * @param result The <code>ResultSet</code> to read the values from.
+     * @param target The object to insert the values into.
+     * @return The target object.
+     * @throws PersistenceException If moving any of the values fails.
+     */
+    public Object refresh(ResultSet result, Object target) throws PersistenceException {
+        try {
+            for(int i=0; i<setterMappings.length; i++){
+                setterMappings[i].insertValueIntoObject(target, result, columnIndexes[i]);
+                if(result.wasNull()){
+                    setterMappings[i].resetValueInObject(target);
+                }
+            }
+            return target;
+        } catch (SQLException e) {
+            throw new PersistenceException("Error refreshing object from ResultSet", e);
+        }
+    }
+
+    /**
+     * Returns the primary key value of the record the <code>ResultSet</code> is currently positioned at.
+     * The key value has the same columns as those returned by the object mapping's
+     * <code>getPrimaryKeyValueForObject(...)</code>, so the two can be compared.
+     * @param result The <code>ResultSet</code> to read the primary key value from.
+     * @return The primary key value of the record, or null if the object mapping has no primary key,
+     *         or not all primary key columns are present in the <code>ResultSet</code>.
+     * @throws PersistenceException If reading the primary key value fails.
+     */
+    public IKeyValue getPrimaryKeyValue(ResultSet result) throws PersistenceException {
+        if(this.primaryKeyColumns == null) return null;
+        IKeyValue keyValue = new KeyValue();
+        for(int i=0; i<this.primaryKeyColumns.length; i++){
+            keyValue.addColumnValue(this.primaryKeyColumns[i],
+                    this.primaryKeySetterMappings[i].getValueFromResultSet(result, this.primaryKeyColumnIndexes[i]));
+        }
+        return keyValue;
+    }
+
+    /**
+     * Returns true if existing objects can be refreshed with the values of a record, via
+     * <code>refresh(ResultSet, Object)</code>. This is not the case if the objects are
+     * created via a constructor mapping, since the constructor arguments cannot be changed afterwards.
+     * @return True if existing objects can be refreshed, false if not.
+     */
+    public boolean isRefreshable() {
+        return this.constructorMapping == null;
+    }
+
+    /**
+     * Returns true if the records read by this plan can be kept as arrays of column values,
+     * and turned into objects later by <code>newInstance(Object[])</code>. This is the case if
+     * objects are created by their no-argument constructor, and no setter mapping reads
+     * a stream, LOB, array or reference, which are only valid while the <code>ResultSet</code> is open.
+     * @return True if the records can be read as column values. False if not.
+     */
+    public boolean isValuesReadable() {
+        if(this.constructorMapping != null || this.resultSetConstructor != null || this.noArgumentConstructor == null){
+            return false;
+        }
+        for(int i=0; i<this.setterMappings.length; i++){
+            ISetterMapping setterMapping = this.setterMappings[i];
+            if(setterMapping instanceof AsciiStreamSetterMapping     || setterMapping instanceof BinaryStreamSetterMapping
+            || setterMapping instanceof CharacterStreamSetterMapping || setterMapping instanceof BlobSetterMapping
+            || setterMapping instanceof ClobSetterMapping            || setterMapping instanceof ArraySetterMapping
+            || setterMapping instanceof RefSetterMapping             || setterMapping instanceof LazyBinaryStreamSetterMapping
+            || setterMapping instanceof LazyCharacterStreamSetterMapping){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the values of the record the <code>ResultSet</code> is currently positioned at, in the
+     * sequence of the setter mappings of this plan. NULL values are returned as null.
+     * @param result The <code>ResultSet</code> to read the values from.
+     * @return The values of the record.
+     * @throws PersistenceException If reading any of the values fails.
+     */
+    public Object[] readValues(ResultSet result) throws PersistenceException {
+        try {
+            Object[] values = new Object[this.setterMappings.length];
+            for(int i=0; i<this.setterMappings.length; i++){
+                values[i] = this.setterMappings[i].getValueFromResultSet(result, this.columnIndexes[i]);
+                if(result.wasNull()) values[i] = null;
+            }
+            return values;
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading values from ResultSet", e);
+        }
+    }
+
+    /**
+     * Creates a new object from values read by <code>readValues(ResultSet)</code>.
+     * Only valid if <code>isValuesReadable()</code> returns true.
+     * @param values The values to insert into the new object.
+     * @return The new object.
+     * @throws PersistenceException If creating the object or inserting the values fails.
+     */
+    public Object newInstance(Object[] values) throws PersistenceException {
+        Object target = null;
+        try {
+            target = this.noArgumentConstructor.newInstance(new Object[0]);
+        } catch (InstantiationException e) {
+            throw new PersistenceException("Error occurred when trying to create instance of class " +
+                    this.mapping.getObjectClass().getName(), e);
+        } catch (IllegalAccessException e) {
+            throw new PersistenceException("Error occurred when trying to create instance of class " +
+                    this.mapping.getObjectClass().getName(), e);
+        } catch (InvocationTargetException e) {
+            throw new PersistenceException("Error occurred when trying to create instance of class " +
+                    this.mapping.getObjectClass().getName(), e);
+        }
+        for(int i=0; i<this.setterMappings.length; i++){
+            this.setterMappings[i].setValueInObject(target, values[i]);
+        }
+        return target;
+    }
+
+    /**
+     * Reads the column names of the given <code>ResultSet</code> in column order.
+     * @param result The <code>ResultSet</code> to read the column names of.
+     * @return The column names of the <code>ResultSet</code>.
+     * @throws SQLException If reading the <code>ResultSetMetaData</code> fails.
+     */
+    public static String[] getColumnNames(ResultSet result) throws SQLException {
+        ResultSetMetaData metaData = result.getMetaData();
+        String[] columnNames = new String[metaData.getColumnCount()];
+        for(int i=0; i<columnNames.length; i++){
+            columnNames[i] = metaData.getColumnName(i + 1);
+        }
+        return columnNames;
+    }
+
+}
@@ -0,0 +1,398 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.ICloseableList;
+import com.jenkov.db.itf.PersistenceException;
+import com.jenkov.db.itf.PersistenceExceptionUnchecked;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only list of objects read from a <code>ResultSet</code>, which keeps only the first objects
+ * on the heap. Records beyond the spill threshold are written to a temporary file as their column values,
+ * in a compact binary row format, and are turned into objects again when accessed, by mapping the file
+ * into memory. The most recently accessed spilled objects are cached, so iterating the list does not
+ * create an object more than once per access.
+ *
+ * <br/><br/>
+ * Objects obtained from the spilled part of the list are new objects each time they are paged
+ * back in, so changes made to them are lost once they are evicted from the cache. Call <code>close()</code>
+ * to release the memory mappings and delete the temporary file when the list is no longer needed.
+ * Otherwise the file is only deleted, on a best effort basis, when the JVM exits.
+ *
+ * <br/><br/>
+ * Once read, the list can be accessed by several threads, since <code>get()</code> and <code>close()</code>
+ * are synchronized.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class SpillingList extends AbstractList implements ICloseableList {
+
+    protected static final int  CACHE_SIZE   = 256;
+    protected static final long SEGMENT_SIZE = 256L * 1024 * 1024;
+    protected static final int  WRITE_BUFFER_SIZE = 1024 * 1024;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte NULL        = 0;
+    private static final byte STRING      = 1;
+    private static final byte INTEGER     = 2;
+    private static final byte LONG        = 3;
+    private static final byte DOUBLE      = 4;
+    private static final byte FLOAT       = 5;
+    private static final byte SHORT       = 6;
+    private static final byte BYTE        = 7;
+    private static final byte BOOLEAN     = 8;
+    private static final byte BIG_DECIMAL = 9;
+    private static final byte TIMESTAMP   = 10;
+    private static final byte SQL_DATE    = 11;
+    private static final byte TIME        = 12;
+    private static final byte DATE        = 13;
+    private static final byte BYTES       = 14;
+    private static final byte SERIALIZED  = 15;
+
+    protected RowPlan     plan          = null;
+    protected int         spillThreshold = 0;
+    protected List        objects       = new ArrayList();
+
+    protected File        file          = null;
+    protected FileChannel channel       = null;
+    protected ByteBuffer  writeBuffer   = null;
+    protected long        fileSize      = 0;
+    protected long        writtenSize   = 0;
+
+    protected long[]      rowOffsets    = new long[1024];
+    protected int         spilledRows   = 0;
+    protected long[]      segmentStarts = new long[]{0};
+    protected int         segmentCount  = 1;
+    protected MappedByteBuffer[] segments = new MappedByteBuffer[1];
+
+    protected ByteArrayOutputStream rowBytes  = new ByteArrayOutputStream();
+    protected DataOutputStream      rowOutput = new DataOutputStream(rowBytes);
+
+    protected Map cache = new LinkedHashMap(CACHE_SIZE, 0.75f, true){
+        protected boolean removeEldestEntry(Map.Entry eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Creates a spilling list for objects read by the given row plan.
+     * The row plan must be values readable (see <code>RowPlan.isValuesReadable()</code>).
+     * @param plan The row plan the objects are read by.
+     * @param spillThreshold The number of objects kept on the heap before records are spilled to disk.
+     */
+    public SpillingList(RowPlan plan, int spillThreshold) {
+        this.plan           = plan;
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * Returns true if the next record added must be added via <code>addValues(...)</code>
+     * rather than <code>addObject(...)</code>.
+     */
+    public boolean isSpilling() {
+        return this.objects.size() >= this.spillThreshold;
+    }
+
+    public void addObject(Object object) {
+        this.objects.add(object);
+    }
+
+    /**
+     * Appends the values of a record, as read by <code>RowPlan.readValues(...)</code>, to the temporary file.
+     * @param values The values of the record to spill.
+     * @throws PersistenceException If writing to the temporary file fails, or a value cannot be written.
+     */
+    public void addValues(Object[] values) throws PersistenceException {
+        try {
+            if(this.channel == null) openFile();
+
+            this.rowBytes.reset();
+            for(int i=0; i<values.length; i++){
+                writeValue(values[i]);
+            }
+            this.rowOutput.flush();
+            int rowSize = this.rowBytes.size();
+
+            if(this.fileSize > this.segmentStarts[this.segmentCount - 1]
+                    && this.fileSize + rowSize - this.segmentStarts[this.segmentCount - 1] > SEGMENT_SIZE){
+                addSegment(this.fileSize);
+            }
+            if(this.spilledRows == this.rowOffsets.length){
+                this.rowOffsets = Arrays.copyOf(this.rowOffsets, this.rowOffsets.length * 2);
+            }
+            this.rowOffsets[this.spilledRows++] = this.fileSize;
+
+            if(rowSize > this.writeBuffer.remaining()) flush();
+            if(rowSize > this.writeBuffer.capacity()){
+                this.channel.write(ByteBuffer.wrap(this.rowBytes.toByteArray()), this.writtenSize);
+                this.writtenSize += rowSize;
+            } else {
+                this.writeBuffer.put(this.rowBytes.toByteArray());
+            }
+            this.fileSize += rowSize;
+        } catch (IOException e) {
+            throw new PersistenceException("Error spilling record to temporary file " + this.file, e);
+        }
+    }
+
+    public synchronized Object get(int index) {
+        if(index < this.objects.size()) return this.objects.get(index);
+        int row = index - this.objects.size();
+        if(row >= this.spilledRows){
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        Integer key = Integer.valueOf(row);
+        Object object = this.cache.get(key);
+        if(object == null){
+            try {
+                object = this.plan.newInstance(readValues(row));
+            } catch (PersistenceException e) {
+                throw new PersistenceExceptionUnchecked(e);
+            }
+            this.cache.put(key, object);
+        }
+        return object;
+    }
+
+    public int size() {
+        return this.objects.size() + this.spilledRows;
+    }
+
+    /**
+     * Returns the objects kept on the heap, meaning the objects before the spill threshold.
+     */
+    public List getHeapObjects() {
+        return this.objects;
+    }
+
+    /**
+     * Returns the number of records spilled to the temporary file.
+     */
+    public int getSpilledSize() {
+        return this.spilledRows;
+    }
+
+    /**
+     * Releases the memory mappings of the temporary file, and closes and deletes it.
+     * The spilled objects cannot be accessed afterwards.
+     * @throws PersistenceException If closing the temporary file fails.
+     */
+    public synchronized void close() throws PersistenceException {
+        if(this.channel == null) return;
+        try {
+            for(int i=0; i<this.segmentCount; i++){
+                if(this.segments[i] != null) unmap(this.segments[i]);
+            }
+            this.channel.close();
+        } catch (IOException e) {
+            throw new PersistenceException("Error closing temporary file " + this.file, e);
+        } finally {
+            this.channel  = null;
+            this.segments = new MappedByteBuffer[this.segments.length];
+            this.cache.clear();
+            this.file.delete();
+        }
+    }
+
+    /**
+     * Releases the memory mapping of the given buffer right away, rather than when the buffer is garbage
+     * collected. The buffer must not be accessed afterwards. If the JVM does not allow the mapping to
+     * be released explicitly, it is released when the buffer is garbage collected.
+     */
+    protected static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", new Class[]{ByteBuffer.class});
+                Field  theUnsafe     = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), new Object[]{buffer});
+            } catch (NoSuchMethodException e) {
+                //Java 8 and earlier have no Unsafe.invokeCleaner(), but expose the cleaner of the buffer.
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner", new Class[0]);
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer, new Object[0]);
+                if(cleaner != null) cleaner.getClass().getMethod("clean", new Class[0]).invoke(cleaner, new Object[0]);
+            }
+        } catch (Exception e) {
+            //ignore, the mapping is released when the buffer is garbage collected.
+        }
+    }
+
+    protected void openFile() throws IOException {
+        this.file = File.createTempFile("butterfly-spill", ".rows");
+        this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE);
+        this.writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    }
+
+    protected void addSegment(long start) {
+        if(this.segmentCount == this.segmentStarts.length){
+            this.segmentStarts = Arrays.copyOf(this.segmentStarts, this.segmentCount * 2);
+            this.segments      = Arrays.copyOf(this.segments, this.segmentCount * 2);
+        }
+        this.segmentStarts[this.segmentCount++] = start;
+    }
+
+    protected void flush() throws IOException {
+        this.writeBuffer.flip();
+        while(this.writeBuffer.hasRemaining()){
+            this.writtenSize += this.channel.write(this.writeBuffer, this.writtenSize);
+        }
+        this.writeBuffer.clear();
+    }
+
+    protected Object[] readValues(int row) throws PersistenceException {
+        if(this.channel == null){
+            throw new PersistenceException("The temporary file of the list is closed");
+        }
+        try {
+            if(this.writeBuffer.position() > 0) flush();
+
+            long offset  = this.rowOffsets[row];
+            int  segment = Arrays.binarySearch(this.segmentStarts, 0, this.segmentCount, offset);
+            if(segment < 0) segment = -segment - 2;
+
+            long segmentStart = this.segmentStarts[segment];
+            long segmentEnd   = segment + 1 < this.segmentCount ? this.segmentStarts[segment + 1] : this.fileSize;
+            if(this.segments[segment] == null || this.segments[segment].capacity() < segmentEnd - segmentStart){
+                if(this.segments[segment] != null) unmap(this.segments[segment]);
+                this.segments[segment] = this.channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, segmentEnd - segmentStart);
+            }
+
+            ByteBuffer buffer = this.segments[segment].duplicate();
+            buffer.position((int) (offset - segmentStart));
+            Object[] values = new Object[this.plan.setterMappings.length];
+            for(int i=0; i<values.length; i++){
+                values[i] = readValue(buffer);
+            }
+            return values;
+        } catch (IOException e) {
+            throw new PersistenceException("Error reading spilled record from temporary file " + this.file, e);
+        } catch (ClassNotFoundException e) {
+            throw new PersistenceException("Error reading spilled record from temporary file " + this.file, e);
+        }
+    }
+
+    protected void writeValue(Object value) throws IOException, PersistenceException {
+        DataOutputStream output = this.rowOutput;
+        if(value == null)                      { output.writeByte(NULL); }
+        else if(value instanceof String)       { output.writeByte(STRING); writeBytes(((String) value).getBytes(UTF_8)); }
+        else if(value instanceof Integer)      { output.writeByte(INTEGER); output.writeInt(((Integer) value).intValue()); }
+        else if(value instanceof Long)         { output.writeByte(LONG);    output.writeLong(((Long) value).longValue()); }
+        else if(value instanceof Double)       { output.writeByte(DOUBLE);  output.writeDouble(((Double) value).doubleValue()); }
+        else if(value instanceof Float)        { output.writeByte(FLOAT);   output.writeFloat(((Float) value).floatValue()); }
+        else if(value instanceof Short)        { output.writeByte(SHORT);   output.writeShort(((Short) value).shortValue()); }
+        else if(value instanceof Byte)         { output.writeByte(BYTE);    output.writeByte(((Byte) value).byteValue()); }
+        else if(value instanceof Boolean)      { output.writeByte(BOOLEAN); output.writeBoolean(((Boolean) value).booleanValue()); }
+        else if(value instanceof BigDecimal)   {
+            output.writeByte(BIG_DECIMAL);
+            output.writeInt(((BigDecimal) value).scale());
+            writeBytes(((BigDecimal) value).unscaledValue().toByteArray());
+        }
+        else if(value instanceof Timestamp)    {
+            output.writeByte(TIMESTAMP);
+            output.writeLong(((Timestamp) value).getTime());
+            output.writeInt(((Timestamp) value).getNanos());
+        }
+        else if(value instanceof java.sql.Date){ output.writeByte(SQL_DATE); output.writeLong(((java.sql.Date) value).getTime()); }
+        else if(value instanceof Time)         { output.writeByte(TIME);     output.writeLong(((Time) value).getTime()); }
+        else if(value.getClass() == java.util.Date.class){ output.writeByte(DATE); output.writeLong(((java.util.Date) value).getTime()); }
+        else if(value instanceof byte[])       { output.writeByte(BYTES);    writeBytes((byte[]) value); }
+        else if(value instanceof Serializable) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream objectOutput = new ObjectOutputStream(bytes);
+            objectOutput.writeObject(value);
+            objectOutput.close();
+            output.writeByte(SERIALIZED);
+            writeBytes(bytes.toByteArray());
+        }
+        else {
+            throw new PersistenceException("Cannot spill value of type " + value.getClass().getName()
+                    + " to temporary file. The type is not serializable.");
+        }
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        this.rowOutput.writeInt(bytes.length);
+        this.rowOutput.write(bytes);
+    }
+
+    protected Object readValue(ByteBuffer buffer) throws IOException, ClassNotFoundException {
+        byte type = buffer.get();
+        switch(type){
+            case NULL        : return null;
+            case STRING      : return new String(readBytes(buffer), UTF_8);
+            case INTEGER     : return Integer.valueOf(buffer.getInt());
+            case LONG        : return Long.valueOf(buffer.getLong());
+            case DOUBLE      : return Double.valueOf(buffer.getDouble());
+            case FLOAT       : return Float.valueOf(buffer.getFloat());
+            case SHORT       : return Short.valueOf(buffer.getShort());
+            case BYTE        : return Byte.valueOf(buffer.get());
+            case BOOLEAN     : return Boolean.valueOf(buffer.get() != 0);
+            case BIG_DECIMAL : int scale = buffer.getInt(); return new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+            case TIMESTAMP   : Timestamp timestamp = new Timestamp(buffer.getLong()); timestamp.setNanos(buffer.getInt()); return timestamp;
+            case SQL_DATE    : return new java.sql.Date(buffer.getLong());
+            case TIME        : return new Time(buffer.getLong());
+            case DATE        : return new java.util.Date(buffer.getLong());
+            case BYTES       : return readBytes(buffer);
+            case SERIALIZED  :
+                ObjectInputStream objectInput = new ObjectInputStream(new ByteArrayInputStream(readBytes(buffer)));
+                try {
+                    return objectInput.readObject();
+                } finally {
+                    objectInput.close();
+                }
+            default : throw new IOException("Unknown value type " + type + " in spilled record");
+        }
+    }
+
+    private byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -19,12 +19,14 @@
 package com.jenkov.db.impl;
 
 import com.jenkov.db.itf.mapping.IObjectMapping;
+import com.jenkov.db.itf.mapping.IKey;
 import com.jenkov.db.itf.mapping.IMethodMapping;
 import com.jenkov.db.itf.mapping.IGetterMapping;
 import com.jenkov.db.itf.mapping.IVersioningMapping;
 import com.jenkov.db.itf.ISqlGenerator;
 import com.jenkov.db.itf.PersistenceException;
 
+import java.util.Collection;
 import java.util.Iterator;
 
 /**
@@ -145,6 +147,210 @@ public class SqlGenerator implements ISqlGenerator{
         }
     }
 
+    public String generateReadListByPrimaryKeysInStatement(IObjectMapping mapping, int primaryKeyCount,
+                                                           boolean rowValueInSupported) throws PersistenceException {
+        return generateReadListByPrimaryKeysInStatement(mapping, null, primaryKeyCount, rowValueInSupported);
+    }
+
+    public String generateReadListByPrimaryKeysInStatement(IObjectMapping mapping, Collection columns, int primaryKeyCount,
+                                                           boolean rowValueInSupported) throws PersistenceException {
+        int columnCount = mapping.getPrimaryKey().getColumns().size();
+        if(columnCount > 1 && !rowValueInSupported && columns == null){
+            return generateReadListByPrimaryKeysStatement(mapping, primaryKeyCount);
+        }
+        if(primaryKeyCount <= 0){
+            throw new PersistenceException("The primary key count was " + primaryKeyCount
+                    + ". A sensible SQL statement cannot be generated unless the primary key count is at least 1 ");
+        }
+        validateObjectMapping(mapping);
+
+        StringBuffer buffer = new StringBuffer();
+        buffer.append("select ");
+        appendColumns(buffer, mapping.getSetterMappings().iterator(), columns, mapping.getPrimaryKey().getColumns());
+        buffer.append(" from ");
+        buffer.append(mapping.getTableName());
+        buffer.append(" where ");
+        if(columnCount > 1 && !rowValueInSupported){
+            insertPrimaryKeys(buffer, mapping, primaryKeyCount);
+            return buffer.toString();
+        }
+
+        StringBuffer keyParameters = new StringBuffer();
+        if(columnCount > 1) { buffer.append("("); keyParameters.append("("); }
+        Iterator iterator = mapping.getPrimaryKey().getColumns().iterator();
+        while(iterator.hasNext()){
+            buffer.append((String) iterator.next());
+            keyParameters.append("?");
+            if(iterator.hasNext()){
+                buffer.append(", ");
+                keyParameters.append(", ");
+            }
+        }
+        if(columnCount > 1) { buffer.append(")"); keyParameters.append(")"); }
+
+        buffer.append(" in (");
+        for(int i=0; i<primaryKeyCount; i++){
+            buffer.append(keyParameters);
+            if(i < primaryKeyCount-1){
+                buffer.append(", ");
+            }
+        }
+        buffer.append(")");
+        return buffer.toString();
+    }
+
+    public String generateReadListByColumnInStatement(IObjectMapping mapping, String column, int valueCount)
+    throws PersistenceException {
+        if(valueCount <= 0){
+            throw new PersistenceException("The value count was " + valueCount
+                    + ". A sensible SQL statement cannot be generated unless the value count is at least 1 ");
+        }
+        validateObjectMapping(mapping);
+
+        StringBuffer buffer = new StringBuffer();
+        buffer.append("select ");
+        appendColumns(buffer, mapping.getSetterMappings().iterator(), null, null);
+        if(mapping.getSetterMapping(column) == null){
+            buffer.append(", ");
+            buffer.append(column);
+        }
+        buffer.append(" from ");
+        buffer.append(mapping.getTableName());
+        buffer.append(" where ");
+        buffer.append(column);
+        buffer.append(" in (");
+        for(int i=0; i<valueCount; i++){
+            buffer.append("?");
+            if(i < valueCount-1){
+                buffer.append(", ");
+            }
+        }
+        buffer.append(")");
+        return buffer.toString();
+    }
+
+    public String generateReadListByColumnArrayStatement(IObjectMapping mapping, Collection columns, String column,
+                                                         String arrayInClause) throws PersistenceException {
+        return generateReadListByColumnStatement(mapping, columns, column, arrayInClause);
+    }
+
+    public String generateReadListByColumnInTableStatement(IObjectMapping mapping, Collection columns, String column,
+                                                           String keyTable, String keyColumn) throws PersistenceException {
+        return generateReadListByColumnStatement(mapping, columns, column, " in (select " + keyColumn + " from " + keyTable + ")");
+    }
+
+    private String generateReadListByColumnStatement(IObjectMapping mapping, Collection columns, String column,
+                                                     String inClause) throws PersistenceException {
+        validateObjectMapping(mapping);
+
+        Collection keyColumns = mapping.getPrimaryKey().getColumns();
+        StringBuffer buffer = new StringBuffer();
+        buffer.append("select ");
+        appendColumns(buffer, mapping.getSetterMappings().iterator(), columns, keyColumns);
+        boolean selected = mapping.getSetterMapping(column) != null
+                && (columns == null || containsColumn(columns, column) || containsColumn(keyColumns, column));
+        if(!selected){
+            buffer.append(", ");
+            buffer.append(column);
+        }
+        buffer.append(" from ");
+        buffer.append(mapping.getTableName());
+        buffer.append(" where ");
+        buffer.append(column);
+        buffer.append(inClause);
+        return buffer.toString();
+    }
+
+    public String generateReadListAfterKeyStatement(IObjectMapping mapping, IKey orderBy, boolean afterKey,
+                                                    boolean rowValueComparisonSupported) throws PersistenceException {
+        validateObjectMapping(mapping);
+        if(orderBy == null || orderBy.size() < 1){
+            throw new PersistenceException("The key to order by contains no columns. " +
+                    "A sensible SQL statement cannot be generated without columns to order by.");
+        }
+        String[] columns = (String[]) orderBy.getColumns().toArray(new String[orderBy.size()]);
+
+        StringBuffer buffer = new StringBuffer();
+        buffer.append("select ");
+        appendColumns(buffer, mapping.getSetterMappings().iterator(), null, null);
+        buffer.append(" from ");
+        buffer.append(mapping.getTableName());
+
+        if(afterKey){
+            buffer.append(" where ");
+            if(columns.length == 1){
+                buffer.append(columns[0]);
+                buffer.append(" > ?");
+            } else if(rowValueComparisonSupported){
+                buffer.append("(");
+                appendColumnList(buffer, columns, columns.length);
+                buffer.append(") > (");
+                for(int i=0; i<columns.length; i++){
+                    if(i > 0) buffer.append(", ");
+                    buffer.append("?");
+                }
+                buffer.append(")");
+            } else {
+                buffer.append(columns[0]);
+                buffer.append(" >= ? and (");
+                for(int i=0; i<columns.length; i++){
+                    if(i > 0) buffer.append(" or ");
+                    buffer.append("(");
+                    for(int j=0; j<i; j++){
+                        buffer.append(columns[j]);
+                        buffer.append(" = ? and ");
+                    }
+                    buffer.append(columns[i]);
+                    buffer.append(" > ?)");
+                }
+                buffer.append(")");
+            }
+        }
+
+        buffer.append(" order by ");
+        appendColumnList(buffer, columns, columns.length);
+        return buffer.toString();
+    }
+
+    private void appendColumnList(StringBuffer buffer, String[] columns, int count) {
+        for(int i=0; i<count; i++){
+            if(i > 0) buffer.append(", ");
+            buffer.append(columns[i]);
+        }
+    }
+
+    /**
+     * Appends the table mapped columns of the method mappings. If columns is not null, only the
+     * columns found in either columns or keyColumns (ignoring case) are appended.
+     */
+    private void appendColumns(StringBuffer buffer, Iterator methodMappings, Collection columns, Collection keyColumns) {
+        boolean first = true;
+        while(methodMappings.hasNext()){
+            IMethodMapping fieldMapping = (IMethodMapping) methodMappings.next();
+            if(fieldMapping.isTableMapped() && (columns == null
+                    || containsColumn(columns, fieldMapping.getColumnName())
+                    || containsColumn(keyColumns, fieldMapping.getColumnName()))){
+                if(!first) buffer.append(", ");
+                first = false;
+                if(startsWithNumber(fieldMapping.getColumnName())){
+                    buffer.append("\"");
+                    buffer.append(fieldMapping.getColumnName());
+                    buffer.append("\"");
+                } else {
+                    buffer.append(fieldMapping.getColumnName());
+                }
+            }
+        }
+    }
+
+    private boolean containsColumn(Collection columns, String column) {
+        Iterator iterator = columns.iterator();
+        while(iterator.hasNext()){
+            if(column.equalsIgnoreCase((String) iterator.next())) return true;
+        }
+        return false;
+    }
+
     public String generateInsertStatement(IObjectMapping mapping)  throws PersistenceException{
         validateObjectMapping(mapping);
         StringBuffer buffer = new StringBuffer();
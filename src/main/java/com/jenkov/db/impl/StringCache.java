@@ -0,0 +1,84 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl;
+
+/**
+ * A bounded cache used to deduplicate <code>String</code> values read from the database. Columns with
+ * few distinct values (status codes, country codes, type names etc.) otherwise result in a new
+ * <code>String</code> instance per record read. When a string equal to a cached string is read,
+ * the cached instance is used instead, so the read objects share the same <code>String</code> instances.
+ * The cache is safe to use from multiple threads.
+ *
+ * <br/><br/>
+ * Strings longer than the maximum string length are not cached, since such columns rarely
+ * have few distinct values. When the cache is full, an arbitrary string is evicted to make
+ * room for a new one.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class StringCache {
+
+    public static final int DEFAULT_MAX_SIZE          = 1024;
+    public static final int DEFAULT_MAX_STRING_LENGTH = 64;
+
+    protected BoundedCache strings         = null;
+    protected int          maxStringLength = DEFAULT_MAX_STRING_LENGTH;
+
+    public StringCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public StringCache(int maxSize) {
+        this(maxSize, DEFAULT_MAX_STRING_LENGTH);
+    }
+
+    public StringCache(int maxSize, int maxStringLength) {
+        this.strings         = new BoundedCache(maxSize);
+        this.maxStringLength = maxStringLength;
+    }
+
+    /**
+     * Returns the cached <code>String</code> instance equal to the given string, if any.
+     * Otherwise the given string is cached (unless it is too long) and returned.
+     * @param string The string to deduplicate. May be null.
+     * @return The cached string equal to the given string, or the given string itself.
+     */
+    public String deduplicate(String string) {
+        if(string == null || string.length() > this.maxStringLength) return string;
+
+        String cached = (String) this.strings.get(string);
+        if(cached != null) return cached;
+        return (String) this.strings.putIfAbsent(string, string);
+    }
+
+    public int size() {
+        return this.strings.size();
+    }
+
+    public int getMaxSize() {
+        return this.strings.getMaxSize();
+    }
+
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+    public void clear() {
+        this.strings.clear();
+    }
+}
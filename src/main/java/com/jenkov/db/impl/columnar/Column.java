@@ -0,0 +1,120 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl.columnar;
+
+import com.jenkov.db.itf.IColumn;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * The base class of the columns read by the <code>ColumnarDao</code>. Keeps the name, SQL type,
+ * size and null bitmap of the column. Subclasses keep the values in an array of a suitable type,
+ * and grow it as records are read.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public abstract class Column implements IColumn {
+
+    protected static final int INITIAL_CAPACITY = 1024;
+
+    protected String name    = null;
+    protected int    sqlType = 0;
+    protected int    size    = 0;
+    protected long[] nulls   = new long[INITIAL_CAPACITY / 64];
+
+    protected Column(String name, int sqlType) {
+        this.name    = name;
+        this.sqlType = sqlType;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSqlType() {
+        return sqlType;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the null bitmap of this column. Bit <code>row % 64</code> of element <code>row / 64</code>
+     * is set if the value at that row is null. The array may be longer than needed for the size of the column.
+     */
+    public long[] getNulls() {
+        return nulls;
+    }
+
+    public boolean isNull(int row) {
+        return (this.nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Reads the value of this column from the record the <code>ResultSet</code> is positioned at,
+     * and appends it to this column.
+     * @param result The <code>ResultSet</code> to read the value from.
+     * @param columnIndex The index of this column in the <code>ResultSet</code>.
+     * @throws SQLException If reading the value fails.
+     */
+    public void read(ResultSet result, int columnIndex) throws SQLException {
+        if(this.size == capacity()){
+            grow(Math.max(INITIAL_CAPACITY, this.size * 2));
+        }
+        if(this.size >>> 6 >= this.nulls.length){
+            this.nulls = Arrays.copyOf(this.nulls, this.nulls.length * 2);
+        }
+        if(readValue(result, columnIndex, this.size)){
+            this.nulls[this.size >>> 6] |= 1L << this.size;
+        }
+        this.size++;
+    }
+
+    /**
+     * Reads the value from the <code>ResultSet</code> into the given row of the value array.
+     * @return True if the value was null.
+     */
+    protected abstract boolean readValue(ResultSet result, int columnIndex, int row) throws SQLException;
+
+    protected abstract int capacity();
+
+    protected abstract void grow(int capacity);
+
+    public long getLong(int row) {
+        Object value = getObject(row);
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    public int getInt(int row) {
+        Object value = getObject(row);
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    public double getDouble(int row) {
+        Object value = getObject(row);
+        return value != null ? ((Number) value).doubleValue() : 0;
+    }
+
+    public String getString(int row) {
+        Object value = getObject(row);
+        return value != null ? value.toString() : null;
+    }
+}
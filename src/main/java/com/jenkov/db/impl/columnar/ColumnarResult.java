@@ -0,0 +1,99 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl.columnar;
+
+import com.jenkov.db.itf.IColumn;
+import com.jenkov.db.itf.IColumnarResult;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * The default implementation of the <code>IColumnarResult</code> interface. The type of each column
+ * is chosen from the SQL type of the column: <code>BIGINT</code> columns are read into a
+ * <code>LongColumn</code>, <code>INTEGER</code>, <code>SMALLINT</code> and <code>TINYINT</code> columns into an
+ * <code>IntColumn</code>, <code>DOUBLE</code>, <code>FLOAT</code> and <code>REAL</code> columns into a
+ * <code>DoubleColumn</code>, character columns into a <code>StringColumn</code>, and all other columns
+ * into an <code>ObjectColumn</code>.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ColumnarResult implements IColumnarResult {
+
+    protected Column[] columns  = null;
+    protected int      rowCount = 0;
+
+    public ColumnarResult(ResultSetMetaData metaData) throws SQLException {
+        this.columns = new Column[metaData.getColumnCount()];
+        for(int i=0; i<this.columns.length; i++){
+            this.columns[i] = createColumn(metaData.getColumnName(i + 1), metaData.getColumnType(i + 1));
+        }
+    }
+
+    protected Column createColumn(String name, int sqlType) {
+        switch(sqlType){
+            case Types.BIGINT   : return new LongColumn  (name, sqlType);
+            case Types.INTEGER  :
+            case Types.SMALLINT :
+            case Types.TINYINT  : return new IntColumn   (name, sqlType);
+            case Types.DOUBLE   :
+            case Types.FLOAT    :
+            case Types.REAL     : return new DoubleColumn(name, sqlType);
+            case Types.CHAR     :
+            case Types.VARCHAR  :
+            case Types.LONGVARCHAR :
+            case Types.NCHAR    :
+            case Types.NVARCHAR :
+            case Types.LONGNVARCHAR: return new StringColumn(name, sqlType);
+            default             : return new ObjectColumn(name, sqlType);
+        }
+    }
+
+    /**
+     * Appends the values of the record the <code>ResultSet</code> is positioned at to the columns.
+     * @param result The <code>ResultSet</code> to read the record from.
+     * @throws SQLException If reading the values fails.
+     */
+    public void readRow(ResultSet result) throws SQLException {
+        for(int i=0; i<this.columns.length; i++){
+            this.columns[i].read(result, i + 1);
+        }
+        this.rowCount++;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return this.columns.length;
+    }
+
+    public IColumn getColumn(int index) {
+        return this.columns[index];
+    }
+
+    public IColumn getColumn(String name) {
+        for(int i=0; i<this.columns.length; i++){
+            if(this.columns[i].getName().equalsIgnoreCase(name)) return this.columns[i];
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * A column of <code>long</code> values, read using <code>ResultSet.getLong()</code>.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class LongColumn extends Column {
+
+    protected long[] values = new long[INITIAL_CAPACITY];
+
+    public LongColumn(String name, int sqlType) {
+        super(name, sqlType);
+    }
+
+    /**
+     * Returns the array holding the values of this column. The array may be longer than the size
+     * of the column. Null values are stored as 0.
+     */
+    public long[] getValues() {
+        return values;
+    }
+
+    protected boolean readValue(ResultSet result, int columnIndex, int row) throws SQLException {
+        this.values[row] = result.getLong(columnIndex);
+        return result.wasNull();
+    }
+
+    protected int capacity() {
+        return this.values.length;
+    }
+
+    protected void grow(int capacity) {
+        this.values = Arrays.copyOf(this.values, capacity);
+    }
+
+    public long getLong(int row) {
+        return this.values[row];
+    }
+
+    public int getInt(int row) {
+        return (int) this.values[row];
+    }
+
+    public double getDouble(int row) {
+        return this.values[row];
+    }
+
+    public Object getObject(int row) {
+        return isNull(row) ? null : Long.valueOf(this.values[row]);
+    }
+}
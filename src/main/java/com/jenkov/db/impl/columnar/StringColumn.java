@@ -0,0 +1,113 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl.columnar;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A dictionary encoded column of <code>String</code> values. Each distinct string is kept once
+ * in the dictionary, and each row holds the code (index in the dictionary) of its value,
+ * or -1 if the value is null.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class StringColumn extends Column {
+
+    protected int[]    codes      = new int[INITIAL_CAPACITY];
+    protected String[] dictionary = new String[16];
+    protected int      dictionarySize = 0;
+    protected Map      dictionaryCodes = new HashMap();
+
+    public StringColumn(String name, int sqlType) {
+        super(name, sqlType);
+    }
+
+    /**
+     * Returns the array holding the dictionary codes of this column. The array may be longer
+     * than the size of the column. Null values have code -1.
+     */
+    public int[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * Returns the dictionary of this column. The array may be longer than the dictionary size.
+     */
+    public String[] getDictionary() {
+        return dictionary;
+    }
+
+    public int getDictionarySize() {
+        return dictionarySize;
+    }
+
+    protected boolean readValue(ResultSet result, int columnIndex, int row) throws SQLException {
+        String value = result.getString(columnIndex);
+        if(value == null){
+            this.codes[row] = -1;
+            return true;
+        }
+        Integer code = (Integer) this.dictionaryCodes.get(value);
+        if(code == null){
+            if(this.dictionarySize == this.dictionary.length){
+                this.dictionary = Arrays.copyOf(this.dictionary, this.dictionarySize * 2);
+            }
+            code = Integer.valueOf(this.dictionarySize);
+            this.dictionary[this.dictionarySize++] = value;
+            this.dictionaryCodes.put(value, code);
+        }
+        this.codes[row] = code.intValue();
+        return false;
+    }
+
+    protected int capacity() {
+        return this.codes.length;
+    }
+
+    protected void grow(int capacity) {
+        this.codes = Arrays.copyOf(this.codes, capacity);
+    }
+
+    public String getString(int row) {
+        int code = this.codes[row];
+        return code == -1 ? null : this.dictionary[code];
+    }
+
+    public Object getObject(int row) {
+        return getString(row);
+    }
+
+    public long getLong(int row) {
+        String value = getString(row);
+        return value != null ? Long.parseLong(value.trim()) : 0;
+    }
+
+    public int getInt(int row) {
+        String value = getString(row);
+        return value != null ? Integer.parseInt(value.trim()) : 0;
+    }
+
+    public double getDouble(int row) {
+        String value = getString(row);
+        return value != null ? Double.parseDouble(value.trim()) : 0;
+    }
+}
@@ -31,6 +31,14 @@ import java.sql.SQLException;
  * into a single page. Then you only want to read the data from the
  * ResultSet that corresponds to the page number the user is viewing.
  *
+ * <br/><br/>
+ * Call <code>setDatabasePaging(true)</code> to have the database skip the records of the previous pages,
+ * instead of having them transferred and skipped by the filter. When such a page read filter is passed
+ * directly to an object reader method that executes an SQL select statement, and the database supports it
+ * (see <code>Database.getPagingClause()</code>), the object reader appends a paging clause to the SQL.
+ * SQL which already contains a limit, offset, fetch, for update or union clause, or a comment,
+ * is still paged by the filter.
+ *
  *
  *
  * @author Jakob Jenkov
@@ -43,11 +51,41 @@ public class PageReadFilter implements IReadFilter {
 
     protected int rowsAccepted   = 0;
 
+    protected boolean databasePaging = false;
+
     public PageReadFilter(int pageNumber, int pageSize) {
         this.pageNumber = pageNumber;
         this.pageSize   = pageSize;
     }
 
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns the number of records before the page this filter reads.
+     * @return The number of records before the page this filter reads.
+     */
+    public long getOffset() {
+        return (long) pageNumber * pageSize;
+    }
+
+    /**
+     * Returns true if object readers may have the database skip the records before the
+     * page, by appending a paging clause to the SQL. False by default.
+     */
+    public boolean isDatabasePaging() {
+        return databasePaging;
+    }
+
+    public void setDatabasePaging(boolean databasePaging) {
+        this.databasePaging = databasePaging;
+    }
+
     public void init(ResultSet result) throws SQLException, PersistenceException {
         int rowNumber = (pageNumber * pageSize) + 1;
         if(result.getType() == java.sql.ResultSet.TYPE_FORWARD_ONLY){
@@ -0,0 +1,113 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl.mapping;
+
+import com.jenkov.db.itf.PersistenceException;
+import com.jenkov.db.itf.mapping.IConstructorMapping;
+import com.jenkov.db.itf.mapping.ISetterMapping;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * The default implementation of the <code>IConstructorMapping</code> interface.
+ * The constructor arguments are read from the <code>ResultSet</code> using setter mappings
+ * matching the constructor parameter types, so the same type conversions apply
+ * as when values are moved into objects via setter methods.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ConstructorMapping implements IConstructorMapping {
+
+    protected Constructor      constructor     = null;
+    protected String[]         columnNames     = null;
+    protected ISetterMapping[] argumentReaders = null;
+    protected boolean[]        primitive       = null;
+
+    /**
+     * Creates a constructor mapping.
+     * @param constructor The constructor to create objects with.
+     * @param columnNames The names of the columns mapped to the constructor parameters.
+     * @param argumentReaders The setter mappings to read the constructor arguments with, one per
+     *        constructor parameter. A null element means the argument is read using
+     *        <code>ResultSet.getObject()</code>.
+     */
+    public ConstructorMapping(Constructor constructor, String[] columnNames, ISetterMapping[] argumentReaders) {
+        this.constructor     = constructor;
+        this.columnNames     = columnNames;
+        this.argumentReaders = argumentReaders;
+
+        Class[] parameterTypes = constructor.getParameterTypes();
+        this.primitive = new boolean[parameterTypes.length];
+        for(int i=0; i<parameterTypes.length; i++){
+            this.primitive[i] = parameterTypes[i].isPrimitive();
+        }
+        try {
+            this.constructor.setAccessible(true);
+        } catch (SecurityException e) {
+            //constructor is called as is.
+        }
+    }
+
+    public Constructor getConstructor() {
+        return constructor;
+    }
+
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    public Object newInstance(ResultSet result, int[] columnIndexes) throws PersistenceException {
+        Object[] arguments = new Object[columnIndexes.length];
+        try {
+            for(int i=0; i<arguments.length; i++){
+                if(this.argumentReaders[i] != null){
+                    arguments[i] = this.argumentReaders[i].getValueFromResultSet(result, columnIndexes[i]);
+                    if(!this.primitive[i] && result.wasNull()){
+                        arguments[i] = null;
+                    }
+                } else {
+                    arguments[i] = result.getObject(columnIndexes[i]);
+                }
+            }
+            return this.constructor.newInstance(arguments);
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading constructor arguments for " + this.constructor, e);
+        } catch (InstantiationException e) {
+            throw new PersistenceException("Error calling constructor " + this.constructor
+                    + " with arguments " + Arrays.asList(arguments), e);
+        } catch (IllegalAccessException e) {
+            throw new PersistenceException("Error calling constructor " + this.constructor
+                    + " with arguments " + Arrays.asList(arguments), e);
+        } catch (InvocationTargetException e) {
+            throw new PersistenceException("Error calling constructor " + this.constructor
+                    + " with arguments " + Arrays.asList(arguments), e);
+        } catch (IllegalArgumentException e) {
+            throw new PersistenceException("Error calling constructor " + this.constructor
+                    + " with arguments " + Arrays.asList(arguments), e);
+        }
+    }
+
+    public String toString() {
+        return this.constructor + " <-- " + Arrays.asList(this.columnNames);
+    }
+}
@@ -56,6 +56,21 @@ public class KeyValue implements IKeyValue{
         return this.columnValues;
     }
 
+    /**
+     * Two key values are equal if they contain the same columns with equal values.
+     * This makes key values usable as keys in maps, for instance when matching
+     * records to existing objects by primary key.
+     */
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof KeyValue)) return false;
+        return this.columnValues.equals(((KeyValue) o).columnValues);
+    }
+
+    public int hashCode() {
+        return this.columnValues.hashCode();
+    }
+
     public String toString() {
         StringBuffer buffer = new StringBuffer();
         buffer.append("(");
@@ -18,11 +18,14 @@
 
 package com.jenkov.db.impl.mapping;
 
+import com.jenkov.db.impl.StringCache;
+import com.jenkov.db.impl.mapping.method.StringSetterMapping;
 import com.jenkov.db.itf.PersistenceException;
 import com.jenkov.db.itf.IPersistenceConfiguration;
 import com.jenkov.db.itf.mapping.*;
 import com.jenkov.db.util.ClassUtil;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 //import java.lang.annotation.Annotation;
 import java.sql.Connection;
@@ -518,12 +521,90 @@ public class ObjectMapper implements IObjectMapper{
                 if(isSet(setterAnnotation.columnType())){
                     setterMapping.setColumnType(translateColumnType(method, setterAnnotation.columnType()));
                 }
+                if(setterAnnotation.deduplicate()){
+                    if(!(setterMapping instanceof StringSetterMapping)){
+                        throw new IllegalArgumentException("Annotation mapping error in method: "
+                                + method.getDeclaringClass().getName() + "." + method.getName()
+                                + "(). 'deduplicate' can only be set on setters taking a String.");
+                    }
+                    deduplicateStrings(setterMapping);
+                }
                 if(mapping.getSetterMapping(method) == null){
                     mapping.addSetterMapping(setterMapping);
                 }
             }
 
         }
+
+        AClassMapping classMapping = (AClassMapping) mapping.getObjectClass().getAnnotation(AClassMapping.class);
+        if(classMapping != null && classMapping.deduplicateStrings()){
+            Iterator iterator = mapping.getSetterMappings().iterator();
+            while(iterator.hasNext()){
+                deduplicateStrings((ISetterMapping) iterator.next());
+            }
+        }
+        if(classMapping != null && classMapping.batchSize() > 0){
+            mapping.setBatchSize(classMapping.batchSize());
+        }
+
+        mapConstructor(mapping, connection);
+    }
+
+    /**
+     * Sets a <code>StringCache</code> on the given setter mapping, if it is a <code>StringSetterMapping</code>
+     * without one, so the strings it reads are deduplicated. Each column gets its own cache.
+     */
+    protected void deduplicateStrings(ISetterMapping setterMapping) {
+        if(setterMapping instanceof StringSetterMapping
+                && ((StringSetterMapping) setterMapping).getStringCache() == null){
+            ((StringSetterMapping) setterMapping).setStringCache(new StringCache());
+        }
+    }
+
+    /**
+     * Sets the constructor mapping of the given object mapping, if the object class has a constructor
+     * annotated with <code>AConstructorMapping</code>, or is a record. For records the column names
+     * of the canonical constructor parameters are determined from the record component names
+     * the same way column names are determined for getters and setters. If the object mapping
+     * already has a constructor mapping it is left untouched.
+     *
+     * @param mapping The object mapping to set the constructor mapping on.
+     * @param connection The connection to use to determine column names for records. May be null.
+     * @throws PersistenceException If the constructor mapping cannot be created.
+     */
+    public void mapConstructor(IObjectMapping mapping, Connection connection) throws PersistenceException {
+        if(mapping.getConstructorMapping() != null) return;
+
+        Constructor[] constructors = mapping.getObjectClass().getDeclaredConstructors();
+        for(Constructor constructor : constructors){
+            AConstructorMapping constructorAnnotation =
+                    (AConstructorMapping) constructor.getAnnotation(AConstructorMapping.class);
+            if(constructorAnnotation != null){
+                mapping.setConstructorMapping(this.objectMappingFactory.createConstructorMapping(
+                        constructor, constructorAnnotation.columnNames()));
+                return;
+            }
+        }
+
+        if(ClassUtil.isRecord(mapping.getObjectClass())){
+            String[] columnNames = ClassUtil.getRecordComponentNames(mapping.getObjectClass());
+            if(connection != null && mapping.getTableName() != null){
+                for(int i=0; i<columnNames.length; i++){
+                    Method accessor = null;
+                    try {
+                        accessor = mapping.getObjectClass().getMethod(columnNames[i]);
+                    } catch (NoSuchMethodException e) {
+                        continue;
+                    }
+                    Collection possibleNames = this.nameGuesser.getPossibleColumnNames(accessor);
+                    String dbFieldName = this.nameDeterminer.determineColumnName(possibleNames,
+                            mapping.getTableName(), connection);
+                    if(dbFieldName != null) columnNames[i] = dbFieldName;
+                }
+            }
+            mapping.setConstructorMapping(this.objectMappingFactory.createConstructorMapping(
+                    ClassUtil.getCanonicalConstructor(mapping.getObjectClass()), columnNames));
+        }
     }
 
 
@@ -27,7 +27,6 @@ import com.jenkov.db.util.CollectionUtils;
 import com.jenkov.db.util.ClassUtil;
 
 import java.lang.reflect.Method;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.sql.ResultSet;
 
@@ -36,12 +35,14 @@ public class ObjectMapping implements IObjectMapping{
     protected String     tableName            = null;
     protected String     primaryKeyColumnName = null;  //not used anymore. Use primaryKey, which supports composite keys
     protected Class      objectType           = null;
+    protected int        batchSize            = 0;
     protected Collection getterMappingSet     = new TreeSet();
     protected Collection setterMappingSet     = new TreeSet();
     protected Map        getterMappingMap     = new HashMap();
     protected Map        setterMappingMap     = new HashMap();
     protected IKey       primaryKey           = new Key();
     protected IVersioningMapping versioningMapping = null;
+    protected IConstructorMapping constructorMapping = null;
 
     public String getTableName() {
         return this.tableName;
@@ -51,6 +52,15 @@ public class ObjectMapping implements IObjectMapping{
         this.tableName = tableName;
     }
 
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        if(batchSize < 0) throw new IllegalArgumentException("batchSize must not be negative");
+        this.batchSize = batchSize;
+    }
+
     public boolean hasAutoGeneratedKeys(){
         Iterator iterator = primaryKey.getColumns().iterator();
         while(iterator.hasNext()){
@@ -88,13 +98,7 @@ public class ObjectMapping implements IObjectMapping{
         while(iterator.hasNext()){
             String columnName = (String) iterator.next();
             IGetterMapping getterMapping = getGetterMapping(columnName);
-            try {
-                keyValue.addColumnValue(columnName, getterMapping.getObjectMethod().invoke(object, null));
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException("Error inserting value from object into IKeyValue instance", e);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException("Error inserting value from object into IKeyValue instance", e);
-            }
+            keyValue.addColumnValue(columnName, getterMapping.getValueFromObject(object));
         }
         return keyValue;
     }
@@ -233,6 +237,14 @@ public class ObjectMapping implements IObjectMapping{
         return (ISetterMapping) this.setterMappingMap.get(objectMethod);
     }
 
+    public IConstructorMapping getConstructorMapping() {
+        return this.constructorMapping;
+    }
+
+    public void setConstructorMapping(IConstructorMapping constructorMapping) {
+        this.constructorMapping = constructorMapping;
+    }
+
 
     public String toString(){
         StringBuffer buffer = new StringBuffer();
@@ -248,6 +260,12 @@ public class ObjectMapping implements IObjectMapping{
         buffer.append(getTableName());
         buffer.append("\n-------------------\n");
 
+        if(getConstructorMapping() != null){
+            buffer.append("Constructor: ");
+            buffer.append(getConstructorMapping());
+            buffer.append("\n");
+        }
+
 
         int maxLength = getMaxGetterSetterNameLength();
 
@@ -26,6 +26,7 @@ import com.jenkov.db.util.ClassUtil;
 import java.io.InputStream;
 import java.io.Reader;
 import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.net.URL;
@@ -101,6 +102,9 @@ public class ObjectMappingFactory implements IObjectMappingFactory {
         if (Reader       .class.equals(memberType)    ) return new CharacterStreamGetterMapping();
         if (CharacterStream.class.equals(memberType)  ) return new CharacterStreamGetterMapping();
         if (Clob         .class.equals(memberType)    ) return new ClobGetterMapping();
+        if (java.nio.file.Path.class.equals(memberType)          ) return new PathGetterMapping();
+        if (java.nio.channels.FileChannel.class.equals(memberType)) return new FileChannelGetterMapping();
+        if (java.nio.ByteBuffer.class.equals(memberType)         ) return new ByteBufferGetterMapping();
         if (java.sql.Date.class.equals(memberType)    ) return new SqlDateGetterMapping();
         if (java.util.Date.class.equals(memberType)   ) return new DateGetterMapping();
         if (Calendar.class.equals(memberType)         ) return new CalendarGetterMapping();
@@ -169,6 +173,8 @@ public class ObjectMappingFactory implements IObjectMappingFactory {
         if(Blob         .class.equals(memberType)) return new BlobSetterMapping();
         if(Reader       .class.equals(memberType)) return new CharacterStreamSetterMapping();
         if(Clob         .class.equals(memberType)) return new ClobSetterMapping();
+        if(LazyBinaryStream.class.equals(memberType))    return new LazyBinaryStreamSetterMapping();
+        if(LazyCharacterStream.class.equals(memberType)) return new LazyCharacterStreamSetterMapping();
         if(java.sql.Date.class.equals(memberType)) return new SqlDateSetterMapping();
         if(java.util.Date.class.equals(memberType)) return new DateSetterMapping();
         if(Calendar.class.equals(memberType)) return new CalendarSetterMapping();
@@ -288,6 +294,23 @@ public class ObjectMappingFactory implements IObjectMappingFactory {
         return new Key();
     }
 
+    public IConstructorMapping createConstructorMapping(Constructor constructor, String[] columnNames)
+    throws PersistenceException {
+        Class[] parameterTypes = constructor.getParameterTypes();
+        if(parameterTypes.length != columnNames.length){
+            throw new PersistenceException("The constructor " + constructor + " takes " + parameterTypes.length +
+                    " parameters, but " + columnNames.length + " column names were mapped to it.");
+        }
+        ISetterMapping[] argumentReaders = new ISetterMapping[parameterTypes.length];
+        for(int i=0; i<parameterTypes.length; i++){
+            argumentReaders[i] = createSetterMapping(parameterTypes[i]);
+            if(argumentReaders[i] != null){
+                argumentReaders[i].setColumnName(columnNames[i]);
+            }
+        }
+        return new ConstructorMapping(constructor, columnNames, argumentReaders);
+    }
+
 
     protected Class getMemberType(Method method){
         if(ClassUtil.isGetter(method)){
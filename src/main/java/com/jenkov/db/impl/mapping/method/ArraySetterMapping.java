@@ -37,13 +37,13 @@ import java.sql.SQLException;
 public class ArraySetterMapping extends SetterMapping{
 
 
-   protected void insertValueIntoObjectDo(Object target, ResultSet result)
+   protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
    throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ result.getArray(getColumnName())});
+       getObjectSetter().set(target, result.getArray(columnIndex));
    }
 
-    public Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getArray(getColumnName());
+    public Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getArray(columnIndex);
     }
 
 }
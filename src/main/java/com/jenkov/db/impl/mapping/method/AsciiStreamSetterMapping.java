@@ -35,13 +35,13 @@ import java.sql.SQLException;
  */
 public class AsciiStreamSetterMapping extends SetterMapping{
 
-   protected void insertValueIntoObjectDo(Object target, ResultSet result)
+   protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
    throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ new AsciiStream(result.getAsciiStream(getColumnName()))});
+       getObjectSetter().set(target, new AsciiStream(result.getAsciiStream(columnIndex)));
    }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new AsciiStream(result.getAsciiStream(getColumnName()));
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return new AsciiStream(result.getAsciiStream(columnIndex));
     }
 
 }
@@ -35,13 +35,13 @@ import java.sql.SQLException;
  */
 public class BigDecimalSetterMapping extends SetterMapping{
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        getObjectMethod().invoke(target, new Object[]{ result.getBigDecimal(getColumnName())});
+        getObjectSetter().set(target, result.getBigDecimal(columnIndex));
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getBigDecimal(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getBigDecimal(columnIndex);
     }
 
 }
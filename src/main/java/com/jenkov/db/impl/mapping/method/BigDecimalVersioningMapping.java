@@ -34,7 +34,7 @@ public class BigDecimalVersioningMapping extends VersioningMapping{
     	}
     	Object value;
 		try {
-			value = getObjectMethod().invoke(target);
+			value = getObjectGetter().get(target);
 	    	if(value == null){
 	    		sMap.getObjectMethod().invoke(target, BigDecimal.ONE);
 	    	}else{
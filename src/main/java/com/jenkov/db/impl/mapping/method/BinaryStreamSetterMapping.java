@@ -35,13 +35,13 @@ import java.sql.SQLException;
  */
 public class BinaryStreamSetterMapping extends SetterMapping{
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        getObjectMethod().invoke(target, new Object[]{ new BinaryStream(result.getBinaryStream(getColumnName()))});
+        getObjectSetter().set(target, new BinaryStream(result.getBinaryStream(columnIndex)));
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new BinaryStream(result.getBinaryStream(getColumnName()));
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return new BinaryStream(result.getBinaryStream(columnIndex));
     }
 
 
@@ -36,12 +36,12 @@ import java.sql.SQLException;
 public class BlobSetterMapping extends SetterMapping{
 
 
-   protected void insertValueIntoObjectDo(Object target, ResultSet result)
+   protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
    throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ result.getBlob(getColumnName())});
+       getObjectSetter().set(target, result.getBlob(columnIndex));
    }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getBlob(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getBlob(columnIndex);
     }
 }
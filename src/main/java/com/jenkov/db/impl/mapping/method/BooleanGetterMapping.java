@@ -21,6 +21,8 @@
  */
 package com.jenkov.db.impl.mapping.method;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -32,7 +34,25 @@ import java.sql.SQLException;
  */
 public class BooleanGetterMapping extends GetterMapping{
 
- 
+    protected IBooleanGetter booleanGetter = null;
+
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.booleanGetter = member != null && member.getReturnType() == boolean.class ?
+                MethodAccessorFactory.createBooleanGetter(member) : null;
+    }
+
+    protected void insertValueFromObjectDo(Object target, PreparedStatement statement, int index)
+    throws SQLException, InvocationTargetException, IllegalAccessException {
+        if(this.booleanGetter != null && getColumnType() == java.sql.Types.BOOLEAN){
+            statement.setBoolean(index, this.booleanGetter.getBoolean(target));
+        } else if(this.booleanGetter != null && isNumberType()){
+            statement.setInt(index, this.booleanGetter.getBoolean(target) ? 1 : 0);
+        } else {
+            super.insertValueFromObjectDo(target, statement, index);
+        }
+    }
+
     protected void insertObjectDo(Object value, PreparedStatement statement, int index) throws SQLException {
         if(value != null){
             if(getColumnType() == java.sql.Types.BOOLEAN){
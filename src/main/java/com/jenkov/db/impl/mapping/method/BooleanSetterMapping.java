@@ -22,6 +22,7 @@
 package com.jenkov.db.impl.mapping.method;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -35,20 +36,37 @@ import java.sql.SQLException;
  */
 public class BooleanSetterMapping extends SetterMapping{
 
+    protected IBooleanSetter booleanSetter = null;
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.booleanSetter = member != null && member.getParameterTypes()[0] == boolean.class ?
+                MethodAccessorFactory.createBooleanSetter(member) : null;
+    }
+
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        if(result.getObject(getColumnName()) != null){
-            if(getColumnType() == java.sql.Types.BOOLEAN){
-                getObjectMethod().invoke(target, new Object[]{ new Boolean(result.getBoolean(getColumnName()))});
-            } else if(isNumberType()){
-                getObjectMethod().invoke(target, new Object[]{ new Boolean(result.getInt(getColumnName()) != 0)});
-            }
-        } 
+        boolean value = false;
+        if(getColumnType() == java.sql.Types.BOOLEAN){
+            value = result.getBoolean(columnIndex);
+        } else if(isNumberType()){
+            value = result.getInt(columnIndex) != 0;
+        } else {
+            //read the column anyway, so wasNull() refers to it when the caller checks it afterwards.
+            result.getObject(columnIndex);
+            return;
+        }
+        if(result.wasNull()) return;
+
+        if(this.booleanSetter != null){
+            this.booleanSetter.setBoolean(target, value);
+        } else {
+            getObjectSetter().set(target, Boolean.valueOf(value));
+        }
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new Boolean(result.getBoolean(getColumnName()));
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return Boolean.valueOf(result.getBoolean(columnIndex));
     }
 
 }
@@ -36,12 +36,12 @@ import java.sql.SQLException;
 public class ByteArraySetterMapping extends SetterMapping{
 
 
-   protected void insertValueIntoObjectDo(Object target, ResultSet result)
+   protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
    throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ result.getBytes(getColumnName())});
+       getObjectSetter().set(target, result.getBytes(columnIndex));
    }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getBytes(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getBytes(columnIndex);
     }
 }
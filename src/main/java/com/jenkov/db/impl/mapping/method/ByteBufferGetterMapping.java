@@ -0,0 +1,38 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl.mapping.method;
+
+import com.jenkov.db.util.JdbcUtil;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * A subclass of <code>GetterMapping</code> capable of inserting the contents of
+ * a <code>ByteBuffer</code>, from its position to its limit, into a <code>PreparedStatement</code> as a binary stream.
+ * The contents are streamed to the driver in chunks, without copying them into a byte array.
+ *
+ * @author Jakob Jenkov, Jenkov Development
+ */
+public class ByteBufferGetterMapping extends GetterMapping{
+
+    protected void insertObjectDo(Object value, PreparedStatement statement, int index) throws SQLException {
+        JdbcUtil.insertBinaryStream(statement, index, value);
+    }
+
+}
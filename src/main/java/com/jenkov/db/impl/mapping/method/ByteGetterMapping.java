@@ -21,6 +21,8 @@
  */
 package com.jenkov.db.impl.mapping.method;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -32,6 +34,23 @@ import java.sql.SQLException;
  */
 public class ByteGetterMapping extends GetterMapping{
 
+    protected IByteGetter byteGetter = null;
+
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.byteGetter = member != null && member.getReturnType() == byte.class ?
+                MethodAccessorFactory.createByteGetter(member) : null;
+    }
+
+    protected void insertValueFromObjectDo(Object target, PreparedStatement statement, int index)
+    throws SQLException, InvocationTargetException, IllegalAccessException {
+        if(this.byteGetter != null){
+            statement.setByte(index, this.byteGetter.getByte(target));
+        } else {
+            super.insertValueFromObjectDo(target, statement, index);
+        }
+    }
+
     protected void insertObjectDo(Object value, PreparedStatement statement, int index) throws SQLException {
         if(value != null){
             statement.setByte(index, ((Byte) value).byteValue());
@@ -22,6 +22,7 @@
 package com.jenkov.db.impl.mapping.method;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -36,16 +37,28 @@ import java.sql.SQLException;
 
 public class ByteSetterMapping extends SetterMapping{
 
+    protected IByteSetter byteSetter = null;
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.byteSetter = member != null && member.getParameterTypes()[0] == byte.class ?
+                MethodAccessorFactory.createByteSetter(member) : null;
+    }
+
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        if(result.getObject(getColumnName()) != null){
-            getObjectMethod().invoke(target, new Object[]{ new Byte(result.getByte(getColumnName()))});
+        byte value = result.getByte(columnIndex);
+        if(result.wasNull()) return;
+
+        if(this.byteSetter != null){
+            this.byteSetter.setByte(target, value);
+        } else {
+            getObjectSetter().set(target, Byte.valueOf(value));
         }
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new Byte(result.getByte(getColumnName()));
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return Byte.valueOf(result.getByte(columnIndex));
     }
 
 }
@@ -29,20 +29,29 @@ import java.util.GregorianCalendar;
  */
 public class CalendarSetterMapping extends SetterMapping{
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        Timestamp timestamp = result.getTimestamp(getColumnName());
+        Timestamp timestamp = result.getTimestamp(columnIndex);
         if(timestamp != null){
             GregorianCalendar calendar = new GregorianCalendar();
             calendar.setTimeInMillis(timestamp.getTime());
-            getObjectMethod().invoke(target, new Object[]{calendar});
+            getObjectSetter().set(target, calendar);
         } else {
-            getObjectMethod().invoke(target, new Object[]{null});
+            getObjectSetter().set(target, null);
         }
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getTimestamp(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getTimestamp(columnIndex);
+    }
+
+    protected void setValueInObjectDo(Object target, Object value) throws InvocationTargetException, IllegalAccessException {
+        GregorianCalendar calendar = null;
+        if(value != null){
+            calendar = new GregorianCalendar();
+            calendar.setTimeInMillis(((Timestamp) value).getTime());
+        }
+        getObjectSetter().set(target, calendar);
     }
 
 
@@ -36,13 +36,13 @@ import java.sql.SQLException;
 public class CharacterStreamSetterMapping extends SetterMapping{
 
 
-   protected void insertValueIntoObjectDo(Object target, ResultSet result)
+   protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
    throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ new CharacterStream(result.getCharacterStream(getColumnName()))});
+       getObjectSetter().set(target, new CharacterStream(result.getCharacterStream(columnIndex)));
    }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new CharacterStream(result.getCharacterStream(getColumnName()));
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return new CharacterStream(result.getCharacterStream(columnIndex));
     }
 
 }
@@ -37,13 +37,13 @@ import java.sql.SQLException;
 public class ClobSetterMapping extends SetterMapping{
 
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ result.getClob(getColumnName())});
+       getObjectSetter().set(target, result.getClob(columnIndex));
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getClob(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getClob(columnIndex);
     }
 
 }
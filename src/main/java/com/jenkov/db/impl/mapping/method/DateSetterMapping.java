@@ -36,12 +36,12 @@ import java.sql.SQLException;
 public class DateSetterMapping extends SetterMapping{
 
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ result.getTimestamp(getColumnName())});
+       getObjectSetter().set(target, result.getTimestamp(columnIndex));
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getTimestamp(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getTimestamp(columnIndex);
     }
 }
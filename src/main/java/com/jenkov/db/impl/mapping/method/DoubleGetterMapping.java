@@ -21,6 +21,8 @@
  */
 package com.jenkov.db.impl.mapping.method;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -32,6 +34,23 @@ import java.sql.SQLException;
  */
 public class DoubleGetterMapping extends GetterMapping{
 
+    protected IDoubleGetter doubleGetter = null;
+
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.doubleGetter = member != null && member.getReturnType() == double.class ?
+                MethodAccessorFactory.createDoubleGetter(member) : null;
+    }
+
+    protected void insertValueFromObjectDo(Object target, PreparedStatement statement, int index)
+    throws SQLException, InvocationTargetException, IllegalAccessException {
+        if(this.doubleGetter != null){
+            statement.setDouble(index, this.doubleGetter.getDouble(target));
+        } else {
+            super.insertValueFromObjectDo(target, statement, index);
+        }
+    }
+
     protected void insertObjectDo(Object value, PreparedStatement statement, int index) throws SQLException {
         if(value != null){
             statement.setDouble(index, ((Double) value).doubleValue());
@@ -22,6 +22,7 @@
 package com.jenkov.db.impl.mapping.method;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -35,15 +36,28 @@ import java.sql.SQLException;
  */
 public class DoubleSetterMapping extends SetterMapping{
 
+    protected IDoubleSetter doubleSetter = null;
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.doubleSetter = member != null && member.getParameterTypes()[0] == double.class ?
+                MethodAccessorFactory.createDoubleSetter(member) : null;
+    }
+
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        if(result.getObject(getColumnName()) != null){
-            getObjectMethod().invoke(target, new Object[]{ new Double(result.getDouble(getColumnName()))});
+        double value = result.getDouble(columnIndex);
+        if(result.wasNull()) return;
+
+        if(this.doubleSetter != null){
+            this.doubleSetter.setDouble(target, value);
+        } else {
+            getObjectSetter().set(target, Double.valueOf(value));
         }
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new Double(result.getDouble(getColumnName()));
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return Double.valueOf(result.getDouble(columnIndex));
     }
+
 }
@@ -21,6 +21,8 @@
  */
 package com.jenkov.db.impl.mapping.method;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -33,6 +35,23 @@ import java.sql.SQLException;
  */
 public class FloatGetterMapping extends GetterMapping{
 
+    protected IFloatGetter floatGetter = null;
+
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.floatGetter = member != null && member.getReturnType() == float.class ?
+                MethodAccessorFactory.createFloatGetter(member) : null;
+    }
+
+    protected void insertValueFromObjectDo(Object target, PreparedStatement statement, int index)
+    throws SQLException, InvocationTargetException, IllegalAccessException {
+        if(this.floatGetter != null){
+            statement.setFloat(index, this.floatGetter.getFloat(target));
+        } else {
+            super.insertValueFromObjectDo(target, statement, index);
+        }
+    }
+
     protected void insertObjectDo(Object value, PreparedStatement statement, int index) throws SQLException {
         if(value != null){
             statement.setFloat(index, ((Float) value).floatValue());
@@ -22,6 +22,7 @@
 package com.jenkov.db.impl.mapping.method;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -35,15 +36,28 @@ import java.sql.SQLException;
  */
 public class FloatSetterMapping extends SetterMapping{
 
+    protected IFloatSetter floatSetter = null;
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.floatSetter = member != null && member.getParameterTypes()[0] == float.class ?
+                MethodAccessorFactory.createFloatSetter(member) : null;
+    }
+
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        if(result.getObject(getColumnName()) != null){
-            getObjectMethod().invoke(target, new Object[]{ new Float(result.getFloat(getColumnName()))});
+        float value = result.getFloat(columnIndex);
+        if(result.wasNull()) return;
+
+        if(this.floatSetter != null){
+            this.floatSetter.setFloat(target, value);
+        } else {
+            getObjectSetter().set(target, Float.valueOf(value));
         }
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new Float(result.getFloat(getColumnName()));
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return Float.valueOf(result.getFloat(columnIndex));
     }
+
 }
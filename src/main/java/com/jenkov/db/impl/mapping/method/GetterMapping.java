@@ -22,13 +22,32 @@ import com.jenkov.db.itf.PersistenceException;
 import com.jenkov.db.itf.mapping.IGetterMapping;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
 
 public class GetterMapping extends MethodMapping implements IGetterMapping{
 
-    protected boolean isAutoGenerated = false;
+    protected boolean       isAutoGenerated = false;
+    protected IObjectGetter objectGetter    = null;
+
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.objectGetter = member != null ? MethodAccessorFactory.createGetter(member) : null;
+    }
+
+    /**
+     * Returns the getter bound to the getter method of this mapping. The getter is
+     * created when the getter method is set on this mapping.
+     * @return The getter bound to the getter method of this mapping.
+     */
+    protected IObjectGetter getObjectGetter() {
+        if(this.objectGetter == null){
+            this.objectGetter = MethodAccessorFactory.createGetter(getObjectMethod());
+        }
+        return this.objectGetter;
+    }
 
     public boolean isAutoGenerated() {
         return isAutoGenerated;
@@ -40,7 +59,7 @@ public class GetterMapping extends MethodMapping implements IGetterMapping{
 
     public void insertValueFromObject(Object target, PreparedStatement statement, int index) throws PersistenceException{
         try {
-            insertObjectDo(getObjectMethod().invoke(target, null), statement, index);
+            insertValueFromObjectDo(target, statement, index);
         } catch (SQLException e) {
             throw new PersistenceException("Could not insert value of type  "
                     + getObjectMethod().getReturnType() + "  for field  "
@@ -53,6 +72,25 @@ public class GetterMapping extends MethodMapping implements IGetterMapping{
             throw new PersistenceException("Could not insert value of type  "
                     + getObjectMethod().getReturnType() + "  for field  "
                     + getColumnName() + "  from object into PreparedStatement", e);
+        } catch (RuntimeException e) {
+            throw new PersistenceException("Could not insert value of type  "
+                    + getObjectMethod().getReturnType() + "  for field  "
+                    + getColumnName() + "  from object into PreparedStatement", e);
+        }
+    }
+
+    public Object getValueFromObject(Object target) throws PersistenceException {
+        try {
+            return getObjectGetter().get(target);
+        } catch (InvocationTargetException e) {
+            throw new PersistenceException("Could not read value of field " + getColumnName()
+                    + " from object " + target, e);
+        } catch (IllegalAccessException e) {
+            throw new PersistenceException("Could not read value of field " + getColumnName()
+                    + " from object " + target, e);
+        } catch (RuntimeException e) {
+            throw new PersistenceException("Could not read value of field " + getColumnName()
+                    + " from object " + target, e);
         }
     }
 
@@ -66,6 +104,16 @@ public class GetterMapping extends MethodMapping implements IGetterMapping{
     }
 
 
+    /**
+     * Extracts the value from the target object and inserts it into the <code>PreparedStatement</code>.
+     * By default the value is extracted via the object getter and passed to <code>insertObjectDo()</code>.
+     * Subclasses for primitive types override this method to move the value without boxing it.
+     */
+    protected void insertValueFromObjectDo(Object target, PreparedStatement statement, int index)
+    throws SQLException, InvocationTargetException, IllegalAccessException{
+        insertObjectDo(getObjectGetter().get(target), statement, index);
+    }
+
     protected void insertObjectDo(Object value, PreparedStatement statement, int index) throws SQLException{
         //System.out.println("GetterMapping.insertObject");
     }
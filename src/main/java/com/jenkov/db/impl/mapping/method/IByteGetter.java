@@ -0,0 +1,40 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl.mapping.method;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Calls a getter method returning a <code>byte</code> on a target object, without boxing the value.
+ * Instances are created by the <code>MethodAccessorFactory</code>.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface IByteGetter {
+
+    /**
+     * Calls the getter method this getter is bound to on the given target object.
+     * @param target The object to call the getter method on.
+     * @return The value returned by the getter method.
+     * @throws InvocationTargetException If the getter method throws an exception (reflection based getters only).
+     * @throws IllegalAccessException If the getter method cannot be accessed (reflection based getters only).
+     */
+    public byte getByte(Object target) throws InvocationTargetException, IllegalAccessException;
+
+}
@@ -21,6 +21,8 @@
  */
 package com.jenkov.db.impl.mapping.method;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -32,6 +34,23 @@ import java.sql.SQLException;
  */
 public class IntGetterMapping extends GetterMapping{
 
+    protected IIntGetter intGetter = null;
+
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.intGetter = member != null && member.getReturnType() == int.class ?
+                MethodAccessorFactory.createIntGetter(member) : null;
+    }
+
+    protected void insertValueFromObjectDo(Object target, PreparedStatement statement, int index)
+    throws SQLException, InvocationTargetException, IllegalAccessException {
+        if(this.intGetter != null){
+            statement.setInt(index, this.intGetter.getInt(target));
+        } else {
+            super.insertValueFromObjectDo(target, statement, index);
+        }
+    }
+
     protected void insertObjectDo(Object value, PreparedStatement statement, int index) throws SQLException {
         if(value != null){
             statement.setInt(index, ((Integer) value).intValue());
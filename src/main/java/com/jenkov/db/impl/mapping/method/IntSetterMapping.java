@@ -22,6 +22,7 @@
 package com.jenkov.db.impl.mapping.method;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -35,16 +36,28 @@ import java.sql.SQLException;
  */
 public class IntSetterMapping extends SetterMapping{
 
+    protected IIntSetter intSetter = null;
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.intSetter = member != null && member.getParameterTypes()[0] == int.class ?
+                MethodAccessorFactory.createIntSetter(member) : null;
+    }
+
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        if(result.getObject(getColumnName()) != null){
-            getObjectMethod().invoke(target, new Object[]{ new Integer(result.getInt(getColumnName()))});
+        int value = result.getInt(columnIndex);
+        if(result.wasNull()) return;
+
+        if(this.intSetter != null){
+            this.intSetter.setInt(target, value);
+        } else {
+            getObjectSetter().set(target, Integer.valueOf(value));
         }
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new Integer(result.getInt(getColumnName())); 
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return Integer.valueOf(result.getInt(columnIndex));
     }
 
 }
@@ -41,7 +41,7 @@ public class IntVersioningMapping extends VersioningMapping{
     	}
     	Object value;
 		try {
-			value = getObjectMethod().invoke(target);
+			value = getObjectGetter().get(target);
 	    	if(value == null){
 	    		sMap.getObjectMethod().invoke(target, new Integer(1));
 	    	}else{
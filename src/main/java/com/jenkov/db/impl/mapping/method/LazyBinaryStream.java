@@ -0,0 +1,189 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl.mapping.method;
+
+import com.jenkov.db.itf.PersistenceException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.sql.Blob;
+import java.sql.SQLException;
+
+/**
+ * A binary LOB column read without reading its contents. The contents are only read when a stream
+ * or channel is opened, or when they are copied into a buffer, channel or stream, and are never
+ * held in memory as a whole. Use this as member type instead of <code>byte[]</code> for large binary
+ * columns that are streamed to a file or a network connection.
+ *
+ * <br/><br/>
+ * The contents are read through the <code>Blob</code> locator of the column. The locator is
+ * valid while the connection it was read by is open, and on most databases only within the
+ * transaction it was read in. Some drivers read the full contents into the <code>Blob</code> anyway.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class LazyBinaryStream {
+
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    protected Blob blob = null;
+
+    public LazyBinaryStream(Blob blob) {
+        this.blob = blob;
+    }
+
+    public Blob getBlob() {
+        return blob;
+    }
+
+    /**
+     * Returns the number of bytes in the LOB.
+     * @return The number of bytes in the LOB.
+     * @throws PersistenceException If the length cannot be obtained from the <code>Blob</code>.
+     */
+    public long getLength() throws PersistenceException {
+        try {
+            return this.blob.length();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading length of binary LOB", e);
+        }
+    }
+
+    /**
+     * Opens a new <code>InputStream</code> reading the LOB from the beginning.
+     * The caller must close the stream.
+     * @return An <code>InputStream</code> reading the LOB.
+     * @throws PersistenceException If the stream cannot be opened.
+     */
+    public InputStream openInputStream() throws PersistenceException {
+        try {
+            return this.blob.getBinaryStream();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error opening stream to binary LOB", e);
+        }
+    }
+
+    /**
+     * Opens a new <code>ReadableByteChannel</code> reading the LOB from the beginning.
+     * The caller must close the channel.
+     * @return A <code>ReadableByteChannel</code> reading the LOB.
+     * @throws PersistenceException If the channel cannot be opened.
+     */
+    public ReadableByteChannel openChannel() throws PersistenceException {
+        return Channels.newChannel(openInputStream());
+    }
+
+    /**
+     * Copies the LOB into the given buffer, starting at the given position in the LOB.
+     * As many bytes as fit in the remaining space of the buffer are copied.
+     * @param buffer The buffer to copy the bytes into.
+     * @param position The position in the LOB to copy from. The first byte is at position 0.
+     * @return The number of bytes copied. -1 if the position is at or after the end of the LOB.
+     * @throws PersistenceException If reading the LOB fails.
+     */
+    public int read(ByteBuffer buffer, long position) throws PersistenceException {
+        long length = getLength();
+        if(position >= length) return -1;
+        int count = (int) Math.min(buffer.remaining(), length - position);
+        if(count == 0) return 0;
+
+        try {
+            ReadableByteChannel source = Channels.newChannel(this.blob.getBinaryStream(position + 1, count));
+            try {
+                int read = 0;
+                while(read < count){
+                    int bytesRead = source.read(buffer);
+                    if(bytesRead == -1) break;
+                    read += bytesRead;
+                }
+                return read;
+            } finally {
+                source.close();
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading binary LOB from position " + position, e);
+        } catch (IOException e) {
+            throw new PersistenceException("Error reading binary LOB from position " + position, e);
+        }
+    }
+
+    /**
+     * Copies the whole LOB into the given channel, using a small buffer. If the channel
+     * is a <code>FileChannel</code> the bytes are transferred by the file channel, at its
+     * current position.
+     * @param target The channel to copy the LOB into.
+     * @return The number of bytes copied.
+     * @throws PersistenceException If reading the LOB or writing the channel fails.
+     */
+    public long transferTo(WritableByteChannel target) throws PersistenceException {
+        ReadableByteChannel source = openChannel();
+        try {
+            long count = 0;
+            if(target instanceof FileChannel){
+                FileChannel fileChannel = (FileChannel) target;
+                long transferred = 0;
+                while((transferred = fileChannel.transferFrom(source, fileChannel.position(), BUFFER_SIZE)) > 0){
+                    fileChannel.position(fileChannel.position() + transferred);
+                    count += transferred;
+                }
+                return count;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while(source.read(buffer) != -1){
+                buffer.flip();
+                while(buffer.hasRemaining()){
+                    count += target.write(buffer);
+                }
+                buffer.clear();
+            }
+            return count;
+        } catch (IOException e) {
+            throw new PersistenceException("Error copying binary LOB to channel", e);
+        } finally {
+            try { source.close(); } catch (IOException e) { /*ignore.*/ }
+        }
+    }
+
+    /**
+     * Copies the whole LOB into the given stream, using a small buffer.
+     * @param output The stream to copy the LOB into.
+     * @return The number of bytes copied.
+     * @throws PersistenceException If reading the LOB or writing the stream fails.
+     */
+    public long transferTo(OutputStream output) throws PersistenceException {
+        return transferTo(Channels.newChannel(output));
+    }
+
+    /**
+     * Frees the <code>Blob</code> locator. The LOB cannot be read after it has been freed.
+     * @throws PersistenceException If freeing the <code>Blob</code> fails.
+     */
+    public void free() throws PersistenceException {
+        try {
+            this.blob.free();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error freeing binary LOB", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl.mapping.method;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Blob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A subclass of the <code>SetterMapping</code> capable of reading
+ * a <code>LazyBinaryStream</code> from a <code>ResultSet</code>
+ * instance and insert it into a target object, by calling the target
+ * object matching setter method. Only the <code>Blob</code> locator is read,
+ * not the contents of the LOB.
+ *
+ * @author Jakob Jenkov, Jenkov Development
+ */
+public class LazyBinaryStreamSetterMapping extends SetterMapping{
+
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
+    throws SQLException, InvocationTargetException, IllegalAccessException {
+        getObjectSetter().set(target, getValueFromResultSetDo(result, columnIndex));
+    }
+
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        Blob blob = result.getBlob(columnIndex);
+        return blob != null ? new LazyBinaryStream(blob) : null;
+    }
+}
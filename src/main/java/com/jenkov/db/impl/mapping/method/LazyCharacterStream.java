@@ -0,0 +1,117 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.impl.mapping.method;
+
+import com.jenkov.db.itf.PersistenceException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.Clob;
+import java.sql.SQLException;
+
+/**
+ * A character LOB column read without reading its contents. The contents are only read when a
+ * reader is opened, or when they are copied into a writer, and are never held in memory as a whole.
+ * Use this as member type instead of <code>String</code> for large text columns that are
+ * streamed to a file or a network connection.
+ *
+ * <br/><br/>
+ * The contents are read through the <code>Clob</code> locator of the column. The locator is
+ * valid while the connection it was read by is open, and on most databases only within the
+ * transaction it was read in.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class LazyCharacterStream {
+
+    protected static final int BUFFER_SIZE = 16 * 1024;
+
+    protected Clob clob = null;
+
+    public LazyCharacterStream(Clob clob) {
+        this.clob = clob;
+    }
+
+    public Clob getClob() {
+        return clob;
+    }
+
+    /**
+     * Returns the number of characters in the LOB.
+     * @return The number of characters in the LOB.
+     * @throws PersistenceException If the length cannot be obtained from the <code>Clob</code>.
+     */
+    public long getLength() throws PersistenceException {
+        try {
+            return this.clob.length();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error reading length of character LOB", e);
+        }
+    }
+
+    /**
+     * Opens a new <code>Reader</code> reading the LOB from the beginning.
+     * The caller must close the reader.
+     * @return A <code>Reader</code> reading the LOB.
+     * @throws PersistenceException If the reader cannot be opened.
+     */
+    public Reader openReader() throws PersistenceException {
+        try {
+            return this.clob.getCharacterStream();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error opening reader to character LOB", e);
+        }
+    }
+
+    /**
+     * Copies the whole LOB into the given writer, using a small buffer.
+     * @param writer The writer to copy the LOB into.
+     * @return The number of characters copied.
+     * @throws PersistenceException If reading the LOB or writing the writer fails.
+     */
+    public long transferTo(Writer writer) throws PersistenceException {
+        Reader reader = openReader();
+        try {
+            long   count  = 0;
+            char[] buffer = new char[BUFFER_SIZE];
+            int    charsRead = 0;
+            while((charsRead = reader.read(buffer)) != -1){
+                writer.write(buffer, 0, charsRead);
+                count += charsRead;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new PersistenceException("Error copying character LOB to writer", e);
+        } finally {
+            try { reader.close(); } catch (IOException e) { /*ignore.*/ }
+        }
+    }
+
+    /**
+     * Frees the <code>Clob</code> locator. The LOB cannot be read after it has been freed.
+     * @throws PersistenceException If freeing the <code>Clob</code> fails.
+     */
+    public void free() throws PersistenceException {
+        try {
+            this.clob.free();
+        } catch (SQLException e) {
+            throw new PersistenceException("Error freeing character LOB", e);
+        }
+    }
+}
@@ -21,6 +21,8 @@
  */
 package com.jenkov.db.impl.mapping.method;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -32,6 +34,23 @@ import java.sql.SQLException;
  */
 public class LongGetterMapping extends GetterMapping{
 
+    protected ILongGetter longGetter = null;
+
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.longGetter = member != null && member.getReturnType() == long.class ?
+                MethodAccessorFactory.createLongGetter(member) : null;
+    }
+
+    protected void insertValueFromObjectDo(Object target, PreparedStatement statement, int index)
+    throws SQLException, InvocationTargetException, IllegalAccessException {
+        if(this.longGetter != null){
+            statement.setLong(index, this.longGetter.getLong(target));
+        } else {
+            super.insertValueFromObjectDo(target, statement, index);
+        }
+    }
+
     protected void insertObjectDo(Object value, PreparedStatement statement, int index) throws SQLException {
         if(value != null){
             statement.setLong(index, ((Long) value).longValue());
@@ -22,6 +22,7 @@
 package com.jenkov.db.impl.mapping.method;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -35,16 +36,28 @@ import java.sql.SQLException;
  */
 public class LongSetterMapping extends SetterMapping{
 
+    protected ILongSetter longSetter = null;
 
-   protected void insertValueIntoObjectDo(Object target, ResultSet result)
-   throws SQLException, InvocationTargetException, IllegalAccessException {
-       if(result.getObject(getColumnName()) != null){
-           getObjectMethod().invoke(target, new Object[]{ new Long(result.getLong(getColumnName()))});
-       }
-   }
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.longSetter = member != null && member.getParameterTypes()[0] == long.class ?
+                MethodAccessorFactory.createLongSetter(member) : null;
+    }
+
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
+    throws SQLException, InvocationTargetException, IllegalAccessException {
+        long value = result.getLong(columnIndex);
+        if(result.wasNull()) return;
+
+        if(this.longSetter != null){
+            this.longSetter.setLong(target, value);
+        } else {
+            getObjectSetter().set(target, Long.valueOf(value));
+        }
+    }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new Long(result.getLong(getColumnName())); 
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return Long.valueOf(result.getLong(columnIndex));
     }
 
 }
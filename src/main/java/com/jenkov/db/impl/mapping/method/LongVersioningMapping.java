@@ -40,7 +40,7 @@ public class LongVersioningMapping extends VersioningMapping{
     	}
     	Object value;
 		try {
-			value = getObjectMethod().invoke(target);
+			value = getObjectGetter().get(target);
 	    	if(value == null){
 	    		sMap.getObjectMethod().invoke(target, new Long(1));
 	    	}else{
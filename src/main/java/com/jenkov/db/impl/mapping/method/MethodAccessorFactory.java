@@ -0,0 +1,394 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl.mapping.method;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Creates getters and setters bound to getter and setter methods. Where possible the
+ * getters and setters are generated via the <code>LambdaMetafactory</code>, which makes
+ * calling them about as fast as calling the method directly, without the argument array
+ * allocation and access checks of <code>Method.invoke()</code>. If a method cannot be
+ * bound that way (e.g. because its class is not public, or is not visible from the class
+ * loader of this class), a getter or setter calling the method via reflection is
+ * returned instead.
+ *
+ * <br/><br/>
+ * For methods taking or returning primitive values there are getters and setters that pass
+ * the values unboxed, e.g. <code>createIntSetter()</code>.
+ *
+ * <br/><br/>
+ * Getters and setters are meant to be created once, when an object mapping is created,
+ * and then reused for every object read or written.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class MethodAccessorFactory {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Creates a getter bound to the given getter method.
+     * @param method The getter method to bind the getter to.
+     * @return A getter calling the given method.
+     */
+    public static IObjectGetter createGetter(Method method){
+        if(isBindable(method)){
+            try {
+                return (IObjectGetter) bind(method, IObjectGetter.class, "get",
+                        MethodType.methodType(Object.class, Object.class),
+                        MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+            } catch (Throwable e) {
+                //fall back to reflection below.
+            }
+        }
+        return new ReflectionAccessor(method);
+    }
+
+    /**
+     * Creates a setter bound to the given setter method.
+     * @param method The setter method to bind the setter to.
+     * @return A setter calling the given method.
+     */
+    public static IObjectSetter createSetter(Method method){
+        if(isBindable(method)){
+            try {
+                return (IObjectSetter) bind(method, IObjectSetter.class, "set",
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        MethodType.methodType(void.class, method.getDeclaringClass(),
+                                wrap(method.getParameterTypes()[0])));
+            } catch (Throwable e) {
+                //fall back to reflection below.
+            }
+        }
+        return new ReflectionAccessor(method);
+    }
+
+    /**
+     * Creates a getter bound to the given getter method, which must return an <code>int</code>.
+     * @param method The getter method to bind the getter to.
+     * @return A getter calling the given method.
+     */
+    public static IIntGetter createIntGetter(Method method){
+        return (IIntGetter) createPrimitiveGetter(method, int.class, IIntGetter.class, "getInt");
+    }
+
+    /**
+     * Creates a setter bound to the given setter method, which must take an <code>int</code>.
+     * @param method The setter method to bind the setter to.
+     * @return A setter calling the given method.
+     */
+    public static IIntSetter createIntSetter(Method method){
+        return (IIntSetter) createPrimitiveSetter(method, int.class, IIntSetter.class, "setInt");
+    }
+
+    /**
+     * Creates a getter bound to the given getter method, which must return a <code>long</code>.
+     * @param method The getter method to bind the getter to.
+     * @return A getter calling the given method.
+     */
+    public static ILongGetter createLongGetter(Method method){
+        return (ILongGetter) createPrimitiveGetter(method, long.class, ILongGetter.class, "getLong");
+    }
+
+    /**
+     * Creates a setter bound to the given setter method, which must take a <code>long</code>.
+     * @param method The setter method to bind the setter to.
+     * @return A setter calling the given method.
+     */
+    public static ILongSetter createLongSetter(Method method){
+        return (ILongSetter) createPrimitiveSetter(method, long.class, ILongSetter.class, "setLong");
+    }
+
+    /**
+     * Creates a getter bound to the given getter method, which must return a <code>double</code>.
+     * @param method The getter method to bind the getter to.
+     * @return A getter calling the given method.
+     */
+    public static IDoubleGetter createDoubleGetter(Method method){
+        return (IDoubleGetter) createPrimitiveGetter(method, double.class, IDoubleGetter.class, "getDouble");
+    }
+
+    /**
+     * Creates a setter bound to the given setter method, which must take a <code>double</code>.
+     * @param method The setter method to bind the setter to.
+     * @return A setter calling the given method.
+     */
+    public static IDoubleSetter createDoubleSetter(Method method){
+        return (IDoubleSetter) createPrimitiveSetter(method, double.class, IDoubleSetter.class, "setDouble");
+    }
+
+    /**
+     * Creates a getter bound to the given getter method, which must return a <code>float</code>.
+     * @param method The getter method to bind the getter to.
+     * @return A getter calling the given method.
+     */
+    public static IFloatGetter createFloatGetter(Method method){
+        return (IFloatGetter) createPrimitiveGetter(method, float.class, IFloatGetter.class, "getFloat");
+    }
+
+    /**
+     * Creates a setter bound to the given setter method, which must take a <code>float</code>.
+     * @param method The setter method to bind the setter to.
+     * @return A setter calling the given method.
+     */
+    public static IFloatSetter createFloatSetter(Method method){
+        return (IFloatSetter) createPrimitiveSetter(method, float.class, IFloatSetter.class, "setFloat");
+    }
+
+    /**
+     * Creates a getter bound to the given getter method, which must return a <code>short</code>.
+     * @param method The getter method to bind the getter to.
+     * @return A getter calling the given method.
+     */
+    public static IShortGetter createShortGetter(Method method){
+        return (IShortGetter) createPrimitiveGetter(method, short.class, IShortGetter.class, "getShort");
+    }
+
+    /**
+     * Creates a setter bound to the given setter method, which must take a <code>short</code>.
+     * @param method The setter method to bind the setter to.
+     * @return A setter calling the given method.
+     */
+    public static IShortSetter createShortSetter(Method method){
+        return (IShortSetter) createPrimitiveSetter(method, short.class, IShortSetter.class, "setShort");
+    }
+
+    /**
+     * Creates a getter bound to the given getter method, which must return a <code>byte</code>.
+     * @param method The getter method to bind the getter to.
+     * @return A getter calling the given method.
+     */
+    public static IByteGetter createByteGetter(Method method){
+        return (IByteGetter) createPrimitiveGetter(method, byte.class, IByteGetter.class, "getByte");
+    }
+
+    /**
+     * Creates a setter bound to the given setter method, which must take a <code>byte</code>.
+     * @param method The setter method to bind the setter to.
+     * @return A setter calling the given method.
+     */
+    public static IByteSetter createByteSetter(Method method){
+        return (IByteSetter) createPrimitiveSetter(method, byte.class, IByteSetter.class, "setByte");
+    }
+
+    /**
+     * Creates a getter bound to the given getter method, which must return a <code>boolean</code>.
+     * @param method The getter method to bind the getter to.
+     * @return A getter calling the given method.
+     */
+    public static IBooleanGetter createBooleanGetter(Method method){
+        return (IBooleanGetter) createPrimitiveGetter(method, boolean.class, IBooleanGetter.class, "getBoolean");
+    }
+
+    /**
+     * Creates a setter bound to the given setter method, which must take a <code>boolean</code>.
+     * @param method The setter method to bind the setter to.
+     * @return A setter calling the given method.
+     */
+    public static IBooleanSetter createBooleanSetter(Method method){
+        return (IBooleanSetter) createPrimitiveSetter(method, boolean.class, IBooleanSetter.class, "setBoolean");
+    }
+
+    protected static Object createPrimitiveGetter(Method method, Class primitiveType, Class interfaceType,
+                                                  String interfaceMethodName){
+        if(method.getReturnType() == primitiveType && isBindable(method)){
+            try {
+                return bind(method, interfaceType, interfaceMethodName,
+                        MethodType.methodType(primitiveType, Object.class),
+                        MethodType.methodType(primitiveType, method.getDeclaringClass()));
+            } catch (Throwable e) {
+                //fall back to reflection below.
+            }
+        }
+        return new ReflectionAccessor(method);
+    }
+
+    protected static Object createPrimitiveSetter(Method method, Class primitiveType, Class interfaceType,
+                                                  String interfaceMethodName){
+        if(method.getParameterTypes()[0] == primitiveType && isBindable(method)){
+            try {
+                return bind(method, interfaceType, interfaceMethodName,
+                        MethodType.methodType(void.class, Object.class, primitiveType),
+                        MethodType.methodType(void.class, method.getDeclaringClass(), primitiveType));
+            } catch (Throwable e) {
+                //fall back to reflection below.
+            }
+        }
+        return new ReflectionAccessor(method);
+    }
+
+    /**
+     * Generates an instance of the given single method interface which calls the given method.
+     * @param method The method to call.
+     * @param interfaceType The single method interface to implement.
+     * @param interfaceMethodName The name of the interface method.
+     * @param interfaceMethodType The (erased) signature of the interface method.
+     * @param instantiatedMethodType The signature of the interface method specialized to the method called.
+     * @return An instance of the interface calling the given method.
+     * @throws Throwable If the method cannot be bound.
+     */
+    protected static Object bind(Method method, Class interfaceType, String interfaceMethodName,
+                                 MethodType interfaceMethodType, MethodType instantiatedMethodType) throws Throwable {
+        MethodHandle handle = LOOKUP.unreflect(method);
+        CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, interfaceMethodName,
+                MethodType.methodType(interfaceType), interfaceMethodType, handle, instantiatedMethodType);
+        return callSite.getTarget().invoke();
+    }
+
+    /**
+     * Returns true if the given method can be bound via the <code>LambdaMetafactory</code>.
+     * That requires the method to be a public instance method of a public class, and the class
+     * and the types in the method signature to be visible from the class loader of this class.
+     * @param method The method to check.
+     * @return True if the method can be bound, false if not.
+     */
+    protected static boolean isBindable(Method method){
+        if(!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) return false;
+        if(!isVisible(method.getDeclaringClass())) return false;
+        if(!isVisible(method.getReturnType()))     return false;
+
+        Class[] parameterTypes = method.getParameterTypes();
+        for(int i=0; i<parameterTypes.length; i++){
+            if(!isVisible(parameterTypes[i])) return false;
+        }
+        return true;
+    }
+
+    private static boolean isVisible(Class type){
+        while(type.isArray()){
+            type = type.getComponentType();
+        }
+        if(type.isPrimitive()) return true;
+        if(!Modifier.isPublic(type.getModifiers())) return false;
+        try {
+            return Class.forName(type.getName(), false, MethodAccessorFactory.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the wrapper class of the given primitive type, or the type itself if
+     * it is not a primitive type.
+     * @param type The type to return the wrapper class of.
+     * @return The wrapper class of the given type.
+     */
+    public static Class wrap(Class type){
+        if(!type.isPrimitive())   return type;
+        if(type == int.class)     return Integer.class;
+        if(type == long.class)    return Long.class;
+        if(type == double.class)  return Double.class;
+        if(type == float.class)   return Float.class;
+        if(type == short.class)   return Short.class;
+        if(type == byte.class)    return Byte.class;
+        if(type == boolean.class) return Boolean.class;
+        if(type == char.class)    return Character.class;
+        return Void.class;
+    }
+
+
+    /**
+     * Calls getter and setter methods via reflection. Used for methods that cannot be
+     * bound via the <code>LambdaMetafactory</code>.
+     */
+    private static class ReflectionAccessor implements IObjectGetter, IObjectSetter,
+            IIntGetter, ILongGetter, IDoubleGetter, IFloatGetter, IShortGetter, IByteGetter, IBooleanGetter,
+            IIntSetter, ILongSetter, IDoubleSetter, IFloatSetter, IShortSetter, IByteSetter, IBooleanSetter {
+
+        protected Method method = null;
+
+        public ReflectionAccessor(Method method) {
+            this.method = method;
+        }
+
+        public Object get(Object target) throws InvocationTargetException, IllegalAccessException {
+            return this.method.invoke(target, null);
+        }
+
+        public void set(Object target, Object value) throws InvocationTargetException, IllegalAccessException {
+            this.method.invoke(target, new Object[]{value});
+        }
+
+        public int getInt(Object target) throws InvocationTargetException, IllegalAccessException {
+            return ((Integer) get(target)).intValue();
+        }
+
+        public void setInt(Object target, int value) throws InvocationTargetException, IllegalAccessException {
+            set(target, Integer.valueOf(value));
+        }
+
+        public long getLong(Object target) throws InvocationTargetException, IllegalAccessException {
+            return ((Long) get(target)).longValue();
+        }
+
+        public void setLong(Object target, long value) throws InvocationTargetException, IllegalAccessException {
+            set(target, Long.valueOf(value));
+        }
+
+        public double getDouble(Object target) throws InvocationTargetException, IllegalAccessException {
+            return ((Double) get(target)).doubleValue();
+        }
+
+        public void setDouble(Object target, double value) throws InvocationTargetException, IllegalAccessException {
+            set(target, Double.valueOf(value));
+        }
+
+        public float getFloat(Object target) throws InvocationTargetException, IllegalAccessException {
+            return ((Float) get(target)).floatValue();
+        }
+
+        public void setFloat(Object target, float value) throws InvocationTargetException, IllegalAccessException {
+            set(target, Float.valueOf(value));
+        }
+
+        public short getShort(Object target) throws InvocationTargetException, IllegalAccessException {
+            return ((Short) get(target)).shortValue();
+        }
+
+        public void setShort(Object target, short value) throws InvocationTargetException, IllegalAccessException {
+            set(target, Short.valueOf(value));
+        }
+
+        public byte getByte(Object target) throws InvocationTargetException, IllegalAccessException {
+            return ((Byte) get(target)).byteValue();
+        }
+
+        public void setByte(Object target, byte value) throws InvocationTargetException, IllegalAccessException {
+            set(target, Byte.valueOf(value));
+        }
+
+        public boolean getBoolean(Object target) throws InvocationTargetException, IllegalAccessException {
+            return ((Boolean) get(target)).booleanValue();
+        }
+
+        public void setBoolean(Object target, boolean value) throws InvocationTargetException, IllegalAccessException {
+            set(target, Boolean.valueOf(value));
+        }
+    }
+}
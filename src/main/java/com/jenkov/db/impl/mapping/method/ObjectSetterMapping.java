@@ -37,12 +37,12 @@ import java.sql.SQLException;
 public class ObjectSetterMapping extends SetterMapping{
 
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        getObjectMethod().invoke(target, new Object[]{ result.getObject(getColumnName())});
+        getObjectSetter().set(target, result.getObject(columnIndex));
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getObject(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getObject(columnIndex);
     }
 }
@@ -36,12 +36,12 @@ import java.sql.SQLException;
 
 public class RefSetterMapping extends SetterMapping{
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ result.getRef(getColumnName())});
+       getObjectSetter().set(target, result.getRef(columnIndex));
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getRef(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getRef(columnIndex);
     }
 }
@@ -22,14 +22,60 @@ import com.jenkov.db.itf.PersistenceException;
 import com.jenkov.db.itf.mapping.ISetterMapping;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
 
 public class SetterMapping extends MethodMapping implements ISetterMapping{
-    
+
+    private static final Map RESET_VALUES = new HashMap();
+    static {
+        RESET_VALUES.put(boolean.class, Boolean.FALSE);
+        RESET_VALUES.put(byte.class   , Byte.valueOf((byte) 0));
+        RESET_VALUES.put(short.class  , Short.valueOf((short) 0));
+        RESET_VALUES.put(char.class   , Character.valueOf((char) 0));
+        RESET_VALUES.put(int.class    , Integer.valueOf(0));
+        RESET_VALUES.put(long.class   , Long.valueOf(0));
+        RESET_VALUES.put(float.class  , Float.valueOf(0));
+        RESET_VALUES.put(double.class , Double.valueOf(0));
+    }
+
+    protected IObjectSetter objectSetter = null;
+    protected Object        resetValue   = null;
+
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.objectSetter = member != null ? MethodAccessorFactory.createSetter(member) : null;
+        this.resetValue   = member != null ? RESET_VALUES.get(member.getParameterTypes()[0]) : null;
+    }
+
+    /**
+     * Returns the setter bound to the setter method of this mapping. The setter is
+     * created when the setter method is set on this mapping.
+     * @return The setter bound to the setter method of this mapping.
+     */
+    protected IObjectSetter getObjectSetter() {
+        if(this.objectSetter == null){
+            this.objectSetter = MethodAccessorFactory.createSetter(getObjectMethod());
+        }
+        return this.objectSetter;
+    }
+
        public void insertValueIntoObject(Object target, ResultSet result) throws PersistenceException{
        try {
-           insertValueIntoObjectDo(target, result);
+           insertValueIntoObject(target, result, result.findColumn(getColumnName()));
+        } catch (SQLException e) {
+           throw new PersistenceException("Could not set value of type <"
+           + getObjectMethod().getParameterTypes()[0] + "> of column <"
+           + getColumnName() + "> from ResultSet on target object <" + target + ">", e);
+        }
+    }
+
+       public void insertValueIntoObject(Object target, ResultSet result, int columnIndex) throws PersistenceException{
+       try {
+           insertValueIntoObjectDo(target, result, columnIndex);
         } catch (IllegalAccessException e) {
             throw new PersistenceException("Could not set value of type <"
             + getObjectMethod().getParameterTypes()[0] + ">  of column  <"
@@ -42,6 +88,10 @@ public class SetterMapping extends MethodMapping implements ISetterMapping{
            throw new PersistenceException("Could not set value of type <"
            + getObjectMethod().getParameterTypes()[0] + "> of column <"
            + getColumnName() + "> from ResultSet  on target object <" + target + ">", e);
+        } catch (RuntimeException e) {
+           throw new PersistenceException("Could not set value of type <"
+           + getObjectMethod().getParameterTypes()[0] + "> of column <"
+           + getColumnName() + "> from ResultSet on target object <" + target + ">", e);
         } catch (SQLException e) {
            throw new PersistenceException("Could not set value of type <"
            + getObjectMethod().getParameterTypes()[0] + "> of column <"
@@ -49,7 +99,13 @@ public class SetterMapping extends MethodMapping implements ISetterMapping{
         }
     }
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    /**
+     * Reads the value of the given column from the <code>ResultSet</code> and inserts
+     * it into the target object. Subclasses read the column by index rather than by
+     * name, so the column name is only resolved once per <code>ResultSet</code>
+     * when reading via a precompiled row plan.
+     */
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException{
           //System.out.println("MethodMapping.insertValueIntoObjectDo - default implementation does nothing.");
     }
@@ -57,13 +113,64 @@ public class SetterMapping extends MethodMapping implements ISetterMapping{
 
     public Object getValueFromResultSet(ResultSet result) throws PersistenceException {
         try {
-            return getValueFromResultSetDo(result);
+            return getValueFromResultSetDo(result, result.findColumn(getColumnName()));
         } catch (SQLException e) {
             throw new PersistenceException("Error getting value from ResultSet", e);
         }
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException{
+    public Object getValueFromResultSet(ResultSet result, int columnIndex) throws PersistenceException {
+        try {
+            return getValueFromResultSetDo(result, columnIndex);
+        } catch (SQLException e) {
+            throw new PersistenceException("Error getting value from ResultSet", e);
+        }
+    }
+
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException{
         return null;
     }
+
+    public void setValueInObject(Object target, Object value) throws PersistenceException {
+        if(value == null && this.resetValue != null) return;
+        try {
+            setValueInObjectDo(target, value);
+        } catch (InvocationTargetException e) {
+            throw new PersistenceException("Could not set value <" + value + "> of column <"
+            + getColumnName() + "> on target object <" + target + ">", e);
+        } catch (IllegalAccessException e) {
+            throw new PersistenceException("Could not set value <" + value + "> of column <"
+            + getColumnName() + "> on target object <" + target + ">", e);
+        } catch (RuntimeException e) {
+            throw new PersistenceException("Could not set value <" + value + "> of column <"
+            + getColumnName() + "> on target object <" + target + ">", e);
+        }
+    }
+
+    /**
+     * Inserts a value as returned by <code>getValueFromResultSetDo(...)</code> into the target object.
+     * Subclasses whose values from the <code>ResultSet</code> differ from their member type override this
+     * method to convert the value.
+     */
+    protected void setValueInObjectDo(Object target, Object value) throws InvocationTargetException, IllegalAccessException {
+        getObjectSetter().set(target, value);
+    }
+
+    public void resetValueInObject(Object target) throws PersistenceException {
+        try {
+            getObjectSetter().set(target, this.resetValue);
+        } catch (InvocationTargetException e) {
+            throw new PersistenceException("Could not reset value of type <"
+            + getObjectMethod().getParameterTypes()[0] + "> of column <"
+            + getColumnName() + "> on target object <" + target + ">", e);
+        } catch (IllegalAccessException e) {
+            throw new PersistenceException("Could not reset value of type <"
+            + getObjectMethod().getParameterTypes()[0] + "> of column <"
+            + getColumnName() + "> on target object <" + target + ">", e);
+        } catch (RuntimeException e) {
+            throw new PersistenceException("Could not reset value of type <"
+            + getObjectMethod().getParameterTypes()[0] + "> of column <"
+            + getColumnName() + "> on target object <" + target + ">", e);
+        }
+    }
 }
@@ -21,6 +21,8 @@
  */
 package com.jenkov.db.impl.mapping.method;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 
@@ -32,6 +34,23 @@ import java.sql.SQLException;
  */
 public class ShortGetterMapping extends GetterMapping{
 
+    protected IShortGetter shortGetter = null;
+
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.shortGetter = member != null && member.getReturnType() == short.class ?
+                MethodAccessorFactory.createShortGetter(member) : null;
+    }
+
+    protected void insertValueFromObjectDo(Object target, PreparedStatement statement, int index)
+    throws SQLException, InvocationTargetException, IllegalAccessException {
+        if(this.shortGetter != null){
+            statement.setShort(index, this.shortGetter.getShort(target));
+        } else {
+            super.insertValueFromObjectDo(target, statement, index);
+        }
+    }
+
     protected void insertObjectDo(Object value, PreparedStatement statement, int index) throws SQLException {
         if(value != null){
             statement.setShort(index, ((Short) value).shortValue());
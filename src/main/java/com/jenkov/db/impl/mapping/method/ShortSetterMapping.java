@@ -22,6 +22,7 @@
 package com.jenkov.db.impl.mapping.method;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
@@ -36,16 +37,28 @@ import java.sql.SQLException;
 
 public class ShortSetterMapping extends SetterMapping{
 
+    protected IShortSetter shortSetter = null;
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    public void setObjectMethod(Method member) {
+        super.setObjectMethod(member);
+        this.shortSetter = member != null && member.getParameterTypes()[0] == short.class ?
+                MethodAccessorFactory.createShortSetter(member) : null;
+    }
+
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-        if(result.getObject(getColumnName()) != null){
-            getObjectMethod().invoke(target, new Object[]{ new Short(result.getShort(getColumnName()))});
+        short value = result.getShort(columnIndex);
+        if(result.wasNull()) return;
+
+        if(this.shortSetter != null){
+            this.shortSetter.setShort(target, value);
+        } else {
+            getObjectSetter().set(target, Short.valueOf(value));
         }
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return new Short(result.getShort(getColumnName()));
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return Short.valueOf(result.getShort(columnIndex));
     }
 
 }
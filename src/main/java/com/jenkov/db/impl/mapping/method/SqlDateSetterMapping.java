@@ -36,13 +36,13 @@ import java.sql.SQLException;
 public class SqlDateSetterMapping extends SetterMapping{
 
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ result.getDate(getColumnName())});
+       getObjectSetter().set(target, result.getDate(columnIndex));
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getDate(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getDate(columnIndex);
     }
 
 }
@@ -21,6 +21,8 @@
  */
 package com.jenkov.db.impl.mapping.method;
 
+import com.jenkov.db.impl.StringCache;
+
 import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -31,16 +33,36 @@ import java.sql.SQLException;
  * instance and insert it into a target object, by calling the target
  * object matching setter method.
  *
+ * <br/><br/>
+ * If a <code>StringCache</code> is set on the mapping, the strings read are deduplicated
+ * via that cache.
+ *
  * @author Jakob Jenkov, Jenkov Development
  */
 public class StringSetterMapping extends SetterMapping{
 
-   protected void insertValueIntoObjectDo(Object target, ResultSet result)
+   protected StringCache stringCache = null;
+
+   protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
    throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ result.getString(getColumnName())});
+       getObjectSetter().set(target, getValueFromResultSetDo(result, columnIndex));
    }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getString(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        if(this.stringCache == null) return result.getString(columnIndex);
+        return this.stringCache.deduplicate(result.getString(columnIndex));
+    }
+
+    public StringCache getStringCache() {
+        return stringCache;
+    }
+
+    /**
+     * Sets the cache used to deduplicate the strings read by this mapping.
+     * Set to null to disable deduplication, which is the default.
+     * @param stringCache The cache to deduplicate the read strings via.
+     */
+    public void setStringCache(StringCache stringCache) {
+        this.stringCache = stringCache;
     }
 }
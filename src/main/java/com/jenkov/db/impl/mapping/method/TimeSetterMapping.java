@@ -35,13 +35,13 @@ import java.sql.SQLException;
  */
 public class TimeSetterMapping extends SetterMapping{
 
-    protected void insertValueIntoObjectDo(Object target, ResultSet result)
+    protected void insertValueIntoObjectDo(Object target, ResultSet result, int columnIndex)
     throws SQLException, InvocationTargetException, IllegalAccessException {
-       getObjectMethod().invoke(target, new Object[]{ result.getTime(getColumnName())});
+       getObjectSetter().set(target, result.getTime(columnIndex));
     }
 
-    protected Object getValueFromResultSetDo(ResultSet result) throws SQLException {
-        return result.getTime(getColumnName());
+    protected Object getValueFromResultSetDo(ResultSet result, int columnIndex) throws SQLException {
+        return result.getTime(columnIndex);
     }
 
 }
@@ -18,7 +18,7 @@ public abstract class VersioningMapping extends GetterMapping implements IVersio
 	public void compareVersioning(Object target, PreparedStatement statement,
 			int index) throws PersistenceException {
 		try {
-			compareDo(getObjectMethod().invoke(target, null), statement, index);
+			compareDo(getObjectGetter().get(target), statement, index);
         } catch (SQLException e) {
             throw new PersistenceException("Could not insert value of type  "
                     + getObjectMethod().getReturnType() + "  for field  "
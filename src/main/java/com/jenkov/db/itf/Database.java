@@ -21,7 +21,11 @@ package com.jenkov.db.itf;
 import com.jenkov.db.jdbc.SimpleDataSource;
 
 import javax.sql.DataSource;
+import java.math.BigDecimal;
 import java.sql.*;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.UUID;
 
 
 /**
@@ -34,26 +38,77 @@ import java.sql.*;
  */
 public class Database {
 
-    public static final Database DEFAULT    = new Database("Default - JDBC Compliant Database", true, true, true);
-    public static final Database DAFFODIL   = new Database("DaffodilDB"          , true, true, true);   //true, false, true ??
-    public static final Database DERBY      = new Database("Apache Derby"        , true, true, false);
-    public static final Database HSQLDB     = new Database("HSQL Database Engine", true, false, true);
-    public static final Database H2         = new Database("H2"                  , false, true, true);
-    public static final Database MYSQL      = new Database("MySQL"               , true, true, true);
-    public static final Database POSTGRESQL = new Database("PostgreSQL"          , true, false, true);
-    public static final Database FIREBIRD   = new Database("Firebird"            , true, false, true);
+    public static final String   PAGING_OFFSET_FETCH = " offset ? rows fetch next ? rows only";
+    public static final String   PAGING_LIMIT        = " limit ?, ?";
+    public static final String   ARRAY_IN_ANY        = " = ANY(?)";
+    public static final String   ARRAY_IN_UNNEST     = " in (UNNEST(?))";
+
+    /**
+     * Array element type names, in the order BIGINT, DOUBLE, NUMERIC, VARCHAR, UUID, DATE, TIMESTAMP, BOOLEAN,
+     * as passed to <code>Connection.createArrayOf(...)</code>. Null means arrays of that type are not supported.
+     */
+    public static final String[] ARRAY_TYPES_SQL        = {"BIGINT", "DOUBLE", "NUMERIC", "VARCHAR", "UUID", "DATE", "TIMESTAMP", "BOOLEAN"};
+    public static final String[] ARRAY_TYPES_HSQLDB     = {"BIGINT", "DOUBLE", "NUMERIC", "VARCHAR", null  , "DATE", "TIMESTAMP", "BOOLEAN"};
+    public static final String[] ARRAY_TYPES_POSTGRESQL = {"int8"  , "float8", "numeric", "varchar", "uuid", "date", "timestamp", "bool"   };
+
+    public static final String   TEMPORARY_TABLE_LOCAL = "create local temporary table if not exists %s (%s) transactional";
+    public static final String   TEMPORARY_TABLE       = "create temporary table if not exists %s (%s)";
+
+    public static final Database DEFAULT    = new Database("Default - JDBC Compliant Database", true, true, true, false, null);
+    public static final Database DAFFODIL   = new Database("DaffodilDB"          , true, true, true, false, null);   //true, false, true ??
+    public static final Database DERBY      = new Database("Apache Derby"        , true, true, false, false, PAGING_OFFSET_FETCH);
+    public static final Database HSQLDB     = new Database("HSQL Database Engine", true, false, true, true, PAGING_OFFSET_FETCH, ARRAY_IN_UNNEST, ARRAY_TYPES_HSQLDB, null);
+    public static final Database H2         = new Database("H2"                  , false, true, true, true, PAGING_OFFSET_FETCH, ARRAY_IN_ANY, TEMPORARY_TABLE_LOCAL);
+    public static final Database MYSQL      = new Database("MySQL"               , true, true, true, true, PAGING_LIMIT, null, TEMPORARY_TABLE);
+    public static final Database POSTGRESQL = new Database("PostgreSQL"          , true, false, true, true, PAGING_OFFSET_FETCH, ARRAY_IN_ANY, ARRAY_TYPES_POSTGRESQL, TEMPORARY_TABLE);
+    public static final Database FIREBIRD   = new Database("Firebird"            , true, false, true, false, null);
 
     //todo add static factory method that can determine the type of a database from a connection.
     protected String  name                                                         = null;
     protected boolean isPreparedStatementParameterCountSupported                   = true;
     protected boolean isPrepareStatementStatement_RETURN_GENERATED_KEYS_supported  = true;
     protected boolean isResultSetGetRowSupported                                   = true;
+    protected boolean isRowValueInSupported                                        = false;
+    protected String  pagingClause                                                 = null;
+    protected String  arrayInClause                                                = null;
+    protected String[] arrayTypeNames                                              = null;
+    protected String  temporaryTableStatement                                      = null;
 
     public Database(String name, boolean preparedStatementParameterCountSupported, boolean prepareStatementStatement_RETURN_GENERATED_KEYS_supported, boolean resultSetGetRowSupported) {
+        this(name, preparedStatementParameterCountSupported, prepareStatementStatement_RETURN_GENERATED_KEYS_supported, resultSetGetRowSupported, false, null);
+    }
+
+    public Database(String name, boolean preparedStatementParameterCountSupported, boolean prepareStatementStatement_RETURN_GENERATED_KEYS_supported, boolean resultSetGetRowSupported,
+                    boolean rowValueInSupported, String pagingClause) {
         this.name = name;
         isPreparedStatementParameterCountSupported = preparedStatementParameterCountSupported;
         isPrepareStatementStatement_RETURN_GENERATED_KEYS_supported = prepareStatementStatement_RETURN_GENERATED_KEYS_supported;
         isResultSetGetRowSupported = resultSetGetRowSupported;
+        isRowValueInSupported = rowValueInSupported;
+        this.pagingClause = pagingClause;
+    }
+
+    public Database(String name, boolean preparedStatementParameterCountSupported, boolean prepareStatementStatement_RETURN_GENERATED_KEYS_supported, boolean resultSetGetRowSupported,
+                    boolean rowValueInSupported, String pagingClause, String arrayInClause) {
+        this(name, preparedStatementParameterCountSupported, prepareStatementStatement_RETURN_GENERATED_KEYS_supported, resultSetGetRowSupported,
+                rowValueInSupported, pagingClause, arrayInClause, null);
+    }
+
+    public Database(String name, boolean preparedStatementParameterCountSupported, boolean prepareStatementStatement_RETURN_GENERATED_KEYS_supported, boolean resultSetGetRowSupported,
+                    boolean rowValueInSupported, String pagingClause, String arrayInClause, String temporaryTableStatement) {
+        this(name, preparedStatementParameterCountSupported, prepareStatementStatement_RETURN_GENERATED_KEYS_supported, resultSetGetRowSupported,
+                rowValueInSupported, pagingClause, arrayInClause, arrayInClause != null ? ARRAY_TYPES_SQL : null,
+                temporaryTableStatement);
+    }
+
+    public Database(String name, boolean preparedStatementParameterCountSupported, boolean prepareStatementStatement_RETURN_GENERATED_KEYS_supported, boolean resultSetGetRowSupported,
+                    boolean rowValueInSupported, String pagingClause, String arrayInClause, String[] arrayTypeNames,
+                    String temporaryTableStatement) {
+        this(name, preparedStatementParameterCountSupported, prepareStatementStatement_RETURN_GENERATED_KEYS_supported, resultSetGetRowSupported,
+                rowValueInSupported, pagingClause);
+        this.arrayInClause           = arrayInClause;
+        this.arrayTypeNames          = arrayTypeNames;
+        this.temporaryTableStatement = temporaryTableStatement;
     }
 
     public String getName(){
@@ -72,6 +127,93 @@ public class Database {
         return isResultSetGetRowSupported;
     }
 
+    /**
+     * Returns true if the database supports row value constructors in IN lists,
+     * like <code>where (col1, col2) in ((?, ?), (?, ?))</code>. Used when reading
+     * objects with composite primary keys by a list of primary keys.
+     */
+    public boolean isRowValueInSupported() {
+        return isRowValueInSupported;
+    }
+
+    /**
+     * Returns the clause to append to a select statement to have the database skip and limit the
+     * records returned, or null if the database has no such clause (or it is not known). The clause
+     * contains two ?-marks: The first for the number of records to skip, the second for the maximum
+     * number of records to return. For instance " offset ? rows fetch next ? rows only".
+     */
+    public String getPagingClause() {
+        return pagingClause;
+    }
+
+    /**
+     * Returns the clause to append to a column name to match the column against the values of a single
+     * SQL array parameter, or null if the database does not support array parameters (or it is not known).
+     * For instance " = ANY(?)", giving <code>where id = ANY(?)</code>. Used when reading objects by many
+     * primary keys or foreign keys, so the same SQL statement can be used regardless of the number of keys.
+     */
+    public String getArrayInClause() {
+        return arrayInClause;
+    }
+
+    /**
+     * Returns the type name to pass to <code>Connection.createArrayOf(...)</code> for an array of the given values,
+     * or null if this database has no array type for them. All non-null values must be of the same kind:
+     * Integral numbers (BIGINT), Double or Float (DOUBLE), BigDecimal (NUMERIC), String (VARCHAR), UUID,
+     * java.sql.Date (DATE), java.sql.Timestamp (TIMESTAMP), or Boolean. For instance PostgreSQL
+     * returns "int8" for a collection of Long's.
+     */
+    public String getArrayTypeName(Collection values) {
+        if(this.arrayTypeNames == null) return null;
+        int kind = -1;
+        Iterator iterator = values.iterator();
+        while(iterator.hasNext()){
+            Object value = iterator.next();
+            if(value == null) continue;
+            int valueKind = getArrayElementKind(value);
+            if(valueKind == -1 || (kind != -1 && kind != valueKind)) return null;
+            kind = valueKind;
+        }
+        return kind != -1 ? this.arrayTypeNames[kind] : null;
+    }
+
+    /**
+     * Returns the index of the kind of the given value in the array type names, or -1 if arrays of it are not supported.
+     */
+    protected int getArrayElementKind(Object value) {
+        if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) return 0;
+        if(value instanceof Double || value instanceof Float) return 1;
+        if(value instanceof BigDecimal)    return 2;
+        if(value instanceof String)        return 3;
+        if(value instanceof UUID)          return 4;
+        if(value instanceof java.sql.Date) return 5;
+        if(value instanceof Timestamp)     return 6;
+        if(value instanceof Boolean)       return 7;
+        return -1;
+    }
+
+    /**
+     * Returns the statement creating a session scoped temporary table if it does not already exist, or null
+     * if the database has no such statement (or it is not known). The statement contains two %s-marks:
+     * The first for the table name, the second for the column definitions. For instance
+     * "create temporary table if not exists %s (%s)". Used when reading objects by very many keys,
+     * by inserting the keys into a temporary table, and joining against it.
+     */
+    public String getTemporaryTableStatement() {
+        return temporaryTableStatement;
+    }
+
+    /**
+     * Returns the fetch size to set on statements whose results are streamed, given the configured fetch size.
+     * MySQL's driver reads the full result into memory unless the fetch size is Integer.MIN_VALUE, which makes
+     * it stream the records one by one (or unless the connection URL contains useCursorFetch=true), so
+     * Integer.MIN_VALUE is returned for MySQL. All other databases return the given fetch size.
+     */
+    public int getStreamingFetchSize(int fetchSize) {
+        if(this == MYSQL) return Integer.MIN_VALUE;
+        return fetchSize;
+    }
+
 
     public String toString() {
         return this.name;
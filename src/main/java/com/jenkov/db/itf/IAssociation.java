@@ -0,0 +1,46 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.itf;
+
+import java.util.List;
+
+/**
+ * Describes how child objects are attached to their parent objects, when reading the children of
+ * many parents at once via <code>IObjectDao.readChildren(...)</code>. The children are matched to
+ * a parent by comparing the value of their foreign key column to the key returned for the parent,
+ * usually the primary key of the parent.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface IAssociation<P, C> {
+
+    /**
+     * Returns the key of the given parent object, which the foreign key column of its children refers to.
+     * @param parent The parent object to return the key of.
+     * @return The key of the parent object. If null, no children are read for the parent.
+     */
+    public Object getKey(P parent);
+
+    /**
+     * Called once for each parent object with the children read for it.
+     * @param parent The parent object to attach the children to.
+     * @param children The children of the parent object. An empty list if the parent has no children.
+     */
+    public void setChildren(P parent, List<C> children);
+
+}
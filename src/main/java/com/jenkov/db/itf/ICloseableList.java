@@ -0,0 +1,37 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+package com.jenkov.db.itf;
+
+import java.util.List;
+
+/**
+ * A list of objects read from the database, which may hold resources besides the objects themselves,
+ * for instance a temporary file the objects are spilled to. Call <code>close()</code> when the list
+ * is no longer needed, or use the list in a try-with-resources block.
+ * Calling <code>close()</code> more than once has no effect.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface ICloseableList<T> extends List<T>, AutoCloseable {
+
+    /**
+     * Releases the resources held by this list. Objects not kept on the heap cannot be accessed afterwards.
+     * @throws PersistenceException If releasing the resources fails.
+     */
+    public void close() throws PersistenceException;
+
+}
@@ -0,0 +1,56 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.itf;
+
+/**
+ * A column of values read by an <code>IColumnarDao</code>. The values are kept in an array of the
+ * type matching the SQL type of the column. The getters convert between the numeric types, so
+ * <code>getDouble(row)</code> works on an integer column too. Calling a getter for a null value
+ * returns 0 (or null for <code>getString()</code> and <code>getObject()</code>), so check
+ * <code>isNull(row)</code> where nulls are allowed.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface IColumn {
+
+    /**
+     * Returns the name of the column, as returned by the <code>ResultSetMetaData</code>.
+     * @return The name of the column.
+     */
+    public String  getName();
+
+    /**
+     * Returns the SQL type of the column, as defined in <code>java.sql.Types</code>.
+     * @return The SQL type of the column.
+     */
+    public int     getSqlType();
+
+    /**
+     * Returns the number of values in the column.
+     * @return The number of values in the column.
+     */
+    public int     size();
+
+    public boolean isNull   (int row);
+    public long    getLong  (int row);
+    public int     getInt   (int row);
+    public double  getDouble(int row);
+    public String  getString(int row);
+    public Object  getObject(int row);
+
+}
@@ -0,0 +1,58 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.itf;
+
+/**
+ * Reads the result of an SQL query into columns of primitive arrays instead of into objects or maps.
+ * Numeric columns are read into <code>long[]</code>, <code>int[]</code> or <code>double[]</code> arrays with
+ * a bitmap marking the null values, and text columns are dictionary encoded, so each distinct string is only
+ * kept once. This takes far less memory than an object or map per record when reading many records, and
+ * the arrays can be processed column by column.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface IColumnarDao {
+
+    /**
+     * Reads the records of the given SQL query into columns.
+     * @param sql The SQL query to read the records of.
+     * @return The columns of the records read.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public IColumnarResult read(String sql) throws PersistenceException;
+
+    /**
+     * Reads the records of the given SQL query into columns. The SQL is prepared, and the parameters
+     * inserted into the <code>PreparedStatement</code> in the sequence they are given.
+     * @param sql The SQL query to read the records of.
+     * @param parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return The columns of the records read.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public IColumnarResult read(String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Reads the records of the given SQL query into columns. The given statement manager
+     * prepares and executes the <code>PreparedStatement</code>.
+     * @param sql The SQL query to read the records of.
+     * @param statementManager The statement manager preparing and executing the statement.
+     * @return The columns of the records read.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public IColumnarResult read(String sql, IPreparedStatementManager statementManager) throws PersistenceException;
+}
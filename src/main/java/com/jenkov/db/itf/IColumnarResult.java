@@ -0,0 +1,53 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.itf;
+
+/**
+ * The records read by an <code>IColumnarDao</code>, as one <code>IColumn</code> per column of the result.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface IColumnarResult {
+
+    /**
+     * Returns the number of records read.
+     * @return The number of records read.
+     */
+    public int     getRowCount();
+
+    /**
+     * Returns the number of columns in the result.
+     * @return The number of columns in the result.
+     */
+    public int     getColumnCount();
+
+    /**
+     * Returns the column at the given index. The first column has index 0.
+     * @param index The index of the column to return.
+     * @return The column at the given index.
+     */
+    public IColumn getColumn(int index);
+
+    /**
+     * Returns the column with the given name, as returned by the <code>ResultSetMetaData</code>.
+     * The name is matched ignoring case.
+     * @param name The name of the column to return.
+     * @return The column with the given name, or null if the result has no such column.
+     */
+    public IColumn getColumn(String name);
+}
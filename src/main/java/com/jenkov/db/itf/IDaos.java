@@ -72,6 +72,14 @@ public interface IDaos {
      */
     public IMapDao                   getMapDao       (                                         );
 
+    /**
+     * Returns an IColumnarDao instance. If this method is called more than once, the same IColumnarDao
+     * instance is returned.
+     *
+     * @return An IColumnarDao instance.
+     */
+    public IColumnarDao              getColumnarDao  (                                         );
+
 //    public ResultSetView             getResultSetView(Object objectMappingKey, ResultSet result) throws PersistenceException;
 
     /**
@@ -18,6 +18,8 @@
 
 package com.jenkov.db.itf;
 
+import java.util.List;
+
 /**
  * Represents a DAO capable of simplifying the most ordinary JDBC tasks like reading
  * a long from the database, iterating a ResultSet and executing an update.
@@ -55,6 +57,91 @@ public interface IJdbcDao {
      */
     public Long readLong(String sql, Object ... parameters)         throws PersistenceException;
 
+    /**
+     * Reads a long from the database using the given SQL query, like <code>readLong(String sql, Object ... parameters)</code>
+     * except the long is returned as a primitive <code>long</code>. Only the first record is read.
+     * A NULL value is returned as 0.
+     *
+     * @param sql The SQL that locates the record and column containing the long to read.
+     * @param parameters The parameters to insert into the PreparedStatement before executing the SQL.
+     * @return A long read from the first record and first column in the ResultSet.
+     * @throws PersistenceException If something goes wrong during the read, or if the query returns no records.
+     */
+    public long readLongValue(String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like <code>readLongValue(String sql, Object ... parameters)</code> except an <code>int</code> is read.
+     */
+    public int readIntValue(String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like <code>readLongValue(String sql, Object ... parameters)</code> except a <code>double</code> is read.
+     */
+    public double readDoubleValue(String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Reads the first column of all records located by the given SQL into a <code>long</code> array.
+     * The values are read with <code>ResultSet.getLong()</code> directly into a growing array, so no
+     * <code>Long</code> objects are created, even for millions of records. NULL values are read as 0.
+     * For instance:<br/><br/>
+     *
+     * select id from books where author_id = ?
+     *
+     * @param sql The SQL query that locates the values to read.
+     * @param parameters The parameters to insert into the PreparedStatement before
+     *            executing the SQL. For instance new Object[]{45}
+     * @return The values of the first column of all records, in the order the records were read.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public long[] readLongArray(String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like <code>readLongArray(String sql, Object ... parameters)</code> except the PreparedStatement is
+     * prepared, initialized and post-processed by the given statement manager.
+     */
+    public long[] readLongArray(String sql, IPreparedStatementManager statementManager) throws PersistenceException;
+
+    /**
+     * Like <code>readLongArray(String sql, Object ... parameters)</code> except the values are read into
+     * an <code>int</code> array using <code>ResultSet.getInt()</code>.
+     */
+    public int[] readIntArray(String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like <code>readIntArray(String sql, Object ... parameters)</code> except the PreparedStatement is
+     * prepared, initialized and post-processed by the given statement manager.
+     */
+    public int[] readIntArray(String sql, IPreparedStatementManager statementManager) throws PersistenceException;
+
+    /**
+     * Like <code>readLongArray(String sql, Object ... parameters)</code> except the values are read into
+     * a <code>double</code> array using <code>ResultSet.getDouble()</code>.
+     */
+    public double[] readDoubleArray(String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like <code>readDoubleArray(String sql, Object ... parameters)</code> except the PreparedStatement is
+     * prepared, initialized and post-processed by the given statement manager.
+     */
+    public double[] readDoubleArray(String sql, IPreparedStatementManager statementManager) throws PersistenceException;
+
+    /**
+     * Reads the first column of all records located by the given SQL into a list of strings,
+     * using <code>ResultSet.getString()</code>. NULL values are read as null.
+     *
+     * @param sql The SQL query that locates the values to read.
+     * @param parameters The parameters to insert into the PreparedStatement before executing the SQL.
+     * @return The values of the first column of all records, in the order the records were read.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public List<String> readStringList(String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like <code>readStringList(String sql, Object ... parameters)</code> except the PreparedStatement is
+     * prepared, initialized and post-processed by the given statement manager.
+     */
+    public List<String> readStringList(String sql, IPreparedStatementManager statementManager) throws PersistenceException;
+
     /**
      * Reads all the ids located by the given SQL into an id string that can
      * be used in an SQL select ... where in (id1, id2,...) query.
@@ -210,4 +297,41 @@ public interface IJdbcDao {
      */
     public int update(String sql, IPreparedStatementManager statementManager) throws PersistenceException;
 
+
+    /**
+     * Returns a publisher that reads the records of the given SQL as its subscribers request them.
+     * Each record is published as an <code>Object[]</code> holding the column values, as returned
+     * by <code>ResultSet.getObject()</code>, in column order. Records are only read from the
+     * <code>ResultSet</code> as far as the subscriber has requested them.
+     *
+     * <br/><br/>
+     * The records are read, and the subscriber called, on the read executor of the persistence configuration.
+     * If a <code>DataSource</code> is set on the persistence configuration, and the connection of this DAO is not
+     * inside a transaction, each subscription reads on a connection of its own. Otherwise the records are read on
+     * the connection of this DAO, inside its current transaction, and the connection is left open. The DAO must then
+     * not be used until the subscription ends. See
+     * <code>IObjectDao.readPublisher(Object objectMappingKey, String sql, Object ... parameters)</code>
+     * for more details.
+     *
+     * @param sql        The SQL to execute.
+     * @param parameters The parameters to insert into the PreparedStatement.
+     * @return A publisher of the records read.
+     * @throws PersistenceException If the publisher cannot be created.
+     */
+    public IPublisher<Object[]> readPublisher(String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like <code>readPublisher(String sql, Object ... parameters)</code> except each subscription obtains
+     * its own connection from the <code>DataSource</code> of the persistence configuration, and closes it
+     * when the subscription completes, fails or is cancelled. The records are therefore not read inside
+     * the current transaction of this DAO.
+     *
+     * @param sql        The SQL to execute.
+     * @param parameters The parameters to insert into the PreparedStatement.
+     * @return A publisher of the records read.
+     * @throws PersistenceException If the publisher cannot be created, or the persistence configuration
+     *                              has no <code>DataSource</code>.
+     */
+    public IPublisher<Object[]> readPublisherOnNewConnection(String sql, Object ... parameters) throws PersistenceException;
+
 }
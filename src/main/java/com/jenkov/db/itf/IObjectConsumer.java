@@ -0,0 +1,42 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.itf;
+
+/**
+ * A callback receiving the objects read by the <code>readEach(...)</code> methods of the
+ * <code>IObjectDao</code> and <code>IObjectReader</code>, one object per record.
+ *
+ * <br/><br/>
+ * If the objects are read with instance reuse, the object passed to <code>consume()</code>
+ * is only valid until the method returns. It will be refreshed with the values of a later
+ * record, so the consumer must copy any values it needs to keep, rather than keep the object.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface IObjectConsumer<T> {
+
+    /**
+     * Called with each object read.
+     * @param object The object read from the current record.
+     * @throws PersistenceException If the consumer fails. Reading stops, and the exception is
+     *         rethrown from the <code>readEach(...)</code> method.
+     */
+    public void consume(T object) throws PersistenceException;
+
+}
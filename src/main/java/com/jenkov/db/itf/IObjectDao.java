@@ -18,12 +18,16 @@
 
 package com.jenkov.db.itf;
 
+import com.jenkov.db.itf.mapping.IKey;
+
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * This interface represents a generic dao which is the preferred way of accesing Butterfly Persistence.
@@ -577,6 +581,177 @@ public interface IObjectDao {
      */
     public <T> List<T> readListByPrimaryKeys(Class<T> objectMappingKey, Collection primaryKeys) throws PersistenceException;
 
+
+    /**
+     * Like readListByPrimaryKeys(Object objectMappingKey, Collection primaryKeys) except only the given eager
+     * columns and the primary key columns are read into the objects. The remaining mapped columns are read
+     * into all objects of the returned list at once, when <code>loadRemaining()</code> or
+     * <code>getLoaded(int index)</code> is called on the list. Use this to avoid transferring large
+     * columns that are rarely needed, for instance when showing a list of objects.
+     *
+     * <br/><br/>
+     * The remaining columns are read using the connection of this DAO, so they must be loaded
+     * before the connection is closed.
+     *
+     * @param objectMappingKey The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param primaryKeys The primary key values identifying the records to be read into objects.
+     * @param eagerColumns The names of the columns to read right away. Column names are matched ignoring case.
+     * @return            The list of objects read, with only the eager columns and primary key columns read.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public IProjectedList readListByPrimaryKeys(Object objectMappingKey, Collection primaryKeys, Collection eagerColumns)
+    throws PersistenceException;
+
+    /**
+     * Like readListByPrimaryKeys(Object objectMappingKey, Collection primaryKeys, Collection eagerColumns) except this
+     * method only accepts Class objects as object mapping keys, and that you don't need to cast the returned list.
+     */
+    public <T> IProjectedList<T> readListByPrimaryKeys(Class<T> objectMappingKey, Collection primaryKeys, Collection eagerColumns)
+    throws PersistenceException;
+
+
+    /**
+     * Reads the objects whose foreign key column has one of the given values, for instance the order lines of
+     * a list of orders, and returns them grouped by foreign key value. Rather than reading the objects with one
+     * query per foreign key value, they are read with one query per chunk of foreign key values, using
+     * <code>where [foreignKeyColumn] in (?, ?, ...)</code>. The chunks are no larger than the maximum
+     * number of primary keys per statement of the persistence configuration.
+     *
+     * <br/><br/>
+     * Numeric foreign key values are matched by their value regardless of their type, so an <code>Integer</code>
+     * foreign key value matches a record with a <code>BIGINT</code> foreign key column.
+     *
+     * @param objectMappingKey The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param foreignKeyColumn The name of the foreign key column in the table of the objects to read.
+     * @param foreignKeys The foreign key values to read the objects for. Null values are ignored.
+     * @return A map from each of the given foreign key values to the list of objects read for it, in the order
+     *         the foreign key values were given. Foreign key values without objects map to an empty list.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public Map readListByForeignKeys(Object objectMappingKey, String foreignKeyColumn, Collection foreignKeys)
+    throws PersistenceException;
+
+    /**
+     * Like readListByForeignKeys(Object objectMappingKey, String foreignKeyColumn, Collection foreignKeys) except
+     * this method only accepts Class objects as object mapping keys, and that you don't need to cast the lists
+     * in the returned map.
+     */
+    public <T> Map<Object, List<T>> readListByForeignKeys(Class<T> objectMappingKey, String foreignKeyColumn,
+                                                          Collection foreignKeys) throws PersistenceException;
+
+    /**
+     * Reads all objects whose value in the given column is one of the given values. Depending on the number of
+     * values and the database, the values are matched using chunked IN lists, a single SQL array parameter
+     * (see <code>Database.getArrayInClause()</code>), or by inserting the values into a temporary table
+     * and joining against it (see <code>IPersistenceConfiguration.getTemporaryTableKeyThreshold()</code>).
+     * Use this method for looking up tens of thousands of keys at a time.
+     *
+     * @param objectMappingKey The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param column      The name of the column to match the values against.
+     * @param values      The values to read the objects for. Null values and duplicates are ignored.
+     * @return The objects read, in no particular order. An empty list if no objects were found.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public List readListByColumnValues(Object objectMappingKey, String column, Collection values)
+    throws PersistenceException;
+
+    /**
+     * Like readListByColumnValues(Object objectMappingKey, String column, Collection values) except
+     * this method only accepts Class objects as object mapping keys, and that you don't need to cast
+     * the returned list.
+     */
+    public <T> List<T> readListByColumnValues(Class<T> objectMappingKey, String column, Collection values)
+    throws PersistenceException;
+
+    /**
+     * Reads the children of all the given parent objects at once, and attaches them to their parents via the
+     * given association. The children are read as described for
+     * <code>readListByForeignKeys(Object objectMappingKey, String foreignKeyColumn, Collection foreignKeys)</code>,
+     * using the keys returned by the association for the parents. Use this instead of reading the children of
+     * each parent with a separate query (the N+1 query problem).
+     *
+     * @param objectMappingKey The object mapping key of the child objects.
+     * @param foreignKeyColumn The name of the foreign key column referring to the parent, in the table of the children.
+     * @param parents The parent objects to read the children of.
+     * @param association The association returning the key of each parent, and attaching the children to it.
+     * @return All the children read, grouped by parent.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public List readChildren(Object objectMappingKey, String foreignKeyColumn, Collection parents, IAssociation association)
+    throws PersistenceException;
+
+    /**
+     * Like readChildren(Object objectMappingKey, String foreignKeyColumn, Collection parents, IAssociation association)
+     * except this method only accepts Class objects as object mapping keys, and that you don't need to cast the
+     * returned list.
+     */
+    public <P, C> List<C> readChildren(Class<C> objectMappingKey, String foreignKeyColumn, Collection<P> parents,
+                                       IAssociation<P, C> association) throws PersistenceException;
+
+
+    /**
+     * Reads the next page of objects ordered by the primary key, starting after the given primary key
+     * (keyset pagination). To read all records page by page, pass null as last primary key to read the first
+     * page, and then pass the last object of each page to read the next page, until an empty list is returned.
+     *
+     * <br/><br/>
+     * Unlike a <code>PageReadFilter</code> the records before the page are never read by the database,
+     * since they are skipped by a <code>where</code> clause on the ordering columns, so reading a page
+     * costs the same regardless of how deep into the table the page is.
+     *
+     * @param objectMappingKey The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param lastPrimaryKey The primary key of the last object read, or the last object read itself.
+     *                    Compound primary keys must be passed as an <code>IKeyValue</code> or as the object.
+     *                    Null to read the first page.
+     * @param pageSize    The maximum number of objects to read.
+     * @return            The list of objects read, ordered by the primary key. An empty list if
+     *                    no more records exist after the given primary key.
+     * @throws PersistenceException If anything goes wrong during the read, or if the object mapping
+     *                    has no primary key.
+     */
+    public List readListAfter(Object objectMappingKey, Object lastPrimaryKey, int pageSize) throws PersistenceException;
+
+    /**
+     * Like readListAfter(Object objectMappingKey, Object lastPrimaryKey, int pageSize) except this method only accepts
+     * Class objects as object mapping keys, and that you don't need to cast the returned List.
+     */
+    public <T> List<T> readListAfter(Class<T> objectMappingKey, Object lastPrimaryKey, int pageSize) throws PersistenceException;
+
+    /**
+     * Like readListAfter(Object objectMappingKey, Object lastPrimaryKey, int pageSize) except the objects
+     * are ordered by the columns of the given key instead of the primary key columns. The columns must
+     * be named as in the object mapping, must not contain null values, and must be unique together,
+     * or records may be skipped or read twice. An index on the columns makes each page cheap to read.
+     *
+     * @param objectMappingKey The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param orderBy     The key containing the columns to order by, in order. If null the primary key is used.
+     *                    Create the key from a <code>List</code> of the columns, since <code>Key(String[])</code>
+     *                    sorts the columns by name.
+     * @param lastKey     The values of the ordering columns of the last object read as an <code>IKeyValue</code>,
+     *                    the last object read itself, or for single column keys the value of the column.
+     *                    Null to read the first page.
+     * @param pageSize    The maximum number of objects to read.
+     * @return            The list of objects read, ordered by the columns of the given key.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public List readListAfter(Object objectMappingKey, IKey orderBy, Object lastKey, int pageSize) throws PersistenceException;
+
+    /**
+     * Like readListAfter(Object objectMappingKey, IKey orderBy, Object lastKey, int pageSize) except this method
+     * only accepts Class objects as object mapping keys, and that you don't need to cast the returned List.
+     */
+    public <T> List<T> readListAfter(Class<T> objectMappingKey, IKey orderBy, Object lastKey, int pageSize) throws PersistenceException;
+
     /**
      * Reads a list of objects from the database using the object mapping stored or generated
      * by the given object mapping key, and the given SQL string. The objects will appear
@@ -1272,6 +1447,444 @@ public interface IObjectDao {
      */
     public <T> List<T> readList(Class<T> objectMappingKey, String sql, IReadFilter filter,  Object ...  parameters) throws PersistenceException;
 
+
+    /**
+     * Like readList(Object objectMappingKey, String sql, Object ...  parameters) except only the first objects,
+     * up to the read list spill threshold of the persistence configuration, are kept on the heap. The values of
+     * the remaining records are spilled to a temporary file, and turned into objects again when they are accessed.
+     * Use it for reads that may return more records than fit on the heap.
+     *
+     * <br/><br/>
+     * The returned list is read-only. Close it when it is no longer needed, to delete the temporary file,
+     * for instance by reading it in a try-with-resources block.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            A closeable list of the objects read from the database.
+     * @throws PersistenceException If anything goes wrong during the read, if spilling a record fails,
+     *                    if no persistence configuration is set, if the persistence configuration contains
+     *                    no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key.
+     */
+    public ICloseableList readSpillingList(Object objectMappingKey, String sql, Object ...  parameters) throws PersistenceException;
+
+    /**
+     * Like readSpillingList(Object objectMappingKey, String sql, Object ...  parameters) except this method only accepts
+     * Class objects as object mapping keys, and that you don't need to cast the objects in the returned list.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> ICloseableList<T> readSpillingList(Class<T> objectMappingKey, String sql, Object ...  parameters) throws PersistenceException;
+
+    /**
+     * Like readSpillingList(Object objectMappingKey, String sql, Object ...  parameters) except the given filter
+     * can include or exclude the records, the same way as in
+     * readList(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters).
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param filter
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public ICloseableList readSpillingList(Object objectMappingKey, String sql, IReadFilter filter, Object ...  parameters) throws PersistenceException;
+
+    /**
+     * Like readSpillingList(Object objectMappingKey, String sql, IReadFilter filter, Object ...  parameters) except
+     * this method only accepts Class objects as object mapping keys, and that you don't need to cast the objects
+     * in the returned list.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param filter
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> ICloseableList<T> readSpillingList(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ...  parameters) throws PersistenceException;
+
+
+    /**
+     * Reads objects lazily from the database, using the object mapping stored by the given
+     * object mapping key, the given SQL string, and the parameters. Rather than reading all objects
+     * into a list, the returned iterator reads one object from the <code>ResultSet</code> per call
+     * to <code>next()</code>. Use this method when reading more records than can be held in memory at once.
+     *
+     * <br/><br/>
+     * The <code>PreparedStatement</code> and <code>ResultSet</code> used by the iterator are closed when
+     * the last record has been read. If you stop iterating before that, you must call <code>close()</code>
+     * on the iterator. The connection of this DAO must stay open while iterating.
+     *
+     * <br/><br/>
+     * Errors occurring during iteration are thrown as <code>PersistenceExceptionUnchecked</code>.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            An iterator over the objects read from the database.
+     * @throws PersistenceException If anything goes wrong when executing the SQL, if no persistence
+     *                    configuration is set, if the persistence configuration contains
+     *                    no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key.
+     */
+    public IObjectIterator readIterator(Object objectMappingKey, String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readIterator(Object objectMappingKey, String sql, Object ... parameters) except this method only accepts
+     * Class objects as object mapping keys, and that you don't need to cast the objects returned by the iterator.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> IObjectIterator<T> readIterator(Class<T> objectMappingKey, String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readIterator(Object objectMappingKey, String sql, Object ... parameters) except the given filter
+     * can include or exclude the records as they are iterated, or end the iteration by signalling that it
+     * will not accept anymore records. The filter is applied the same way as in
+     * readList(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters).
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param filter      A filter that can include or exclude individual records.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            An iterator over the objects read from the database.
+     * @throws PersistenceException If anything goes wrong when executing the SQL, if no persistence
+     *                    configuration is set, if the persistence configuration contains
+     *                    no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key.
+     */
+    public IObjectIterator readIterator(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readIterator(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) except this
+     * method only accepts Class objects as object mapping keys, and that you don't need to cast the objects
+     * returned by the iterator.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param filter
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> IObjectIterator<T> readIterator(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readIterator(Object objectMappingKey, String sql, Object ... parameters) except the objects are
+     * returned as a sequential <code>java.util.stream.Stream</code>. The objects are read lazily from the
+     * <code>ResultSet</code> as the stream is consumed.
+     *
+     * <br/><br/>
+     * The <code>PreparedStatement</code> and <code>ResultSet</code> are closed when the stream is closed.
+     * Use the stream in a try-with-resources block, or call <code>close()</code> on it,
+     * unless the stream is always consumed to the end.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            A stream of the objects read from the database.
+     * @throws PersistenceException If anything goes wrong when executing the SQL, if no persistence
+     *                    configuration is set, if the persistence configuration contains
+     *                    no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key.
+     */
+    public Stream readStream(Object objectMappingKey, String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readStream(Object objectMappingKey, String sql, Object ... parameters) except this method only accepts
+     * Class objects as object mapping keys, and that you don't need to cast the objects in the stream.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> Stream<T> readStream(Class<T> objectMappingKey, String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readStream(Object objectMappingKey, String sql, Object ... parameters) except the given filter
+     * can include or exclude the records as they are read, or end the stream by signalling that it
+     * will not accept anymore records.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param filter      A filter that can include or exclude individual records.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            A stream of the objects read from the database.
+     * @throws PersistenceException If anything goes wrong when executing the SQL, if no persistence
+     *                    configuration is set, if the persistence configuration contains
+     *                    no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key.
+     */
+    public Stream readStream(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readStream(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) except this
+     * method only accepts Class objects as object mapping keys, and that you don't need to cast the objects
+     * in the stream.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param filter
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> Stream<T> readStream(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException;
+
+
+    /**
+     * Returns a publisher that reads objects from the database as its subscribers request them,
+     * using the object mapping stored by the given object mapping key, the given SQL string, and the parameters.
+     * Records are only read from the <code>ResultSet</code> as far as the subscriber has requested objects,
+     * so a slow subscriber holds back the reading rather than having objects buffered for it.
+     *
+     * <br/><br/>
+     * The records are read, and the subscriber called, on the read executor of the persistence configuration.
+     * Each subscriber gets its own execution of the SQL, started when it first requests objects.
+     *
+     * <br/><br/>
+     * If a <code>DataSource</code> is set on the persistence configuration, and the connection of this DAO is
+     * not inside a transaction (auto commit is on), each subscription reads on a connection of its own, like
+     * readPublisherOnNewConnection(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters).
+     * Otherwise the records are read on the connection of this DAO, so they are read inside its current transaction.
+     * In that case the DAO and its connection must not be used until the subscription ends, since a connection
+     * cannot be used by several threads at a time, and the connection must stay open until then. Only one
+     * subscription at a time can read on the connection of this DAO. Another subscription requesting objects
+     * meanwhile fails.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            A publisher of the objects read from the database.
+     * @throws PersistenceException If no persistence configuration is set, if the persistence configuration
+     *                    contains no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key. Errors occurring while reading are passed
+     *                    to the subscriber's <code>onError()</code> method.
+     */
+    public IPublisher readPublisher(Object objectMappingKey, String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readPublisher(Object objectMappingKey, String sql, Object ... parameters) except this method only accepts
+     * Class objects as object mapping keys, and that the publisher is typed to the class.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> IPublisher<T> readPublisher(Class<T> objectMappingKey, String sql, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readPublisher(Object objectMappingKey, String sql, Object ... parameters) except the given filter
+     * can include or exclude the records as they are read, or complete the subscription by signalling that it
+     * will not accept anymore records. Since the filter is shared by all subscribers of the returned publisher,
+     * a filter that keeps state (like <code>PageReadFilter</code>) should only be used with a single subscriber.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param filter      A filter that can include or exclude individual records.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            A publisher of the objects read from the database.
+     * @throws PersistenceException If no persistence configuration is set, if the persistence configuration
+     *                    contains no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key.
+     */
+    public IPublisher readPublisher(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readPublisher(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) except this
+     * method only accepts Class objects as object mapping keys, and that the publisher is typed to the class.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param filter
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> IPublisher<T> readPublisher(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readPublisher(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) except each
+     * subscription obtains its own connection from the <code>DataSource</code> of the persistence configuration,
+     * and closes the connection again when the subscription completes, fails or is cancelled. With a
+     * <code>ScopingDataSource</code> this releases the connection, since the executor thread is not inside
+     * a connection or transaction scope.
+     *
+     * <br/><br/>
+     * Since the records are not read on the connection of this DAO, they are not read inside its current
+     * transaction, and do not see changes made in it that have not been committed yet.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param filter      A filter that can include or exclude individual records.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            A publisher of the objects read from the database.
+     * @throws PersistenceException If no persistence configuration is set, if the persistence configuration
+     *                    has no <code>DataSource</code> or contains no object reader, or if no object mapping
+     *                    could be found nor generated from the given object mapping key.
+     */
+    public IPublisher readPublisherOnNewConnection(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readPublisherOnNewConnection(Object objectMappingKey, String sql, IReadFilter filter, Object ... parameters)
+     * except this method only accepts Class objects as object mapping keys, and that the publisher is typed to the class.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param filter
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> IPublisher<T> readPublisherOnNewConnection(Class<T> objectMappingKey, String sql, IReadFilter filter, Object ... parameters) throws PersistenceException;
+
+
+    /**
+     * Reads objects from the database using the object mapping stored by the given object mapping key,
+     * the given SQL string, and the parameters, and passes each object to the consumer as soon as it is read.
+     * The objects are not collected in a list, so only the object currently being consumed needs to be
+     * held in memory. A new object is created per record.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param  consumer   The consumer to pass the objects to.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            The number of objects passed to the consumer.
+     * @throws PersistenceException If anything goes wrong during the read, if the consumer throws it,
+     *                    if no persistence configuration is set, if the persistence configuration contains
+     *                    no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key.
+     */
+    public int readEach(Object objectMappingKey, String sql, IObjectConsumer consumer, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readEach(Object objectMappingKey, String sql, IObjectConsumer consumer, Object ... parameters) except
+     * this method only accepts Class objects as object mapping keys, and that the consumer is typed to the class.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param consumer
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> int readEach(Class<T> objectMappingKey, String sql, IObjectConsumer<? super T> consumer, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readEach(Object objectMappingKey, String sql, IObjectConsumer consumer, Object ... parameters) except
+     * at most <code>reuseInstances</code> objects are created. They are used in turn as a ring, each being
+     * refreshed with the values of a later record once the ring has come around to it. Values that
+     * are NULL in a record are reset in the object, so no values are left over from earlier records.
+     *
+     * <br/><br/>
+     * Pass 1 if the consumer only needs each object while its <code>consume()</code> method runs.
+     * The consumer must not keep references to the objects beyond <code>reuseInstances</code> records.
+     * Pass 0 to create a new object per record. Objects created via a constructor mapping
+     * cannot be refreshed, so they are always created per record.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param  reuseInstances The number of object instances to reuse.
+     * @param  consumer   The consumer to pass the objects to.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            The number of objects passed to the consumer.
+     * @throws PersistenceException If anything goes wrong during the read, if the consumer throws it,
+     *                    if no persistence configuration is set, if the persistence configuration contains
+     *                    no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key.
+     */
+    public int readEach(Object objectMappingKey, String sql, int reuseInstances, IObjectConsumer consumer, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like readEach(Object objectMappingKey, String sql, int reuseInstances, IObjectConsumer consumer, Object ... parameters)
+     * except this method only accepts Class objects as object mapping keys, and that the consumer is typed to the class.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param reuseInstances
+     * @param consumer
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> int readEach(Class<T> objectMappingKey, String sql, int reuseInstances, IObjectConsumer<? super T> consumer, Object ... parameters) throws PersistenceException;
+
+
+    /**
+     * Reads a list of objects from the database using the object mapping stored by the given object
+     * mapping key, the given SQL string, and the parameters, refreshing the given persistent objects
+     * rather than creating new ones where possible. The records are matched to the persistent objects
+     * by primary key value. For matching records the values are read into the existing object, and values that
+     * are NULL in the record are reset in the object. A new object is only created for records
+     * whose primary key value matches none of the persistent objects.
+     *
+     * <br/><br/>
+     * The returned list contains the refreshed and new objects in the same sequence as their records
+     * appear in the <code>ResultSet</code>. Persistent objects without a matching record are left untouched,
+     * and are not included in the list, so they can be detected as deleted (or no longer selected)
+     * by comparing the returned list with the persistent objects.
+     *
+     * @param objectMappingKey  The object mapping key by which the object mapping to be used is stored
+     *                    in the object mapping cache, in the persistence configuration used by this
+     *                    instance of the DAO class.
+     * @param  sql        The SQL string to use to prepare a <code>PreparedStatement</code>.
+     * @param  persistentObjects The existing objects to refresh.
+     * @param  parameters The parameters to insert into the <code>PreparedStatement</code>.
+     * @return            The objects refreshed or read from the database.
+     * @throws PersistenceException If anything goes wrong during the read, if no persistence
+     *                    configuration is set, if the persistence configuration contains
+     *                    no object reader, or if no object mapping could be found nor generated
+     *                    from the given object mapping key.
+     */
+    public List refreshList(Object objectMappingKey, String sql, Collection persistentObjects, Object ... parameters) throws PersistenceException;
+
+    /**
+     * Like refreshList(Object objectMappingKey, String sql, Collection persistentObjects, Object ... parameters) except
+     * this method only accepts Class objects as object mapping keys, and that you don't need to cast the returned List.
+     *
+     * @param objectMappingKey
+     * @param sql
+     * @param persistentObjects
+     * @param parameters
+     * @return
+     * @throws PersistenceException
+     */
+    public <T> List<T> refreshList(Class<T> objectMappingKey, String sql, Collection<T> persistentObjects, Object ... parameters) throws PersistenceException;
+
     /**
        * Same as <code>insert(Object objectMappingKey, Object object)</code>, but
        * uses object.getClass() as the object mapping key.
@@ -0,0 +1,64 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.itf;
+
+import java.util.Iterator;
+
+/**
+ * An iterator over objects read lazily from an open <code>ResultSet</code>. Each call to
+ * <code>next()</code> moves the <code>ResultSet</code> forward and reads one object from
+ * the record it is positioned at, so only one object is held by the iterator at a time,
+ * regardless of how many records the <code>ResultSet</code> contains.
+ *
+ * <br/><br/>
+ * The iterator closes its <code>ResultSet</code> (and <code>Statement</code>, if the iterator
+ * created it) when the last record has been read, when the read filter signals that it will
+ * not accept anymore records, or when <code>close()</code> is called, whichever comes first.
+ * If you stop iterating before the last record has been read, you must call <code>close()</code>
+ * yourself. Calling <code>close()</code> more than once has no effect.
+ *
+ * <br/><br/>
+ * Since <code>Iterator.hasNext()</code> and <code>Iterator.next()</code> cannot throw checked
+ * exceptions, errors occurring while reading are thrown as a <code>PersistenceExceptionUnchecked</code>
+ * wrapping the <code>PersistenceException</code>. The iterator is closed before the exception is thrown.
+ *
+ * <br/><br/>
+ * The iterator does not close the <code>Connection</code> it reads from.
+ * The <code>remove()</code> method is not supported.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface IObjectIterator<T> extends Iterator<T>, AutoCloseable {
+
+    /**
+     * Closes the <code>ResultSet</code> of this iterator, and the <code>Statement</code> too
+     * if it was created by the iterator. After this method has been called <code>hasNext()</code>
+     * returns false.
+     * @throws PersistenceException If closing the <code>ResultSet</code> or <code>Statement</code> fails.
+     */
+    public void close() throws PersistenceException;
+
+    /**
+     * Returns true if this iterator has been closed, either explicitly by calling <code>close()</code>,
+     * or because all records have been read.
+     * @return True if this iterator is closed, false if not.
+     */
+    public boolean isClosed();
+
+}
@@ -27,6 +27,7 @@ import java.sql.PreparedStatement;
 import java.sql.Connection;
 import java.util.List;
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * This interface represents all the functions made available by the object reader of Butterfly Persistence.
@@ -309,6 +310,10 @@ public interface IObjectReader {
      * The object will appear in the returned list in the same sequence they are encountered in the
      * <code>ResultSet</code>.
      *
+     * <br/><br/>
+     * If a spill threshold is set, the list is read like by <code>readSpillingList(...)</code>, and is an
+     * <code>ICloseableList</code>, which should be closed when it is no longer needed.
+     *
      * @param mapping The object mapping to use to read the objects.
      * @param result The <code>ResultSet</code> to read the objects from.
      * @param filter The filter to apply to the <code>ResultSet</code>.
@@ -579,4 +584,243 @@ public interface IObjectReader {
     throws PersistenceException;
 
 
+    /**
+     * Reads a list of objects from the given <code>ResultSet</code>, refreshing existing objects
+     * rather than creating new ones where possible. For each record the primary key value is read,
+     * and if an object with the same primary key value is found among the given persistent objects,
+     * the values of the record are read into that object. Values that are NULL in the record are
+     * reset in the object (to null, or zero for primitives). A new object is only created for records
+     * whose primary key value matches none of the persistent objects.
+     *
+     * <br/><br/>
+     * The returned list contains the objects in the same sequence as their records appear in the
+     * <code>ResultSet</code>. Persistent objects without a matching record are left untouched,
+     * and are not included in the list. Only persistent objects of the exact class of the object
+     * mapping are matched. Objects created via a constructor mapping cannot be refreshed, so for
+     * such mappings new objects are always created.
+     *
+     * <br/><br/>
+     * The read filter is applied the same way as in
+     * <code>readList(IObjectMapping mapping, ResultSet result, IReadFilter filter)</code>.
+     *
+     * @param mapping           The object mapping to use to read the objects.
+     * @param result            The <code>ResultSet</code> to read the objects from.
+     * @param filter            The filter to apply to the <code>ResultSet</code>.
+     *                          Passing null in this parameter will result in no filtering.
+     * @param persistentObjects The existing objects to refresh.
+     * @return The objects read or refreshed.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public List readList(IObjectMapping mapping, ResultSet result, IReadFilter filter, Collection persistentObjects)
+    throws PersistenceException;
+
+
+    /**
+     * Like <code>readList(IObjectMapping mapping, ResultSet result, IReadFilter filter, Collection persistentObjects)</code>
+     * except the persistent objects are given in a map, keyed by their primary key values, as returned
+     * by the object mapping's <code>getPrimaryKeyValueForObject(...)</code> method. Use this method
+     * to avoid building the map for each read, when the same objects are refreshed repeatedly.
+     *
+     * @param mapping           The object mapping to use to read the objects.
+     * @param result            The <code>ResultSet</code> to read the objects from.
+     * @param filter            The filter to apply to the <code>ResultSet</code>.
+     *                          Passing null in this parameter will result in no filtering.
+     * @param persistentObjects The existing objects to refresh, keyed by their primary key values (<code>IKeyValue</code>).
+     * @return The objects read or refreshed.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public List readList(IObjectMapping mapping, ResultSet result, IReadFilter filter, Map persistentObjects)
+    throws PersistenceException;
+
+
+    /**
+     * Like <code>readList(IObjectMapping mapping, ResultSet result, IReadFilter filter, Collection persistentObjects)</code>
+     * except the objects are read from the <code>ResultSet</code> of a <code>PreparedStatement</code> created
+     * from the given SQL string and parameters.
+     *
+     * <br/><br/>
+     * Remember to close the <code>Connection</code> instance when you are done with it. This method will not
+     * close it.
+     *
+     * @param mapping           The object mapping to use to read the objects.
+     * @param sql               The SQL string to use for the <code>PreparedStatement</code>.
+     * @param parameters        The parameters to insert into the <code>PreparedStatement</code>.
+     * @param connection        The database connection to use to create the <code>PreparedStatement</code> instance.
+     * @param filter            The filter to apply to the <code>ResultSet</code>.
+     *                          Passing null in this parameter will result in no filtering.
+     * @param persistentObjects The existing objects to refresh.
+     * @return The objects read or refreshed.
+     * @throws PersistenceException If anything goes wrong during the read.
+     */
+    public List readList(IObjectMapping mapping, String sql, Object[] parameters, Connection connection, IReadFilter filter,
+                         Collection persistentObjects) throws PersistenceException;
+
+
+    /**
+     * Returns an iterator that reads the objects from the given <code>ResultSet</code> lazily,
+     * one object per call to <code>next()</code>, using the given object mapping. Unlike
+     * <code>readList(...)</code> the objects are not collected in a list, so only the object
+     * currently being iterated needs to be held in memory.
+     *
+     * <br/><br/>
+     * The read filter is applied the same way as in <code>readList(...)</code>. When the last record
+     * has been read, or the filter won't accept anymore records, the <code>ResultSet</code> is closed.
+     * If you stop iterating before that, call <code>close()</code> on the iterator.
+     *
+     * <br/><br/>
+     * Remember to close the <code>Connection</code> instance when you are done with the iterator.
+     * The iterator will not close it.
+     *
+     * @param mapping The object mapping to use to read the objects.
+     * @param result  The <code>ResultSet</code> to read the objects from.
+     * @param filter  The filter to apply to the <code>ResultSet</code>.
+     *                Passing null in this parameter will result in no filtering.
+     * @return An iterator over the objects read from the <code>ResultSet</code>.
+     * @throws PersistenceException If anything goes wrong when creating the iterator.
+     */
+    public IObjectIterator readIterator(IObjectMapping mapping, ResultSet result, IReadFilter filter)
+    throws PersistenceException;
+
+
+    /**
+     * Returns an iterator that reads objects lazily from the database, using the given object mapping,
+     * SQL string, and parameters. A <code>PreparedStatement</code> is created from the SQL string,
+     * the parameters are inserted into it, and it is executed. The <code>PreparedStatement</code>
+     * and its <code>ResultSet</code> are closed when the iterator is closed.
+     *
+     * <br/><br/>
+     * See <code>readIterator(IObjectMapping mapping, ResultSet result, IReadFilter filter)</code>
+     * for more details.
+     *
+     * <br/><br/>
+     * Remember to close the <code>Connection</code> instance when you are done with the iterator.
+     * The iterator will not close it.
+     *
+     * @param mapping     The object mapping to use to read the objects.
+     * @param sql         The SQL string to use for the <code>PreparedStatement</code>.
+     * @param parameters  The parameters to insert into the <code>PreparedStatement</code>.
+     * @param connection  The database connection to use to create the <code>PreparedStatement</code> instance.
+     * @param filter      The filter to apply to the <code>ResultSet</code>.
+     *                    Passing null in this parameter will result in no filtering.
+     * @return An iterator over the objects read from the database.
+     * @throws PersistenceException If anything goes wrong when creating the iterator.
+     */
+    public IObjectIterator readIterator(IObjectMapping mapping, String sql, Collection parameters, Connection connection, IReadFilter filter)
+    throws PersistenceException;
+
+
+    /**
+     * Like <code>readIterator(IObjectMapping mapping, String sql, Collection parameters, Connection connection, IReadFilter filter)</code>
+     * except the parameters are given as an array.
+     *
+     * @param mapping     The object mapping to use to read the objects.
+     * @param sql         The SQL string to use for the <code>PreparedStatement</code>.
+     * @param parameters  The parameters to insert into the <code>PreparedStatement</code>.
+     * @param connection  The database connection to use to create the <code>PreparedStatement</code> instance.
+     * @param filter      The filter to apply to the <code>ResultSet</code>.
+     *                    Passing null in this parameter will result in no filtering.
+     * @return An iterator over the objects read from the database.
+     * @throws PersistenceException If anything goes wrong when creating the iterator.
+     */
+    public IObjectIterator readIterator(IObjectMapping mapping, String sql, Object[] parameters, Connection connection, IReadFilter filter)
+    throws PersistenceException;
+
+
+    /**
+     * Reads objects from the given <code>ResultSet</code> using the given object mapping, and passes
+     * each object to the consumer as soon as it is read, instead of collecting them in a list.
+     * The read filter is applied the same way as in <code>readList(...)</code>.
+     *
+     * <br/><br/>
+     * If <code>reuseInstances</code> is larger than 0, only that many objects are ever created. They are
+     * used in turn as a ring, each being refreshed with the values of a later record once the ring has
+     * come around to it. A consumer that only needs each object while <code>consume()</code> runs can pass 1.
+     * A consumer that compares each object to the few objects before it can pass a ring size accordingly.
+     * If <code>reuseInstances</code> is 0, a new object is created per record. Objects created via a
+     * constructor mapping cannot be refreshed, so they are always created per record.
+     *
+     * <br/><br/>
+     * The <code>ResultSet</code> is not closed by this method.
+     *
+     * @param mapping        The object mapping to use to read the objects.
+     * @param result         The <code>ResultSet</code> to read the objects from.
+     * @param filter         The filter to apply to the <code>ResultSet</code>.
+     *                       Passing null in this parameter will result in no filtering.
+     * @param reuseInstances The number of object instances to reuse, or 0 to create a new object per record.
+     * @param consumer       The consumer to pass the objects to.
+     * @return The number of objects passed to the consumer.
+     * @throws PersistenceException If anything goes wrong during the read, or if the consumer throws it.
+     */
+    public int readEach(IObjectMapping mapping, ResultSet result, IReadFilter filter, int reuseInstances,
+                        IObjectConsumer consumer) throws PersistenceException;
+
+
+    /**
+     * Like <code>readEach(IObjectMapping mapping, ResultSet result, IReadFilter filter, int reuseInstances, IObjectConsumer consumer)</code>
+     * except the objects are read from the <code>ResultSet</code> of a <code>PreparedStatement</code> created
+     * from the given SQL string and parameters. The <code>PreparedStatement</code> is closed before this method returns.
+     *
+     * <br/><br/>
+     * Remember to close the <code>Connection</code> instance when you are done with it. This method will not
+     * close it.
+     *
+     * @param mapping        The object mapping to use to read the objects.
+     * @param sql            The SQL string to use for the <code>PreparedStatement</code>.
+     * @param parameters     The parameters to insert into the <code>PreparedStatement</code>.
+     * @param connection     The database connection to use to create the <code>PreparedStatement</code> instance.
+     * @param filter         The filter to apply to the <code>ResultSet</code>.
+     *                       Passing null in this parameter will result in no filtering.
+     * @param reuseInstances The number of object instances to reuse, or 0 to create a new object per record.
+     * @param consumer       The consumer to pass the objects to.
+     * @return The number of objects passed to the consumer.
+     * @throws PersistenceException If anything goes wrong during the read, or if the consumer throws it.
+     */
+    public int readEach(IObjectMapping mapping, String sql, Object[] parameters, Connection connection, IReadFilter filter,
+                        int reuseInstances, IObjectConsumer consumer) throws PersistenceException;
+
+
+    /**
+     * Like <code>readList(IObjectMapping mapping, ResultSet result, IReadFilter filter)</code> except only
+     * the first objects, up to the spill threshold of the object reader, are kept on
+     * the heap. The values of the remaining records are spilled to a temporary file, and turned into objects
+     * again when they are accessed. Objects with stream or LOB members, or objects created via a constructor
+     * mapping, are never spilled.
+     *
+     * <br/><br/>
+     * The returned list is read-only. Close it when it is no longer needed, to delete the temporary file.
+     * The <code>ResultSet</code> is not closed by this method.
+     *
+     * @param mapping     The object mapping to use to read the list of objects.
+     * @param result      The <code>ResultSet</code> to read the list of objects from.
+     * @param filter      The filter to apply to the <code>ResultSet</code>.
+     *                    Passing null in this parameter will result in no filtering.
+     * @return The objects read from the <code>ResultSet</code>.
+     * @throws PersistenceException If anything goes wrong during the read, or spilling a record fails.
+     */
+    public ICloseableList readSpillingList(IObjectMapping mapping, ResultSet result, IReadFilter filter)
+    throws PersistenceException;
+
+
+    /**
+     * Like <code>readSpillingList(IObjectMapping mapping, ResultSet result, IReadFilter filter)</code>
+     * except the objects are read from the <code>ResultSet</code> of a <code>PreparedStatement</code> created
+     * from the given SQL string and parameters. The <code>PreparedStatement</code> is closed before this method returns.
+     *
+     * <br/><br/>
+     * Remember to close the <code>Connection</code> instance when you are done with it. This method will not
+     * close it.
+     *
+     * @param mapping     The object mapping to use to read the list of objects.
+     * @param sql         The SQL string to use for the <code>PreparedStatement</code>.
+     * @param parameters  The parameters to insert into the <code>PreparedStatement</code>.
+     * @param connection  The database connection to use to create the <code>PreparedStatement</code> instance.
+     * @param filter      The filter to apply to the <code>ResultSet</code>.
+     *                    Passing null in this parameter will result in no filtering.
+     * @return The objects read from the database.
+     * @throws PersistenceException If anything goes wrong during the read, or spilling a record fails.
+     */
+    public ICloseableList readSpillingList(IObjectMapping mapping, String sql, Object[] parameters, Connection connection,
+                                           IReadFilter filter) throws PersistenceException;
+
+
 }
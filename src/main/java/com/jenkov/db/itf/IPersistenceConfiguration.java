@@ -22,9 +22,11 @@ import com.jenkov.db.itf.mapping.ICustomObjectMapper;
 import com.jenkov.db.itf.mapping.IObjectMapper;
 import com.jenkov.db.itf.mapping.IObjectMappingCache;
 import com.jenkov.db.impl.init.DatabaseInitializer;
+import com.jenkov.db.impl.StringCache;
 import com.jenkov.db.scope.IScopeFactory;
 
 import javax.sql.DataSource;
+import java.util.concurrent.Executor;
 
 /**
  * This interface represents a persistence configuration which is a collection of Butterfly Persistence compononents
@@ -191,6 +193,224 @@ public interface IPersistenceConfiguration {
     public void          setReadByPrimaryKeySqlCache(ISqlCache cache);
 
 
+    /**
+     * Returns the SQL cache used to store read-list-by-primary-keys SQL statements in this persistence configuration.
+     * The statements are generated for bucket sizes of 1, 2, 4, 8 etc. primary keys, so only a few
+     * statements are stored per object mapping, regardless of how many primary keys are read.
+     * @return The <code>ISqlCache</code> instance used to store read-list-by-primary-keys SQL statements in
+     *         this persistence configuration.
+     */
+    public ISqlCache     getReadListByPrimaryKeysSqlCache();
+
+    /**
+     * Sets the SQL cache to be used to store read-list-by-primary-keys SQL statements in this persistence configuration.
+     * @param cache The <code>ISqlCache</code> instance to be used to store read-list-by-primary-keys SQL statements
+     *              in this persistence configuration.
+     */
+    public void          setReadListByPrimaryKeysSqlCache(ISqlCache cache);
+
+
+    /**
+     * Returns the SQL cache used to store read-list-after-key SQL statements (keyset pagination)
+     * in this persistence configuration.
+     * @return The <code>ISqlCache</code> instance used to store read-list-after-key SQL statements in
+     *         this persistence configuration.
+     */
+    public ISqlCache     getReadListAfterKeySqlCache();
+
+    /**
+     * Sets the SQL cache to be used to store read-list-after-key SQL statements in this persistence configuration.
+     * @param cache The <code>ISqlCache</code> instance to be used to store read-list-after-key SQL statements
+     *              in this persistence configuration.
+     */
+    public void          setReadListAfterKeySqlCache(ISqlCache cache);
+
+
+    /**
+     * Returns the SQL cache used to store read-list-by-foreign-keys SQL statements (used when reading the
+     * children of many parent objects at once) in this persistence configuration.
+     * @return The <code>ISqlCache</code> instance used to store read-list-by-foreign-keys SQL statements in
+     *         this persistence configuration.
+     */
+    public ISqlCache     getReadListByForeignKeysSqlCache();
+
+    /**
+     * Sets the SQL cache to be used to store read-list-by-foreign-keys SQL statements in this persistence configuration.
+     * @param cache The <code>ISqlCache</code> instance to be used to store read-list-by-foreign-keys SQL statements
+     *              in this persistence configuration.
+     */
+    public void          setReadListByForeignKeysSqlCache(ISqlCache cache);
+
+
+    /**
+     * Returns the maximum number of primary keys read per SQL statement when reading objects by a list of
+     * primary keys. Larger lists of primary keys are read in chunks of this size. The default is 512.
+     * @return The maximum number of primary keys read per SQL statement.
+     */
+    public int           getMaxPrimaryKeysPerStatement();
+
+    /**
+     * Sets the maximum number of primary keys read per SQL statement when reading objects by a list of
+     * primary keys. Keep the number of primary keys times the number of primary key columns below the
+     * maximum number of parameters the database accepts in a statement.
+     * @param maxPrimaryKeys The maximum number of primary keys read per SQL statement.
+     */
+    public void          setMaxPrimaryKeysPerStatement(int maxPrimaryKeys);
+
+
+    /**
+     * Returns the number of keys from which objects read by a list of keys are read by inserting the keys
+     * into a temporary table, and joining against it, instead of using IN lists or array parameters.
+     * The temporary table is only used if the database has a temporary table statement
+     * (see <code>Database.getTemporaryTableStatement()</code>), and the keys are single column keys.
+     * The default is 10000. 0 means temporary tables are never used.
+     * @return The number of keys from which a temporary table is used.
+     */
+    public int           getTemporaryTableKeyThreshold();
+
+    /**
+     * Sets the number of keys from which objects read by a list of keys are read by inserting the keys
+     * into a temporary table, and joining against it. 0 means temporary tables are never used.
+     * @param threshold The number of keys from which a temporary table is used.
+     */
+    public void          setTemporaryTableKeyThreshold(int threshold);
+
+    /**
+     * Returns the number of keys inserted per JDBC batch into a temporary table, when reading objects
+     * by a temporary table of keys. The default is 1000.
+     * @return The number of keys inserted per JDBC batch into a temporary table.
+     */
+    public int           getTemporaryTableBatchSize();
+
+    /**
+     * Sets the number of keys inserted per JDBC batch into a temporary table, when reading objects
+     * by a temporary table of keys. Must be at least 1.
+     * @param batchSize The number of keys inserted per JDBC batch into a temporary table.
+     */
+    public void          setTemporaryTableBatchSize(int batchSize);
+
+
+    /**
+     * Returns the number of chunks of primary keys that are read in parallel, when reading objects
+     * by more primary keys than fit in one SQL statement. The default is 1, meaning the chunks are read
+     * one after the other using the connection of the DAO.
+     * @return The number of chunks of primary keys read in parallel.
+     */
+    public int           getPrimaryKeyChunkParallelism();
+
+    /**
+     * Sets the number of chunks of primary keys that are read in parallel. If larger than 1, a
+     * <code>DataSource</code> is set on this configuration, and the connection of the DAO is not inside
+     * a transaction (auto commit is on), the chunks are read on the read executor of this configuration,
+     * using up to this many connections obtained from the <code>DataSource</code>. Inside a transaction
+     * the chunks are always read one after the other on the connection of the DAO, so the reads see
+     * the changes made in the transaction. If reading a chunk fails, the reading of the remaining chunks is cancelled.
+     * @param parallelism The number of chunks of primary keys to read in parallel.
+     */
+    public void          setPrimaryKeyChunkParallelism(int parallelism);
+
+
+    /**
+     * Returns the number of objects a list read by <code>IObjectDao.readList(...)</code> or
+     * <code>IObjectDao.readSpillingList(...)</code> keeps on the heap, before the remaining records are spilled
+     * to a temporary file. The default is 0, meaning lists are never spilled.
+     * @return The spill threshold of read lists.
+     */
+    public int           getReadListSpillThreshold();
+
+    /**
+     * Sets the number of objects a list read by <code>IObjectDao.readList(...)</code> or
+     * <code>IObjectDao.readSpillingList(...)</code> keeps on the heap, before the remaining records are spilled
+     * to a temporary file. The lists are read-only, re-create the spilled objects when they are accessed, and should
+     * be closed to delete the temporary file. Lists returned by <code>readList(...)</code> can be closed by casting
+     * them to <code>ICloseableList</code>.
+     * Objects with stream or LOB members, or objects created via a constructor mapping, are never spilled.
+     * Set to 0 to disable spilling.
+     * @param threshold The spill threshold of read lists.
+     */
+    public void          setReadListSpillThreshold(int threshold);
+
+
+    /**
+     * Returns the fetch size set on the statements of streaming reads. The default is 0, meaning the
+     * driver default fetch size is used.
+     * @return The fetch size of streaming reads.
+     */
+    public int           getReadFetchSize();
+
+    /**
+     * Sets the fetch size set on the statements of streaming reads, meaning <code>readIterator(...)</code>,
+     * <code>readStream(...)</code>, <code>readEach(...)</code> and <code>readPublisher(...)</code>.
+     * Set to 0 to use the driver default.
+     *
+     * <br/><br/>
+     * Not all drivers honour the fetch size by default:
+     * <ul>
+     * <li>PostgreSQL only fetches the records in batches of the fetch size when auto commit is switched
+     *     off on the connection, and the <code>ResultSet</code> is <code>TYPE_FORWARD_ONLY</code>.
+     *     Otherwise the full result is read into memory.</li>
+     * <li>MySQL only streams records when the fetch size is <code>Integer.MIN_VALUE</code>, which is
+     *     used instead of the configured fetch size when the database is MySQL. The records are then
+     *     streamed one by one, and no other statement can be executed on the connection until the
+     *     iterator or stream is closed. Alternatively add <code>useCursorFetch=true</code> to the
+     *     connection URL to fetch in batches.</li>
+     * </ul>
+     * @param fetchSize The fetch size of streaming reads.
+     */
+    public void          setReadFetchSize(int fetchSize);
+
+
+    /**
+     * Returns the maximum number of objects written per JDBC batch, when writing collections of objects
+     * in batches. The default is 0, meaning all objects are written in a single batch.
+     * @return The maximum number of objects written per JDBC batch.
+     */
+    public int           getWriteBatchSize();
+
+    /**
+     * Sets the maximum number of objects written per JDBC batch. Larger collections are written
+     * in chunks of this size, keeping the memory used by the JDBC driver bounded.
+     * Object mappings with a batch size of their own use that instead. Set to 0 to write all objects
+     * in a single batch. Only applies if the object writer is an <code>ObjectWriter</code> (or a subclass of it),
+     * also when the object writer is set after the batch size.
+     * @param batchSize The maximum number of objects written per JDBC batch.
+     */
+    public void          setWriteBatchSize(int batchSize);
+
+    /**
+     * Returns the target execution time in milliseconds of each JDBC batch when writing collections
+     * of objects in batches. The default is 0, meaning batch sizes are not adapted.
+     * @return The target execution time of each JDBC batch, in milliseconds.
+     */
+    public long          getWriteBatchLatency();
+
+    /**
+     * Sets the target execution time in milliseconds of each JDBC batch, enabling adaptive batch sizes.
+     * The batch size of each object mapping is then tuned from the observed execution times of its batches.
+     * Set to 0 to disable adaptive batch sizes. Only applies if the object writer is an <code>ObjectWriter</code>
+     * (or a subclass of it), also when the object writer is set after the batch latency.
+     * @param latency The target execution time of each JDBC batch, in milliseconds.
+     */
+    public void          setWriteBatchLatency(long latency);
+
+
+    /**
+     * Returns the cache used to deduplicate the <code>String</code> values read by the <code>IMapDao</code>,
+     * or null if the strings are not deduplicated, which is the default.
+     * @return The string cache used by the map DAO.
+     */
+    public StringCache   getMapStringCache();
+
+    /**
+     * Sets the cache used to deduplicate the <code>String</code> values read by the <code>IMapDao</code>.
+     * To deduplicate the strings read into objects, set the <code>deduplicate</code> attribute of
+     * the <code>ASetterMapping</code> annotation, or the <code>deduplicateStrings</code> attribute of the
+     * <code>AClassMapping</code> annotation.
+     * @param cache The string cache to be used by the map DAO, or null to disable deduplication.
+     */
+    public void          setMapStringCache(StringCache cache);
+
+
     /**
      * Returns the SQL cache used to store insert SQL statements in this persistence configuration.
      * @return The <code>ISqlCache</code> instance used to store insert SQL statements in
@@ -268,4 +488,22 @@ public interface IPersistenceConfiguration {
     public void setDatabaseInitializer(DatabaseInitializer initializer);
 
 
+    /**
+     * Returns the executor that publishers returned by the DAOs read records and call their subscribers on.
+     * If no executor has been set, a pool of daemon threads dedicated to database reads is created,
+     * bounded to twice the number of processors. Reading records blocks the executor thread while waiting
+     * for the database, so the executor should not be shared with CPU bound tasks.
+     * @return The executor used by publishers created with this configuration.
+     */
+    public Executor getReadExecutor();
+
+
+    /**
+     * Sets the executor that publishers returned by the DAOs read records and call their subscribers on.
+     * Set to null to use a default executor dedicated to database reads.
+     * @param executor The executor to use for publishers created with this configuration.
+     */
+    public void setReadExecutor(Executor executor);
+
+
 }
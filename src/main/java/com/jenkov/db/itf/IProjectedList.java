@@ -0,0 +1,62 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.itf;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A list of objects read with only some of their mapped columns (the eager columns) and the
+ * primary key columns. The remaining mapped columns are read for all objects in the list at once,
+ * the first time <code>loadRemaining()</code> or <code>getLoaded(int index)</code> is called.
+ * The remaining columns are read using the connection of the DAO that read the list, so
+ * that connection must still be open when the remaining columns are loaded.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface IProjectedList<T> extends List<T> {
+
+    /**
+     * Returns the columns that were read when the objects in this list were read.
+     * @return The eagerly read columns.
+     */
+    public Collection getEagerColumns();
+
+    /**
+     * Returns true if the remaining columns have been read into the objects of this list.
+     * @return True if the remaining columns have been read. False if not.
+     */
+    public boolean isRemainingLoaded();
+
+    /**
+     * Reads the remaining mapped columns into all objects of this list, using as few SQL statements
+     * as possible. Does nothing if the remaining columns are already read.
+     * @throws PersistenceException If reading the remaining columns fails.
+     */
+    public void loadRemaining() throws PersistenceException;
+
+    /**
+     * Returns the object at the given index, after reading the remaining columns into
+     * all objects of this list, if not read already.
+     * @param index The index of the object to return.
+     * @return The object at the given index, with all mapped columns read.
+     * @throws PersistenceException If reading the remaining columns fails.
+     */
+    public T getLoaded(int index) throws PersistenceException;
+
+}
@@ -0,0 +1,43 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.itf;
+
+/**
+ * A producer of objects read from the database, which are pushed to subscribers only as
+ * fast as the subscribers request them. The interface has the same shape and contract as
+ * <code>java.util.concurrent.Flow.Publisher</code> (and the Reactive Streams <code>Publisher</code>),
+ * so adapting an <code>IPublisher</code> to either is a matter of delegating the method calls.
+ *
+ * <br/><br/>
+ * The publishers returned by the DAOs are cold: Each subscriber gets its own query execution,
+ * which is started when the subscriber first requests objects.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface IPublisher<T> {
+
+    /**
+     * Adds the given subscriber to this publisher. The subscriber's <code>onSubscribe()</code>
+     * method is called with a new subscription before this method returns. No objects are read
+     * until the subscriber requests them via the subscription.
+     * @param subscriber The subscriber to receive the objects.
+     */
+    public void subscribe(ISubscriber<? super T> subscriber);
+
+}
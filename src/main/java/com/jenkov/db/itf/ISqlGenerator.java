@@ -19,6 +19,9 @@
 package com.jenkov.db.itf;
 
 import com.jenkov.db.itf.mapping.IObjectMapping;
+import com.jenkov.db.itf.mapping.IKey;
+
+import java.util.Collection;
 
 /**
  * This interface represents all functions made available by the SQL generator in Butterfly Persistence.
@@ -52,6 +55,121 @@ public interface ISqlGenerator {
     public String generateReadListByPrimaryKeysStatement(IObjectMapping mapping, int primaryKeyCount) throws PersistenceException;
 
 
+    /**
+     * Generates a read-by-primary-keys SQL string using an IN list, like
+     * <code>select ... from [table] where [primaryKeyColumn] in (?, ?, ...)</code>, with one ?-mark
+     * per primary key. For composite primary keys a row value IN list is generated instead, like
+     * <code>where ([column1], [column2]) in ((?, ?), (?, ?), ...)</code>, if the database supports it.
+     * Else the same SQL as <code>generateReadListByPrimaryKeysStatement(...)</code> generates is returned.
+     *
+     * <br/><br/>
+     * The parameters for the primary keys are inserted in the same sequence as for the SQL
+     * generated by <code>generateReadListByPrimaryKeysStatement(...)</code>, so the SQL can be used
+     * with <code>IObjectReader.readListByPrimaryKeys(...)</code>.
+     *
+     * @param mapping The object mapping to generate the read-by-primary-keys SQL string for.
+     * @param primaryKeyCount The number of primary keys to generate ?-marks for.
+     * @param rowValueInSupported True if the database supports row value IN lists.
+     * @return The <code>String</code> instance containing the generated SQL.
+     * @throws PersistenceException If anything goes wrong during the SQL string generation.
+     */
+    public String generateReadListByPrimaryKeysInStatement(IObjectMapping mapping, int primaryKeyCount,
+                                                           boolean rowValueInSupported) throws PersistenceException;
+
+
+    /**
+     * Like <code>generateReadListByPrimaryKeysInStatement(IObjectMapping mapping, int primaryKeyCount,
+     * boolean rowValueInSupported)</code> except only the given columns and the primary key columns
+     * are selected. The column names are matched against the mapped columns ignoring case.
+     * If columns is null all mapped columns are selected.
+     *
+     * @param mapping The object mapping to generate the read-by-primary-keys SQL string for.
+     * @param columns The columns to select in addition to the primary key columns.
+     * @param primaryKeyCount The number of primary keys to generate ?-marks for.
+     * @param rowValueInSupported True if the database supports row value IN lists.
+     * @return The <code>String</code> instance containing the generated SQL.
+     * @throws PersistenceException If anything goes wrong during the SQL string generation.
+     */
+    public String generateReadListByPrimaryKeysInStatement(IObjectMapping mapping, Collection columns, int primaryKeyCount,
+                                                           boolean rowValueInSupported) throws PersistenceException;
+
+
+    /**
+     * Generates a read-list-after-key SQL string for keyset pagination, like
+     * <code>select ... from [table] where ([column1], [column2]) &gt; (?, ?) order by [column1], [column2]</code>.
+     * If the database does not support row value comparisons, the comparison is expanded to
+     * <code>[column1] &gt;= ? and ([column1] &gt; ? or ([column1] = ? and [column2] &gt; ?))</code>, which
+     * takes one ?-mark for the first column, and then one ?-mark per column of each term in the parentheses.
+     * Single column keys always generate <code>[column1] &gt; ?</code>.
+     *
+     * <br/><br/>
+     * The SQL does not limit the number of records read. That is left to the caller, for instance
+     * by appending the paging clause of the database.
+     *
+     * @param mapping The object mapping to generate the read-list-after-key SQL string for.
+     * @param orderBy The key containing the columns to order the records by. The columns must be unique together.
+     * @param afterKey True to generate the comparison with the last key read. False to generate SQL reading
+     *                 from the first record (the first page).
+     * @param rowValueComparisonSupported True if the database supports row value comparisons.
+     * @return The <code>String</code> instance containing the generated SQL.
+     * @throws PersistenceException If anything goes wrong during the SQL string generation.
+     */
+    public String generateReadListAfterKeyStatement(IObjectMapping mapping, IKey orderBy, boolean afterKey,
+                                                    boolean rowValueComparisonSupported) throws PersistenceException;
+
+
+    /**
+     * Generates a read-list SQL string reading all records of the mapped table where the given column
+     * has one of a list of values, for instance all records referring to a list of parent records by
+     * a foreign key column. The SQL looks like this: <code>select ... from [table] where [column] in (?, ?, ...)</code>.
+     * The column is selected too, even if no setter is mapped to it.
+     *
+     * @param mapping The object mapping to generate the read-list SQL string for.
+     * @param column The column to match against the values.
+     * @param valueCount The number of values to generate ?-marks for.
+     * @return The <code>String</code> instance containing the generated SQL.
+     * @throws PersistenceException If anything goes wrong during the SQL string generation.
+     */
+    public String generateReadListByColumnInStatement(IObjectMapping mapping, String column, int valueCount)
+    throws PersistenceException;
+
+
+    /**
+     * Generates a read-list SQL string reading all records of the mapped table where the given column has one of
+     * the values of a single SQL array parameter. The SQL looks like this:
+     * <code>select ... from [table] where [column] = ANY(?)</code>, depending on the array in clause given,
+     * which is usually obtained from <code>Database.getArrayInClause()</code>. Since the SQL is the same
+     * regardless of the number of values, it only needs to be generated (and prepared by the database) once.
+     *
+     * @param mapping The object mapping to generate the read-list SQL string for.
+     * @param columns The columns to select in addition to the primary key columns. If null all mapped columns are selected.
+     *                The given column is selected too, even if no setter is mapped to it.
+     * @param column The column to match against the values of the array parameter.
+     * @param arrayInClause The clause matching the column against the array parameter, for instance " = ANY(?)".
+     * @return The <code>String</code> instance containing the generated SQL.
+     * @throws PersistenceException If anything goes wrong during the SQL string generation.
+     */
+    public String generateReadListByColumnArrayStatement(IObjectMapping mapping, Collection columns, String column,
+                                                         String arrayInClause) throws PersistenceException;
+
+    /**
+     * Generates a read-list SQL string reading all records of the mapped table where the given column has one of
+     * the values in the key column of the given table, typically a temporary table the values have been inserted into.
+     * The SQL looks like this: <code>select ... from [table] where [column] in (select [keyColumn] from [keyTable])</code>.
+     *
+     * @param mapping The object mapping to generate the read-list SQL string for.
+     * @param columns The columns to select in addition to the primary key columns. If null all mapped columns are selected.
+     *                The given column is selected too, even if no setter is mapped to it.
+     * @param column The column to match against the values of the key table.
+     * @param keyTable The name of the table holding the values.
+     * @param keyColumn The name of the column in the key table holding the values.
+     * @return The <code>String</code> instance containing the generated SQL.
+     * @throws PersistenceException If anything goes wrong during the SQL string generation.
+     */
+    public String generateReadListByColumnInTableStatement(IObjectMapping mapping, Collection columns, String column,
+                                                           String keyTable, String keyColumn) throws PersistenceException;
+
+
     /**
      * Generates an insert SQL string based on the given object mapping. The SQL string
      * generated is for use with a <code>PreparedStatement</code> and thus does not contain the
@@ -0,0 +1,54 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.itf;
+
+/**
+ * A receiver of objects from an <code>IPublisher</code>. Has the same shape and contract as
+ * <code>java.util.concurrent.Flow.Subscriber</code>. The methods of a subscriber are never
+ * called concurrently for the same subscription, but may be called from a different
+ * thread than the one that subscribed.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface ISubscriber<T> {
+
+    /**
+     * Called once when the subscriber is subscribed, before any other method is called.
+     * @param subscription The subscription to request objects via, or to cancel.
+     */
+    public void onSubscribe(ISubscription subscription);
+
+    /**
+     * Called with the next object read. Never called more times than the number of objects requested.
+     * @param item The object read.
+     */
+    public void onNext(T item);
+
+    /**
+     * Called if reading fails. No other methods are called afterwards.
+     * @param throwable The error. Errors from the database are passed as <code>PersistenceException</code>'s.
+     */
+    public void onError(Throwable throwable);
+
+    /**
+     * Called when all objects have been read. No other methods are called afterwards.
+     */
+    public void onComplete();
+
+}
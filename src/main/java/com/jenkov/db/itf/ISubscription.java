@@ -0,0 +1,45 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.itf;
+
+/**
+ * The link between an <code>IPublisher</code> and one of its subscribers. Has the same shape and
+ * contract as <code>java.util.concurrent.Flow.Subscription</code>. Both methods may be called
+ * from any thread, including from within the subscriber's <code>onNext()</code> method.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public interface ISubscription {
+
+    /**
+     * Requests the given number of additional objects. Requests are cumulative.
+     * Requesting <code>Long.MAX_VALUE</code> objects means requesting all remaining objects.
+     * @param n The number of objects to request. Must be positive, or the subscriber
+     *          will receive an <code>IllegalArgumentException</code> via <code>onError()</code>.
+     */
+    public void request(long n);
+
+    /**
+     * Cancels the subscription. No more objects are read, and the database resources held by
+     * the subscription are released. The subscriber may still receive objects already being
+     * delivered when this method is called.
+     */
+    public void cancel();
+
+}
@@ -31,4 +31,6 @@ import java.lang.annotation.RetentionPolicy;
 public @interface AClassMapping {
     String mappingMode() default "modify";  //manual / modify
     String tableName()   default "";
+    boolean deduplicateStrings() default false; // true = String values read by all setters are deduplicated
+    int     batchSize()          default 0;     // > 0 = objects are written in JDBC batches of at most this many objects
 }
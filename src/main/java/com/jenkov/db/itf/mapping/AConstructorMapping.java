@@ -0,0 +1,42 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.itf.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the constructor to create objects with when reading them from the database.
+ * The values of the given columns are passed to the constructor as arguments, in
+ * the order the column names are listed. This makes it possible to read immutable
+ * objects that have no setter methods.
+ *
+ * <br/><br/>
+ * Records (Java 16+) do not need this annotation. Their canonical constructor
+ * is used automatically, with the record component names guessed as column names.
+ *
+ * @author Jakob Jenkov - Copyright 2004-2006 Jenkov Development
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.CONSTRUCTOR)
+public @interface AConstructorMapping {
+    String[] columnNames();
+}
@@ -32,6 +32,7 @@ public @interface ASetterMapping {
 //    String  mappingId()           default ""; //useless
     String  columnName()          default "";
     String  columnType()          default "";    // number, string, date, binary
+    boolean deduplicate()         default false; // true = String values read are deduplicated via a StringCache
 
     //is this ever necessary to set?
     //setters don't care where the data comes from... table or query.
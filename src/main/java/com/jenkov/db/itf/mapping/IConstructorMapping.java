@@ -0,0 +1,68 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.itf.mapping;
+
+import com.jenkov.db.itf.PersistenceException;
+
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+
+/**
+ * A constructor mapping maps the parameters of a constructor to columns in the database.
+ * When an object mapping has a constructor mapping, the object reader creates new objects
+ * by calling the constructor with the values of the mapped columns as arguments, instead of
+ * calling the no-argument constructor and the setter methods of the object. This makes it
+ * possible to read immutable objects, e.g. records.
+ *
+ * <br/><br/>
+ * Columns in the <code>ResultSet</code> that are not mapped by the constructor mapping are
+ * still moved into the object via the setter mappings of the object mapping, if any.
+ *
+ * @author Jakob Jenkov, Jenkov Development
+ */
+public interface IConstructorMapping {
+
+    /**
+     * Returns the constructor to create objects with.
+     * @return The constructor to create objects with.
+     */
+    public Constructor getConstructor();
+
+
+    /**
+     * Returns the names of the columns mapped to the parameters of the constructor,
+     * in the order of the constructor parameters.
+     * @return The names of the columns mapped to the constructor parameters.
+     */
+    public String[]    getColumnNames();
+
+
+    /**
+     * Creates a new object by calling the constructor with the values of the given columns
+     * of the record the <code>ResultSet</code> is currently positioned at.
+     *
+     * @param result The <code>ResultSet</code> to read the constructor arguments from.
+     * @param columnIndexes The <code>ResultSet</code> indexes of the columns mapped to the
+     *        constructor parameters, in the order of the constructor parameters.
+     * @return The new object.
+     * @throws PersistenceException If reading the arguments or calling the constructor fails.
+     */
+    public Object      newInstance(ResultSet result, int[] columnIndexes) throws PersistenceException;
+
+}
@@ -65,6 +65,17 @@ public interface IGetterMapping extends IMethodMapping{
     public void    insertObject(Object value, PreparedStatement statement, int index) throws PersistenceException;
 
 
+    /**
+     * Extracts the value from the given object by calling the getter method associated
+     * with this getter method mapping on the target object.
+     *
+     * @param target The object to extract the value from.
+     * @return The extracted value. Primitive values are returned as their wrapper objects.
+     * @throws PersistenceException If anything goes wrong during the extraction.
+     */
+    public Object  getValueFromObject(Object target) throws PersistenceException;
+
+
     /**
      * Returns whether or not the value of the column in the database matching this getter method method
      * is auto generated by the database. Examples of auto generated column values are primary key values
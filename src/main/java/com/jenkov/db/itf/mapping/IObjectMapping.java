@@ -71,6 +71,23 @@ public interface IObjectMapping {
     public void         setTableName(String tableName);
 
 
+    /**
+     * Returns the maximum number of objects of this object mapping written per JDBC batch, when writing
+     * collections of objects in batches. Larger collections are written in chunks of this size.
+     * 0 means the batch size of the object writer is used.
+     * @return The maximum number of objects written per JDBC batch.
+     */
+    public int          getBatchSize();
+
+
+    /**
+     * Sets the maximum number of objects of this object mapping written per JDBC batch.
+     * 0 means the batch size of the object writer is used.
+     * @param batchSize The maximum number of objects written per JDBC batch.
+     */
+    public void         setBatchSize(int batchSize);
+
+
     /**
      * Returns the class that this object method maps.
      * @return The class mapped by this object method.
@@ -265,6 +282,22 @@ public interface IObjectMapping {
      */
     public ISetterMapping getSetterMapping(Method objectMethod);
 
+
+    /**
+     * Returns the constructor mapping of this object mapping, or null if objects are
+     * created using their no-argument constructor (or a constructor taking a <code>ResultSet</code>).
+     * @return The constructor mapping of this object mapping, or null if it has none.
+     */
+    public IConstructorMapping getConstructorMapping();
+
+
+    /**
+     * Sets the constructor mapping to create objects with when reading them from the database.
+     * Set to null to create objects using their no-argument constructor.
+     * @param constructorMapping The constructor mapping to create objects with.
+     */
+    public void setConstructorMapping(IConstructorMapping constructorMapping);
+
     /*
     public List<INestedObjectMapping>  getNestedObjectMappings();
     public List<IRelatedObjectMapping> getRelatedObjectMappings();
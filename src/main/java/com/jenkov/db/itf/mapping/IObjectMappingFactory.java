@@ -20,6 +20,7 @@ package com.jenkov.db.itf.mapping;
 
 import com.jenkov.db.itf.PersistenceException;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 
 /**
@@ -278,4 +279,16 @@ public interface IObjectMappingFactory {
      * to represent database keys. For instance primary keys and foreign keys.
      */
     public IKey createKey();
+
+
+    /**
+     * Creates a constructor mapping mapping the parameters of the given constructor to the
+     * given columns. The constructor arguments are read using setter mappings matching the
+     * constructor parameter types.
+     * @param constructor The constructor to create objects with.
+     * @param columnNames The names of the columns to map to the constructor parameters, in parameter order.
+     * @return The constructor mapping.
+     * @throws PersistenceException If the number of column names and constructor parameters differ.
+     */
+    public IConstructorMapping createConstructorMapping(Constructor constructor, String[] columnNames) throws PersistenceException;
 }
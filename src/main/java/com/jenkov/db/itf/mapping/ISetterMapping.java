@@ -48,6 +48,19 @@ public interface ISetterMapping extends IMethodMapping{
     public void    insertValueIntoObject  (Object target, ResultSet result) throws PersistenceException;
 
 
+    /**
+     * Like <code>insertValueIntoObject(Object target, ResultSet result)</code>, except the
+     * value is read from the column with the given index rather than resolved by column name.
+     * Used by the object reader when reading records via a precompiled row plan.
+     *
+     * @param target The object to insert the value into.
+     * @param result The <code>ResultSet</code> to read the value from.
+     * @param columnIndex The index of the column in the <code>ResultSet</code> (starting from 1).
+     * @throws PersistenceException If anything goes wrong during the transfer.
+     */
+    public void    insertValueIntoObject  (Object target, ResultSet result, int columnIndex) throws PersistenceException;
+
+
     /**
      * Returns the value from column in the ResultSet that this Setter mapping maps to.
      * This is used when extracting the primary key value of a record in order to read
@@ -57,5 +70,41 @@ public interface ISetterMapping extends IMethodMapping{
      * @throws PersistenceException If the column this setter mapping maps to is not present in the ResultSet
      */
     public Object  getValueFromResultSet(ResultSet result) throws PersistenceException;
-    
+
+
+    /**
+     * Like <code>getValueFromResultSet(ResultSet result)</code>, except the value is read
+     * from the column with the given index rather than resolved by column name.
+     * @param result The ResultSet to read the value from.
+     * @param columnIndex The index of the column in the <code>ResultSet</code> (starting from 1).
+     * @return The read value.
+     * @throws PersistenceException If the value cannot be read from the ResultSet.
+     */
+    public Object  getValueFromResultSet(ResultSet result, int columnIndex) throws PersistenceException;
+
+
+    /**
+     * Resets the value this setter mapping maps to in the given object, to the value a field
+     * of the setter method's parameter type has before being assigned: null for objects,
+     * and zero (or false) for primitives. Used by the object reader when reading a record into an
+     * existing object, for columns that are NULL in the record, since <code>insertValueIntoObject(...)</code>
+     * does not call the setter method for NULL values of primitive types.
+     *
+     * @param target The object to reset the value in.
+     * @throws PersistenceException If calling the setter method fails.
+     */
+    public void    resetValueInObject(Object target) throws PersistenceException;
+
+
+    /**
+     * Inserts a value as returned by <code>getValueFromResultSet(...)</code> into the given object,
+     * by calling the setter method this setter mapping maps to. Like <code>insertValueIntoObject(...)</code>
+     * a null value is not inserted if the setter method takes a primitive type.
+     *
+     * @param target The object to insert the value into.
+     * @param value The value to insert, as returned by <code>getValueFromResultSet(...)</code>.
+     * @throws PersistenceException If calling the setter method fails.
+     */
+    public void    setValueInObject(Object target, Object value) throws PersistenceException;
+
 }
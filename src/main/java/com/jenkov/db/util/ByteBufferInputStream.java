@@ -0,0 +1,61 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.util;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * An <code>InputStream</code> reading the bytes between the position and the limit of a
+ * <code>ByteBuffer</code>. The bytes are copied straight from the buffer into the arrays passed to
+ * <code>read(...)</code>, so no copy of the whole buffer is made, also not for direct buffers.
+ * The position of the given buffer is not changed, so the same buffer can be read again.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ByteBufferInputStream extends InputStream {
+
+    protected ByteBuffer buffer = null;
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+    }
+
+    public int read() {
+        if(!this.buffer.hasRemaining()) return -1;
+        return this.buffer.get() & 0xFF;
+    }
+
+    public int read(byte[] bytes, int offset, int length) {
+        if(length == 0) return 0;
+        if(!this.buffer.hasRemaining()) return -1;
+        int count = Math.min(length, this.buffer.remaining());
+        this.buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    public long skip(long count) {
+        int skipped = (int) Math.min(Math.max(count, 0), this.buffer.remaining());
+        this.buffer.position(this.buffer.position() + skipped);
+        return skipped;
+    }
+
+    public int available() {
+        return this.buffer.remaining();
+    }
+}
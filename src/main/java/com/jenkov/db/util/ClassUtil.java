@@ -21,6 +21,8 @@
  */
 package com.jenkov.db.util;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 /**
@@ -110,6 +112,72 @@ public class ClassUtil {
     }
 
 
+    /**
+     * Returns true if the given class is a record (Java 16+). Records are detected
+     * via reflection, so this method can be used on older Java versions as well,
+     * where it always returns false.
+     * @param theClass The class to check if is a record.
+     * @return True if the class is a record, false if not.
+     */
+    public static boolean isRecord(Class theClass){
+        return theClass.getSuperclass() != null && "java.lang.Record".equals(theClass.getSuperclass().getName());
+    }
+
+    /**
+     * Returns the names of the components of the given record class, in declaration order.
+     * @param recordClass The record class to get the component names of.
+     * @return The names of the record components.
+     * @throws IllegalArgumentException If the class is not a record.
+     */
+    public static String[] getRecordComponentNames(Class recordClass){
+        Object[] components = getRecordComponents(recordClass);
+        String[] names = new String[components.length];
+        for(int i=0; i<components.length; i++){
+            names[i] = (String) invokeNoArgumentMethod(components[i], "getName");
+        }
+        return names;
+    }
+
+    /**
+     * Returns the canonical constructor of the given record class, meaning the constructor
+     * taking the record components as parameters, in declaration order.
+     * @param recordClass The record class to get the canonical constructor of.
+     * @return The canonical constructor of the record class.
+     * @throws IllegalArgumentException If the class is not a record.
+     */
+    public static Constructor getCanonicalConstructor(Class recordClass){
+        Object[] components = getRecordComponents(recordClass);
+        Class[] types = new Class[components.length];
+        for(int i=0; i<components.length; i++){
+            types[i] = (Class) invokeNoArgumentMethod(components[i], "getType");
+        }
+        try {
+            return recordClass.getDeclaredConstructor(types);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("No canonical constructor found for record " + recordClass.getName(), e);
+        }
+    }
+
+    private static Object[] getRecordComponents(Class recordClass){
+        if(!isRecord(recordClass)){
+            throw new IllegalArgumentException("The class " + recordClass.getName() + " is not a record");
+        }
+        return (Object[]) invokeNoArgumentMethod(recordClass, "getRecordComponents");
+    }
+
+    private static Object invokeNoArgumentMethod(Object target, String methodName){
+        try {
+            return target.getClass().getMethod(methodName).invoke(target);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Error calling " + methodName + "() on " + target, e);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Error calling " + methodName + "() on " + target, e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalArgumentException("Error calling " + methodName + "() on " + target, e);
+        }
+    }
+
+
     /**
      * Returns the name of a class with the package name cut off.
      * @param objectClass The class to get the class name without package name for.
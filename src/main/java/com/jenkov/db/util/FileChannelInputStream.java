@@ -0,0 +1,110 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+package com.jenkov.db.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An <code>InputStream</code> reading a region of a file through a <code>FileChannel</code>.
+ * The file is read with positional reads straight into the arrays passed to <code>read(...)</code>,
+ * so the position of the channel is not changed, and no copy of the whole file is made.
+ *
+ * <br/><br/>
+ * When created from a <code>Path</code> the file is not opened until the first byte is read,
+ * and is closed when the end of the file is reached, or when the stream is closed. This way
+ * a stream can be passed to a JDBC driver which reads it when the statement is executed.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class FileChannelInputStream extends InputStream {
+
+    protected Path        path     = null;
+    protected FileChannel channel  = null;
+    protected long        position = 0;
+    protected long        end      = 0;
+
+    /**
+     * Creates a stream reading the given number of bytes from the channel, starting at the given position.
+     */
+    public FileChannelInputStream(FileChannel channel, long position, long length) {
+        this.channel  = channel;
+        this.position = position;
+        this.end      = position + length;
+    }
+
+    /**
+     * Creates a stream reading the given number of bytes from the beginning of the file.
+     * The file is opened when the first byte is read, and closed at the end of the file.
+     */
+    public FileChannelInputStream(Path path, long length) {
+        this.path = path;
+        this.end  = length;
+    }
+
+    public int read() throws IOException {
+        byte[] bytes = new byte[1];
+        int count = read(bytes, 0, 1);
+        return count == -1 ? -1 : bytes[0] & 0xFF;
+    }
+
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if(length == 0) return 0;
+        if(this.position >= this.end){
+            close();
+            return -1;
+        }
+        if(this.channel == null){
+            this.channel = FileChannel.open(this.path, StandardOpenOption.READ);
+        }
+        int count = this.channel.read(ByteBuffer.wrap(bytes, offset, (int) Math.min(length, this.end - this.position)), this.position);
+        if(count == -1){
+            this.end = this.position;
+            close();
+            return -1;
+        }
+        this.position += count;
+        return count;
+    }
+
+    public long skip(long count) {
+        long skipped = Math.min(Math.max(count, 0), this.end - this.position);
+        this.position += skipped;
+        return skipped;
+    }
+
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, this.end - this.position);
+    }
+
+    /**
+     * Closes the file if it was opened from a <code>Path</code> by this stream.
+     * A <code>FileChannel</code> passed to the constructor is not closed.
+     */
+    public void close() throws IOException {
+        if(this.path != null && this.channel != null){
+            this.channel.close();
+            this.channel = null;
+            this.position = this.end;
+        }
+    }
+}
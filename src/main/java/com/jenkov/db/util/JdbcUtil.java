@@ -18,11 +18,18 @@
 
 package com.jenkov.db.util;
 
+import com.jenkov.db.itf.Database;
 import com.jenkov.db.itf.PersistenceException;
 import com.jenkov.db.itf.IObjectDao;
 import com.jenkov.db.impl.mapping.method.AsciiStream;
+import com.jenkov.db.impl.mapping.method.BinaryStream;
 import com.jenkov.db.impl.mapping.method.CharacterStream;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.*;
 import java.math.BigDecimal;
 import java.net.URL;
@@ -310,6 +317,13 @@ public class JdbcUtil {
                 statement.setCharacterStream(index, ((CharacterStream) parameter).getReader(),
                         ((CharacterStream) parameter).getLength());
             }
+            else if(parameter instanceof BinaryStream) {
+                statement.setBinaryStream(index, ((BinaryStream) parameter).getInputStream(),
+                        ((BinaryStream) parameter).getLength());
+            }
+            else if(parameter instanceof Path || parameter instanceof FileChannel || parameter instanceof ByteBuffer) {
+                insertBinaryStream(statement, index, parameter);
+            }
             else if(parameter instanceof Ref     )       statement.setRef    (index, (Ref) parameter);
             else if(parameter instanceof Object  )       statement.setObject (index, parameter);
             else {
@@ -321,6 +335,45 @@ public class JdbcUtil {
         }
     }
 
+    /**
+     * Inserts the contents of a <code>java.nio.file.Path</code>, <code>FileChannel</code> or <code>ByteBuffer</code>
+     * into the <code>PreparedStatement</code> as a binary stream of known length. The driver reads the content
+     * in chunks when the statement is executed, straight from the file or buffer, so the content is never
+     * copied into one big byte array.
+     *
+     * <br/><br/>
+     * A file given as a <code>Path</code> is opened when the driver starts reading it, and closed when the
+     * end of the file is reached. A <code>FileChannel</code> is read from its current position to its end,
+     * and a <code>ByteBuffer</code> from its position to its limit. The positions are not changed.
+     * A null content is inserted as SQL NULL.
+     *
+     * @param statement The <code>PreparedStatement</code> to insert the content into.
+     * @param index The index of the parameter to insert the content as.
+     * @param content The <code>Path</code>, <code>FileChannel</code> or <code>ByteBuffer</code> to insert.
+     * @throws SQLException If the size of the file cannot be read, or the driver fails to set the parameter.
+     */
+    public static void insertBinaryStream(PreparedStatement statement, int index, Object content) throws SQLException {
+        try {
+            if(content == null){
+                statement.setNull(index, Types.LONGVARBINARY);
+            } else if(content instanceof Path){
+                long length = Files.size((Path) content);
+                statement.setBinaryStream(index, new FileChannelInputStream((Path) content, length), length);
+            } else if(content instanceof FileChannel){
+                FileChannel channel = (FileChannel) content;
+                long length = Math.max(0, channel.size() - channel.position());
+                statement.setBinaryStream(index, new FileChannelInputStream(channel, channel.position(), length), length);
+            } else if(content instanceof ByteBuffer){
+                ByteBuffer buffer = (ByteBuffer) content;
+                statement.setBinaryStream(index, new ByteBufferInputStream(buffer), buffer.remaining());
+            } else {
+                throw new IllegalArgumentException("Binary content type not supported: " + content.getClass().getName());
+            }
+        } catch (IOException e) {
+            throw new SQLException("Error reading size of binary content (" + content + ")", e);
+        }
+    }
+
     /**
      * Inserts all parameters in the collection into the <code>PreparedStatement</code>
      * instance in the sequence their are returned by the collection's iterator.
@@ -349,6 +402,19 @@ public class JdbcUtil {
         }
     }
 
+    /**
+     * Sets the fetch size of the given statement to the streaming fetch size of the given database, for the given
+     * fetch size. Fetch sizes of 0 or less leave the statement's fetch size at the driver default.
+     * @param statement The statement to set the fetch size on.
+     * @param fetchSize The configured fetch size.
+     * @param database  The database the statement is executed against, or null if not known.
+     * @throws SQLException If the driver rejects the fetch size.
+     */
+    public static void setFetchSize(Statement statement, int fetchSize, Database database) throws SQLException {
+        if(fetchSize <= 0) return;
+        statement.setFetchSize(database != null ? database.getStreamingFetchSize(fetchSize) : fetchSize);
+    }
+
     public static PreparedStatement prepareStatement(Connection connection, String sql) throws PersistenceException{
         try {
             return connection.prepareStatement(sql);
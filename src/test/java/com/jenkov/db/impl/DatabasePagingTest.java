@@ -0,0 +1,156 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.impl.filter.PageReadFilter;
+import com.jenkov.db.itf.Database;
+import com.jenkov.db.itf.IObjectDao;
+import com.jenkov.db.itf.mapping.IObjectMapping;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests pushing the paging of a <code>PageReadFilter</code> down to the database,
+ * by appending the paging clause of the database to the SQL.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class DatabasePagingTest {
+
+    protected TestDatabase database = null;
+    protected ObjectReader reader   = null;
+    protected IObjectDao   dao      = null;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database = TestDatabase.open();
+        this.database.getPersistenceManager().getConfiguration().setDatabase(Database.H2);
+        this.reader = (ObjectReader) this.database.getPersistenceManager().getConfiguration().getObjectReader();
+        this.dao    = this.database.getDaos().getObjectDao();
+        this.database.insertPersons(25, 100);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void testDatabasePagingIsOptIn() {
+        PageReadFilter filter = new PageReadFilter(1, 10);
+        assertFalse(this.reader.isDatabasePagingPossible("select * from PERSON", filter));
+
+        filter.setDatabasePaging(true);
+        assertTrue(this.reader.isDatabasePagingPossible("select * from PERSON", filter));
+    }
+
+    @Test
+    public void testDatabasePagingNotPossible() {
+        PageReadFilter filter = pagingFilter(0, 10);
+        assertFalse(this.reader.isDatabasePagingPossible("select * from PERSON", null));
+        assertFalse(this.reader.isDatabasePagingPossible("select * from PERSON limit 5", filter));
+        assertFalse(this.reader.isDatabasePagingPossible("select * from PERSON offset 5 rows", filter));
+        assertFalse(this.reader.isDatabasePagingPossible("select * from PERSON for update", filter));
+        assertFalse(this.reader.isDatabasePagingPossible(
+                "select * from PERSON where ID < 3 union select * from PERSON where ID > 20", filter));
+        assertFalse(this.reader.isDatabasePagingPossible("select * from PERSON -- comment", filter));
+        assertFalse(this.reader.isDatabasePagingPossible("select * from PERSON;", filter));
+        assertFalse(this.reader.isDatabasePagingPossible("call READ_PERSONS()", filter));
+
+        PageReadFilter subclassFilter = new PageReadFilter(0, 10){ };
+        subclassFilter.setDatabasePaging(true);
+        assertFalse(this.reader.isDatabasePagingPossible("select * from PERSON", subclassFilter));
+
+        this.reader.setDatabase(Database.FIREBIRD);
+        assertFalse(this.reader.isDatabasePagingPossible("select * from PERSON", filter));
+    }
+
+    @Test
+    public void testPagingClauseAndParameters() {
+        assertEquals("select * from PERSON where AGE > ?" + Database.PAGING_OFFSET_FETCH,
+                this.reader.appendPagingClause(" select * from PERSON where AGE > ? "));
+
+        Object[] parameters = this.reader.appendPagingParameters(new Object[]{Integer.valueOf(5)}, pagingFilter(2, 10));
+        assertArrayEquals(new Object[]{Integer.valueOf(5), Long.valueOf(20), Integer.valueOf(10)}, parameters);
+
+        parameters = this.reader.appendPagingParameters(null, pagingFilter(0, 3));
+        assertArrayEquals(new Object[]{Long.valueOf(0), Integer.valueOf(3)}, parameters);
+    }
+
+    @Test
+    public void testReadPage() throws Exception {
+        List page = this.dao.readList(Person.class, "select * from PERSON where AGE > ? order by ID",
+                pagingFilter(1, 3), Integer.valueOf(5));
+        assertIds(new long[]{9, 10, 11}, page);
+
+        List lastPage = this.dao.readList(Person.class, "select * from PERSON order by ID", pagingFilter(2, 10));
+        assertIds(new long[]{21, 22, 23, 24, 25}, lastPage);
+
+        List pastLastPage = this.dao.readList(Person.class, "select * from PERSON order by ID", pagingFilter(5, 10));
+        assertEquals(0, pastLastPage.size());
+    }
+
+    @Test
+    public void testReadPageSameAsFilterPaging() throws Exception {
+        List databasePage = this.dao.readList(Person.class, "select * from PERSON order by ID", pagingFilter(3, 4));
+        List filterPage   = this.dao.readList(Person.class, "select * from PERSON order by ID", new PageReadFilter(3, 4));
+        assertIds(new long[]{13, 14, 15, 16}, databasePage);
+        assertIds(new long[]{13, 14, 15, 16}, filterPage);
+    }
+
+    @Test
+    public void testPagingClauseIsExecuted() throws Exception {
+        List       statements          = new ArrayList();
+        Connection recordingConnection = this.database.recordStatements(statements);
+        IObjectMapping mapping = this.database.getPersistenceManager().getConfiguration().getObjectMappingCache()
+                .getObjectMapping(Person.class);
+
+        List page = this.reader.readList(mapping, "select * from PERSON order by ID", new Object[0],
+                recordingConnection, pagingFilter(1, 3));
+        assertIds(new long[]{4, 5, 6}, page);
+        assertEquals(1, statements.size());
+        assertEquals("select * from PERSON order by ID" + Database.PAGING_OFFSET_FETCH, statements.get(0));
+    }
+
+    @Test
+    public void testSqlWithOwnPagingIsPagedByFilter() throws Exception {
+        List page = this.dao.readList(Person.class, "select * from PERSON order by ID limit 20", pagingFilter(1, 3));
+        assertIds(new long[]{4, 5, 6}, page);
+    }
+
+    protected PageReadFilter pagingFilter(int pageNumber, int pageSize) {
+        PageReadFilter filter = new PageReadFilter(pageNumber, pageSize);
+        filter.setDatabasePaging(true);
+        return filter;
+    }
+
+    protected void assertIds(long[] ids, List persons) {
+        assertEquals(ids.length, persons.size());
+        for(int i=0; i<ids.length; i++){
+            assertEquals(ids[i], ((Person) persons.get(i)).getId());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.Database;
+import com.jenkov.db.itf.IObjectDao;
+import com.jenkov.db.itf.IPersistenceConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests reading objects by many keys bound as a single SQL array parameter, and the
+ * fallback to IN lists when the keys cannot be bound as an array.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class KeyArrayTest {
+
+    protected TestDatabase              database      = null;
+    protected IPersistenceConfiguration configuration = null;
+    protected List                      statements    = new ArrayList();
+
+    @Before
+    public void setUp() throws Exception {
+        this.database      = TestDatabase.open();
+        this.configuration = this.database.getPersistenceManager().getConfiguration();
+        this.configuration.setDatabase(Database.H2);
+        this.configuration.setMaxPrimaryKeysPerStatement(64);
+        this.database.insertPersons(3000, 50);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void testArrayTypeNames() {
+        List longs = Arrays.asList(new Object[]{Long.valueOf(1), Integer.valueOf(2), null});
+        assertEquals("BIGINT", Database.H2.getArrayTypeName(longs));
+        assertEquals("int8", Database.POSTGRESQL.getArrayTypeName(longs));
+        assertEquals("varchar", Database.POSTGRESQL.getArrayTypeName(Arrays.asList(new Object[]{"a", "b"})));
+        assertNull(Database.MYSQL.getArrayTypeName(longs));
+
+        List uuids = Arrays.asList(new Object[]{UUID.randomUUID()});
+        assertEquals("UUID", Database.H2.getArrayTypeName(uuids));
+        assertNull(Database.HSQLDB.getArrayTypeName(uuids));
+
+        assertNull(Database.H2.getArrayTypeName(Arrays.asList(new Object[]{Long.valueOf(1), "2"})));
+        assertNull(Database.H2.getArrayTypeName(Arrays.asList(new Object[]{new Object()})));
+        assertNull(Database.H2.getArrayTypeName(Arrays.asList(new Object[]{null})));
+    }
+
+    @Test
+    public void testReadByPrimaryKeyArray() throws Exception {
+        List persons = createDao(false).readListByPrimaryKeys(Person.class, oddKeys(2000));
+        assertEquals(1000, persons.size());
+        assertEquals(1, this.statements.size());
+        assertTrue((String) this.statements.get(0), ((String) this.statements.get(0)).endsWith("ID = ANY(?)"));
+        for(int i=0; i<persons.size(); i++){
+            assertEquals(1, ((Person) persons.get(i)).getId() % 2);
+        }
+    }
+
+    @Test
+    public void testReadByForeignKeyArray() throws Exception {
+        Map persons = createDao(false).readListByForeignKeys(Person.class, "AGE",
+                Arrays.asList(new Object[]{Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(99)}));
+        assertEquals(1, this.statements.size());
+        assertEquals(60, ((List) persons.get(Integer.valueOf(1))).size());
+        assertEquals(60, ((List) persons.get(Integer.valueOf(2))).size());
+        assertEquals(0, ((List) persons.get(Integer.valueOf(99))).size());
+    }
+
+    @Test
+    public void testFallbackWhenArrayCannotBeCreated() throws Exception {
+        List persons = createDao(true).readListByPrimaryKeys(Person.class, oddKeys(200));
+        assertEquals(100, persons.size());
+        assertEquals(2, this.statements.size());
+        assertTrue((String) this.statements.get(0), ((String) this.statements.get(0)).indexOf("ANY") == -1);
+    }
+
+    @Test
+    public void testFallbackForMixedValueTypes() throws Exception {
+        List persons = createDao(false).readListByColumnValues(Person.class, "ID",
+                Arrays.asList(new Object[]{Integer.valueOf(1), "2", Long.valueOf(3)}));
+        assertEquals(3, persons.size());
+        assertEquals(1, this.statements.size());
+        assertTrue((String) this.statements.get(0), ((String) this.statements.get(0)).indexOf("ANY") == -1);
+    }
+
+    @Test
+    public void testNoArrayWithoutArraySupport() throws Exception {
+        this.configuration.setDatabase(Database.DEFAULT);
+        List persons = createDao(false).readListByPrimaryKeys(Person.class, oddKeys(200));
+        assertEquals(100, persons.size());
+        assertEquals(2, this.statements.size());
+    }
+
+    /**
+     * Creates a DAO on a connection recording the SQL of the statements it prepares.
+     * If failArrays is true, the connection fails to create SQL arrays, like drivers
+     * that do not support them.
+     */
+    protected IObjectDao createDao(final boolean failArrays) {
+        final Connection connection = this.database.getConnection();
+        Connection recordingConnection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{Connection.class}, new InvocationHandler(){
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if(failArrays && method.getName().equals("createArrayOf")){
+                            throw new SQLFeatureNotSupportedException("createArrayOf");
+                        }
+                        if(method.getName().startsWith("prepare")) statements.add(args[0]);
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+        return this.database.getPersistenceManager().createDaos(recordingConnection).getObjectDao();
+    }
+
+    protected List oddKeys(int max) {
+        List keys = new ArrayList();
+        for(long i=1; i<=max; i+=2){
+            keys.add(Long.valueOf(i));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.impl.mapping.Key;
+import com.jenkov.db.impl.mapping.KeyValue;
+import com.jenkov.db.itf.Database;
+import com.jenkov.db.itf.IObjectDao;
+import com.jenkov.db.itf.IPersistenceConfiguration;
+import com.jenkov.db.itf.mapping.IKey;
+import com.jenkov.db.itf.mapping.IObjectMapping;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests keyset pagination by <code>readListAfter(...)</code>: the generated key comparison, its
+ * parameters, and reading all records page by page with and without row value comparisons.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class KeysetPaginationTest {
+
+    /** A database like H2, but without row value comparisons, so the key comparison is expanded. */
+    protected static final Database NO_ROW_VALUES =
+            new Database("H2", false, true, true, false, Database.PAGING_OFFSET_FETCH);
+
+    protected TestDatabase              database      = null;
+    protected IPersistenceConfiguration configuration = null;
+    protected ObjectDao                 dao           = null;
+    protected IObjectMapping            mapping       = null;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database      = TestDatabase.open();
+        this.configuration = this.database.getPersistenceManager().getConfiguration();
+        this.configuration.setDatabase(Database.H2);
+        this.dao           = (ObjectDao) this.database.getDaos().getObjectDao();
+        this.database.insertPersons(23, 5);
+        this.mapping = this.configuration.getObjectMappingCache().getObjectMapping(Person.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void testSingleColumnComparison() throws Exception {
+        String sql = this.configuration.getSqlGenerator().generateReadListAfterKeyStatement(
+                this.mapping, new Key("ID"), true, false);
+        assertTrue(sql, sql.endsWith(" from PERSON where ID > ? order by ID"));
+
+        sql = this.configuration.getSqlGenerator().generateReadListAfterKeyStatement(
+                this.mapping, new Key("ID"), false, false);
+        assertTrue(sql, sql.endsWith(" from PERSON order by ID"));
+    }
+
+    @Test
+    public void testRowValueComparison() throws Exception {
+        String sql = this.configuration.getSqlGenerator().generateReadListAfterKeyStatement(
+                this.mapping, new Key(Arrays.asList(new String[]{"AGE", "ID"})), true, true);
+        assertTrue(sql, sql.endsWith(" from PERSON where (AGE, ID) > (?, ?) order by AGE, ID"));
+    }
+
+    @Test
+    public void testExpandedComparison() throws Exception {
+        String sql = this.configuration.getSqlGenerator().generateReadListAfterKeyStatement(
+                this.mapping, new Key(Arrays.asList(new String[]{"AGE", "NAME", "ID"})), true, false);
+        assertTrue(sql, sql.endsWith(" from PERSON where AGE >= ? and ((AGE > ?) or (AGE = ? and NAME > ?)" +
+                " or (AGE = ? and NAME = ? and ID > ?)) order by AGE, NAME, ID"));
+    }
+
+    @Test
+    public void testExpandedParameters() throws Exception {
+        IKey      orderBy  = new Key(Arrays.asList(new String[]{"AGE", "NAME", "ID"}));
+        KeyValue  lastKey  = new KeyValue();
+        lastKey.addColumnValue("AGE", Integer.valueOf(2));
+        lastKey.addColumnValue("NAME", "name7");
+        lastKey.addColumnValue("ID", Long.valueOf(7));
+
+        Object[] expanded = this.dao.getAfterKeyParameters(this.mapping, orderBy, lastKey, false);
+        assertArrayEquals(new Object[]{Integer.valueOf(2),
+                Integer.valueOf(2),
+                Integer.valueOf(2), "name7",
+                Integer.valueOf(2), "name7", Long.valueOf(7)}, expanded);
+
+        Object[] rowValues = this.dao.getAfterKeyParameters(this.mapping, orderBy, lastKey, true);
+        assertArrayEquals(new Object[]{Integer.valueOf(2), "name7", Long.valueOf(7)}, rowValues);
+
+        Person lastPerson = new Person(7, "name7", 2);
+        assertArrayEquals(rowValues, this.dao.getAfterKeyParameters(this.mapping, orderBy, lastPerson, true));
+    }
+
+    @Test
+    public void testReadAllPagesByPrimaryKey() throws Exception {
+        List   persons = new ArrayList();
+        Object last    = null;
+        int    pages   = 0;
+        while(true){
+            List page = this.dao.readListAfter(Person.class, last, 5);
+            if(page.isEmpty()) break;
+            assertTrue(page.size() <= 5);
+            persons.addAll(page);
+            last = page.get(page.size() - 1);
+            pages++;
+        }
+        assertEquals(5, pages);
+        assertEquals(23, persons.size());
+        for(int i=0; i<persons.size(); i++){
+            assertEquals(i + 1, ((Person) persons.get(i)).getId());
+        }
+
+        List afterId = this.dao.readListAfter(Person.class, Long.valueOf(20), 5);
+        assertEquals(3, afterId.size());
+        assertEquals(21, ((Person) afterId.get(0)).getId());
+    }
+
+    @Test
+    public void testReadAllPagesByCompoundKey() throws Exception {
+        assertAllPagesByAgeAndId();
+    }
+
+    @Test
+    public void testReadAllPagesByCompoundKeyExpanded() throws Exception {
+        this.configuration.setDatabase(NO_ROW_VALUES);
+        assertAllPagesByAgeAndId();
+    }
+
+    @Test
+    public void testPageSizeIsPassedToDatabase() throws Exception {
+        List       statements = new ArrayList();
+        IObjectDao dao        = this.database.getPersistenceManager()
+                .createDaos(this.database.recordStatements(statements)).getObjectDao();
+
+        List page = dao.readListAfter(Person.class, Long.valueOf(10), 4);
+        assertEquals(4, page.size());
+        assertEquals(1, statements.size());
+        assertTrue((String) statements.get(0), ((String) statements.get(0)).endsWith(
+                " where ID > ? order by ID" + Database.PAGING_OFFSET_FETCH));
+    }
+
+    /**
+     * Reads all persons ordered by age and id, 4 at a time. Since the ages repeat, the pages
+     * must continue within persons of the same age.
+     */
+    protected void assertAllPagesByAgeAndId() throws Exception {
+        IKey   orderBy = new Key(Arrays.asList(new String[]{"AGE", "ID"}));
+        List   persons = new ArrayList();
+        Object last    = null;
+        while(true){
+            List page = this.dao.readListAfter(Person.class, orderBy, last, 4);
+            if(page.isEmpty()) break;
+            persons.addAll(page);
+            last = page.get(page.size() - 1);
+        }
+        assertEquals(23, persons.size());
+        for(int i=1; i<persons.size(); i++){
+            Person previous = (Person) persons.get(i - 1);
+            Person person   = (Person) persons.get(i);
+            assertTrue(previous.getAge() < person.getAge()
+                    || previous.getAge() == person.getAge() && previous.getId() < person.getId());
+        }
+    }
+}
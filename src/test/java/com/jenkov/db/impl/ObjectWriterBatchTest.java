@@ -0,0 +1,208 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.IObjectDao;
+import com.jenkov.db.itf.IPersistenceConfiguration;
+import com.jenkov.db.itf.mapping.IObjectMapping;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests executing the JDBC batches of the object writer in chunks, aggregating the results of
+ * the chunks, and adapting the batch size to the batch latency.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ObjectWriterBatchTest {
+
+    protected TestDatabase              database      = null;
+    protected IPersistenceConfiguration configuration = null;
+    protected ObjectDao                 dao           = null;
+    protected List                      batchSizes    = new ArrayList();
+
+    @Before
+    public void setUp() throws Exception {
+        this.database      = TestDatabase.open();
+        this.configuration = this.database.getPersistenceManager().getConfiguration();
+        this.dao           = (ObjectDao) this.database.getPersistenceManager()
+                .createDaos(countBatches(this.database.getConnection(), this.batchSizes)).getObjectDao();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void testSingleBatchByDefault() throws Exception {
+        int[] affected = this.dao.insertBatch(persons(1, 25));
+        assertEquals(25, affected.length);
+        assertEquals(Arrays.asList(new Integer[]{Integer.valueOf(25)}), this.batchSizes);
+    }
+
+    @Test
+    public void testInsertBatchInChunks() throws Exception {
+        this.configuration.setWriteBatchSize(10);
+        int[] affected = this.dao.insertBatch(persons(1, 25));
+
+        assertEquals(25, affected.length);
+        for(int i=0; i<affected.length; i++){
+            assertEquals(1, affected[i]);
+        }
+        assertEquals(Arrays.asList(new Integer[]{Integer.valueOf(10), Integer.valueOf(10), Integer.valueOf(5)}),
+                this.batchSizes);
+        assertEquals(25, this.dao.readList(Person.class, "select * from PERSON").size());
+    }
+
+    @Test
+    public void testUpdateAndDeleteBatchInChunks() throws Exception {
+        List persons = persons(1, 20);
+        this.dao.insertBatch(persons);
+
+        this.configuration.setWriteBatchSize(8);
+        this.batchSizes.clear();
+        for(int i=0; i<persons.size(); i++){
+            ((Person) persons.get(i)).setAge(99);
+        }
+        int[] updated = this.dao.updateBatch(persons);
+        assertEquals(20, updated.length);
+        assertEquals(Arrays.asList(new Integer[]{Integer.valueOf(8), Integer.valueOf(8), Integer.valueOf(4)}),
+                this.batchSizes);
+        assertEquals(20, this.dao.readList(Person.class, "select * from PERSON where AGE = 99").size());
+
+        this.batchSizes.clear();
+        int[] deleted = this.dao.deleteBatch(persons.subList(0, 16));
+        assertEquals(16, deleted.length);
+        assertEquals(Arrays.asList(new Integer[]{Integer.valueOf(8), Integer.valueOf(8)}), this.batchSizes);
+        assertEquals(4, this.dao.readList(Person.class, "select * from PERSON").size());
+    }
+
+    @Test
+    public void testMappingBatchSizeOverridesConfiguration() throws Exception {
+        this.configuration.setWriteBatchSize(10);
+        this.dao.getObjectMapping(Person.class).setBatchSize(4);
+
+        assertEquals(10, this.dao.insertBatch(persons(1, 10)).length);
+        assertEquals(Arrays.asList(new Integer[]{Integer.valueOf(4), Integer.valueOf(4), Integer.valueOf(2)}),
+                this.batchSizes);
+    }
+
+    @Test
+    public void testAdaptiveBatchSize() throws Exception {
+        IObjectMapping mapping = this.dao.getObjectMapping(Person.class);
+        ObjectWriter   writer  = new ObjectWriter();
+
+        writer.setBatchSize(100);
+        writer.adaptBatchSize(mapping, 100, 1000);
+        assertEquals("no adapting without a batch latency", 100, writer.getBatchSize(mapping));
+
+        writer.setBatchLatency(100);
+        assertEquals(100, writer.getBatchSize(mapping));
+
+        writer.adaptBatchSize(mapping, 100, 250);
+        assertEquals(50, writer.getBatchSize(mapping));
+
+        writer.adaptBatchSize(mapping, 50, 75);
+        assertEquals(50, writer.getBatchSize(mapping));
+
+        writer.adaptBatchSize(mapping, 50, 10);
+        assertEquals(100, writer.getBatchSize(mapping));
+
+        writer.adaptBatchSize(mapping, ObjectWriter.MIN_ADAPTIVE_BATCH_SIZE, 1000);
+        assertEquals(ObjectWriter.MIN_ADAPTIVE_BATCH_SIZE, writer.getBatchSize(mapping));
+
+        writer.adaptBatchSize(mapping, ObjectWriter.MAX_ADAPTIVE_BATCH_SIZE, 0);
+        assertEquals(ObjectWriter.MAX_ADAPTIVE_BATCH_SIZE, writer.getBatchSize(mapping));
+
+        ObjectWriter unsizedWriter = new ObjectWriter();
+        unsizedWriter.setBatchLatency(100);
+        assertEquals(ObjectWriter.DEFAULT_ADAPTIVE_BATCH_SIZE, unsizedWriter.getBatchSize(mapping));
+    }
+
+    @Test
+    public void testAdaptiveBatchSizeIsUsedForNextChunks() throws Exception {
+        this.configuration.setWriteBatchSize(16);
+        this.configuration.setWriteBatchLatency(60000);
+
+        this.dao.insertBatch(persons(1, 16 + 32 + 10));
+        assertEquals(Arrays.asList(new Integer[]{Integer.valueOf(16), Integer.valueOf(32), Integer.valueOf(10)}),
+                this.batchSizes);
+    }
+
+    protected List persons(int from, int to) {
+        List persons = new ArrayList();
+        for(int i=from; i<=to; i++){
+            persons.add(new Person(i, "name" + i, i));
+        }
+        return persons;
+    }
+
+    /**
+     * Returns a connection that delegates to the given connection, and adds the number of records
+     * in each batch its prepared statements execute to the given list.
+     */
+    protected Connection countBatches(final Connection connection, final List batchSizes) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                new InvocationHandler(){
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        Object result = invokeOn(connection, method, args);
+                        if(result instanceof PreparedStatement){
+                            return countBatches((PreparedStatement) result, batchSizes);
+                        }
+                        return result;
+                    }
+                });
+    }
+
+    protected PreparedStatement countBatches(final PreparedStatement statement, final List batchSizes) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{PreparedStatement.class},
+                new InvocationHandler(){
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        Object result = invokeOn(statement, method, args);
+                        if("executeBatch".equals(method.getName())){
+                            batchSizes.add(Integer.valueOf(((int[]) result).length));
+                        }
+                        return result;
+                    }
+                });
+    }
+
+    protected Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+/**
+ * A persistent class used by the tests, mapped to the PERSON table created by
+ * <code>TestDatabase</code>.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class Person {
+
+    protected long    id    = 0;
+    protected String  name  = null;
+    protected int     age   = 0;
+    protected Double  score = null;
+    protected Integer rank  = null;
+
+    public Person() {
+    }
+
+    public Person(long id, String name, int age) {
+        this.id   = id;
+        this.name = name;
+        this.age  = age;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public Integer getRank() {
+        return rank;
+    }
+
+    public void setRank(Integer rank) {
+        this.rank = rank;
+    }
+
+    public String toString() {
+        return "Person(" + id + ", " + name + ", " + age + ")";
+    }
+}
@@ -0,0 +1,136 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.Database;
+import com.jenkov.db.itf.IPersistenceConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests reading objects by primary keys using IN lists padded to bucket sizes, so the
+ * SQL for each bucket size is generated once and taken from the cache afterwards.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class ReadListByPrimaryKeysTest {
+
+    protected TestDatabase              database      = null;
+    protected IPersistenceConfiguration configuration = null;
+    protected ObjectDao                 dao           = null;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database      = TestDatabase.open();
+        this.configuration = this.database.getPersistenceManager().getConfiguration();
+        this.dao           = (ObjectDao) this.database.getDaos().getObjectDao();
+        this.database.insertPersons(20, 10);
+
+        //a database without array parameters, so primary keys are read using IN lists.
+        this.configuration.setDatabase(Database.DEFAULT);
+        this.configuration.setMaxPrimaryKeysPerStatement(8);
+        this.configuration.getReadListByPrimaryKeysSqlCache().clear();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void testBucketSize() {
+        assertEquals(1, this.dao.getPrimaryKeysBucketSize(1, 512));
+        assertEquals(2, this.dao.getPrimaryKeysBucketSize(2, 512));
+        assertEquals(4, this.dao.getPrimaryKeysBucketSize(3, 512));
+        assertEquals(8, this.dao.getPrimaryKeysBucketSize(5, 8));
+        assertEquals(128, this.dao.getPrimaryKeysBucketSize(100, 512));
+        assertEquals(200, this.dao.getPrimaryKeysBucketSize(129, 200));
+    }
+
+    @Test
+    public void testPadPrimaryKeys() throws Exception {
+        List keys = Arrays.asList(new Object[]{Long.valueOf(1), Long.valueOf(2), Long.valueOf(3)});
+        assertEquals(Arrays.asList(new Object[]{Long.valueOf(1), Long.valueOf(2), Long.valueOf(3), Long.valueOf(3)}),
+                this.dao.padPrimaryKeys(keys));
+
+        List fullBucket = Arrays.asList(new Object[]{Long.valueOf(1), Long.valueOf(2), Long.valueOf(3), Long.valueOf(4)});
+        assertSame(fullBucket, this.dao.padPrimaryKeys(fullBucket));
+    }
+
+    @Test
+    public void testReadListInChunks() throws Exception {
+        List keys = new ArrayList();
+        for(int i=20; i>=1; i--){
+            keys.add(Long.valueOf(i));
+        }
+        keys.add(Long.valueOf(5));
+
+        List persons = this.dao.readListByPrimaryKeys(Person.class, keys);
+        assertEquals(20, persons.size());
+        assertEquals(20, ids(persons).size());
+        for(int i=1; i<=20; i++){
+            assertTrue("missing person " + i, ids(persons).contains(Long.valueOf(i)));
+        }
+
+        //20 distinct keys are read in the buckets 8, 8 and 4.
+        assertEquals(2, this.configuration.getReadListByPrimaryKeysSqlCache().size());
+    }
+
+    @Test
+    public void testBucketSqlIsReused() throws Exception {
+        List persons = this.dao.readListByPrimaryKeys(Person.class,
+                Arrays.asList(new Object[]{Long.valueOf(1), Long.valueOf(2), Long.valueOf(3)}));
+        assertEquals(3, persons.size());
+        assertEquals(1, this.configuration.getReadListByPrimaryKeysSqlCache().size());
+
+        persons = this.dao.readListByPrimaryKeys(Person.class,
+                Arrays.asList(new Object[]{Long.valueOf(7), Long.valueOf(9), Long.valueOf(11), Long.valueOf(13)}));
+        assertEquals(4, persons.size());
+        assertEquals(1, this.configuration.getReadListByPrimaryKeysSqlCache().size());
+
+        persons = this.dao.readListByPrimaryKeys(Person.class,
+                Arrays.asList(new Object[]{Long.valueOf(1), Long.valueOf(2), Long.valueOf(3), Long.valueOf(4), Long.valueOf(5)}));
+        assertEquals(5, persons.size());
+        assertEquals(2, this.configuration.getReadListByPrimaryKeysSqlCache().size());
+    }
+
+    @Test
+    public void testMissingKeysAreSkipped() throws Exception {
+        List persons = this.dao.readListByPrimaryKeys(Person.class,
+                Arrays.asList(new Object[]{Long.valueOf(2), Long.valueOf(99), Long.valueOf(100)}));
+        assertEquals(1, persons.size());
+        assertEquals(2, ((Person) persons.get(0)).getId());
+    }
+
+    protected List ids(List persons) {
+        List ids = new ArrayList();
+        for(int i=0; i<persons.size(); i++){
+            Long id = Long.valueOf(((Person) persons.get(i)).getId());
+            if(!ids.contains(id)) ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.mapping.IObjectMapping;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests the caching of row plans by object mapping and <code>ResultSet</code> columns,
+ * and reading records through them.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class RowPlanTest {
+
+    protected TestDatabase   database = null;
+    protected ObjectReader   reader   = null;
+    protected IObjectMapping mapping  = null;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database = TestDatabase.open();
+        this.database.insertPersons(3, 10);
+        this.database.update("update PERSON set SCORE = 1.5, RANK = 7 where ID = 1");
+        this.database.getDaos().getObjectDao().readByPrimaryKey(Person.class, Long.valueOf(1));
+
+        this.reader  = (ObjectReader) this.database.getPersistenceManager().getConfiguration().getObjectReader();
+        this.mapping = this.database.getPersistenceManager().getConfiguration().getObjectMappingCache()
+                .getObjectMapping(Person.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void testPlanIsCachedBySameColumns() throws Exception {
+        RowPlan first  = getRowPlan("select ID, NAME, AGE from PERSON");
+        RowPlan second = getRowPlan("select ID, NAME, AGE from PERSON where ID > 1");
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testPlanIsNotSharedByDifferentColumns() throws Exception {
+        RowPlan plan          = getRowPlan("select ID, NAME, AGE from PERSON");
+        RowPlan otherOrder    = getRowPlan("select AGE, NAME, ID from PERSON");
+        RowPlan otherColumns  = getRowPlan("select ID, NAME from PERSON");
+        assertNotSame(plan, otherOrder);
+        assertNotSame(plan, otherColumns);
+        assertNotSame(otherOrder, otherColumns);
+
+        assertEquals(1, plan.getColumnIndex("ID"));
+        assertEquals(3, otherOrder.getColumnIndex("id"));
+        assertEquals(-1, otherColumns.getColumnIndex("AGE"));
+    }
+
+    @Test
+    public void testPlanIsNotSharedByDifferentMappings() throws Exception {
+        RowPlan plan = getRowPlan("select ID, NAME, AGE from PERSON");
+
+        IObjectMapping otherMapping = this.database.getPersistenceManager().getConfiguration().getObjectMapper()
+                .mapToTable(Person.class, null, this.database.getConnection(), null, "PERSON");
+        Statement statement = this.database.getConnection().createStatement();
+        try {
+            ResultSet result = statement.executeQuery("select ID, NAME, AGE from PERSON");
+            assertNotSame(plan, this.reader.getRowPlan(otherMapping, result));
+        } finally {
+            statement.close();
+        }
+    }
+
+    @Test
+    public void testClearRowPlans() throws Exception {
+        RowPlan plan = getRowPlan("select ID, NAME, AGE from PERSON");
+        this.reader.clearRowPlans();
+        assertNotSame(plan, getRowPlan("select ID, NAME, AGE from PERSON"));
+    }
+
+    @Test
+    public void testReadThroughPlan() throws Exception {
+        Statement statement = this.database.getConnection().createStatement();
+        try {
+            ResultSet result = statement.executeQuery("select RANK, SCORE, AGE, NAME, ID from PERSON order by ID");
+            RowPlan plan = this.reader.getRowPlan(this.mapping, result);
+
+            assertTrue(result.next());
+            Person person = (Person) plan.read(result, new Person());
+            assertEquals(1, person.getId());
+            assertEquals("name1", person.getName());
+            assertEquals(1, person.getAge());
+            assertEquals(Double.valueOf(1.5), person.getScore());
+            assertEquals(Integer.valueOf(7), person.getRank());
+
+            assertTrue(result.next());
+            plan.refresh(result, person);
+            assertEquals(2, person.getId());
+            assertEquals("name2", person.getName());
+            assertNull(person.getScore());
+            assertNull(person.getRank());
+        } finally {
+            statement.close();
+        }
+    }
+
+    protected RowPlan getRowPlan(String sql) throws Exception {
+        Statement statement = this.database.getConnection().createStatement();
+        try {
+            return this.reader.getRowPlan(this.mapping, statement.executeQuery(sql));
+        } finally {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.ICloseableList;
+import com.jenkov.db.itf.IObjectDao;
+import com.jenkov.db.itf.IPersistenceConfiguration;
+import com.jenkov.db.itf.PersistenceExceptionUnchecked;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests spilling the records of large reads to a temporary file, reading the spilled
+ * objects back, and releasing the file and its memory mappings when the list is closed.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class SpillingListTest {
+
+    protected TestDatabase              database      = null;
+    protected IPersistenceConfiguration configuration = null;
+    protected IObjectDao                dao           = null;
+    protected List                      persons       = new ArrayList();
+
+    @Before
+    public void setUp() throws Exception {
+        this.database      = TestDatabase.open();
+        this.configuration = this.database.getPersistenceManager().getConfiguration();
+        this.dao           = this.database.getDaos().getObjectDao();
+        for(int i=1; i<=1000; i++){
+            Person person = new Person(i, i % 7 == 0 ? null : "né" + i, 20 + i);
+            person.setScore(i % 3 == 0 ? null : Double.valueOf(i * 1.5));
+            person.setRank(i % 4 == 0 ? null : Integer.valueOf(i));
+            this.persons.add(person);
+        }
+        this.dao.insertBatch(this.persons);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void testListsAreKeptOnHeapByDefault() throws Exception {
+        List list = this.dao.readList(Person.class, "select * from PERSON order by ID");
+        assertFalse(list instanceof ICloseableList);
+        assertEquals(1000, list.size());
+
+        ICloseableList spillingList = this.dao.readSpillingList(Person.class, "select * from PERSON order by ID");
+        try {
+            assertEquals(0, ((SpillingList) spillingList).getSpilledSize());
+            assertNull(((SpillingList) spillingList).file);
+        } finally {
+            spillingList.close();
+        }
+    }
+
+    @Test
+    public void testReadListSpillsAboveThreshold() throws Exception {
+        this.configuration.setReadListSpillThreshold(100);
+        List list = this.dao.readList(Person.class, "select * from PERSON order by ID");
+        try {
+            assertTrue(list instanceof SpillingList);
+            assertEquals(1000, list.size());
+            assertEquals(100, ((SpillingList) list).getHeapObjects().size());
+            assertEquals(900, ((SpillingList) list).getSpilledSize());
+            assertPersons(list);
+        } finally {
+            ((ICloseableList) list).close();
+        }
+    }
+
+    @Test
+    public void testSpilledObjectsAreReadInAnyOrder() throws Exception {
+        this.configuration.setReadListSpillThreshold(10);
+        ICloseableList list = this.dao.readSpillingList(Person.class, "select * from PERSON order by ID");
+        try {
+            int[] indexes = new int[]{999, 10, 500, 9, 998, 11, 500};
+            for(int i=0; i<indexes.length; i++){
+                assertPerson((Person) this.persons.get(indexes[i]), (Person) list.get(indexes[i]));
+            }
+        } finally {
+            list.close();
+        }
+    }
+
+    @Test
+    public void testCloseDeletesFileAndReleasesMappings() throws Exception {
+        this.configuration.setReadListSpillThreshold(100);
+        SpillingList list = (SpillingList) this.dao.readSpillingList(Person.class, "select * from PERSON order by ID");
+        File file = list.file;
+        assertNotNull(file);
+        list.get(500);
+        assertNotNull(list.segments[0]);
+
+        list.close();
+        assertFalse(file.exists());
+        assertNull(list.channel);
+        assertNull(list.segments[0]);
+
+        //the heap objects are still available, the spilled objects are not.
+        assertPerson((Person) this.persons.get(5), (Person) list.get(5));
+        try {
+            list.get(500);
+            fail("Spilled objects should not be readable after close()");
+        } catch (PersistenceExceptionUnchecked e) {
+            //expected
+        }
+        list.close();
+    }
+
+    @Test
+    public void testPrimaryKeyReadsAreKeptOnHeap() throws Exception {
+        this.configuration.setReadListSpillThreshold(2);
+        this.configuration.setMaxPrimaryKeysPerStatement(4);
+        this.configuration.setDatabase(com.jenkov.db.itf.Database.DEFAULT);
+
+        List keys = new ArrayList();
+        for(int i=1; i<=10; i++){
+            keys.add(Long.valueOf(i));
+        }
+        List list = this.dao.readListByPrimaryKeys(Person.class, keys);
+        assertFalse(list instanceof ICloseableList);
+        assertEquals(10, list.size());
+    }
+
+    @Test
+    public void testSpillThresholdIsCopiedToNewReader() throws Exception {
+        this.configuration.setReadListSpillThreshold(100);
+        ObjectReader reader = new ObjectReader();
+        reader.setDatabase(this.configuration.getDatabase());
+        this.configuration.setObjectReader(reader);
+
+        List list = this.dao.readList(Person.class, "select * from PERSON order by ID");
+        try {
+            assertEquals(900, ((SpillingList) list).getSpilledSize());
+        } finally {
+            ((ICloseableList) list).close();
+        }
+    }
+
+    protected void assertPersons(List list) {
+        for(int i=0; i<this.persons.size(); i++){
+            assertPerson((Person) this.persons.get(i), (Person) list.get(i));
+        }
+    }
+
+    protected void assertPerson(Person expected, Person person) {
+        assertEquals(expected.getId(), person.getId());
+        assertEquals(expected.getName(), person.getName());
+        assertEquals(expected.getAge(), person.getAge());
+        assertEquals(expected.getScore(), person.getScore());
+        assertEquals(expected.getRank(), person.getRank());
+    }
+}
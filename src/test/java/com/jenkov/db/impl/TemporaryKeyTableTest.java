@@ -0,0 +1,158 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.itf.Database;
+import com.jenkov.db.itf.IPersistenceConfiguration;
+import com.jenkov.db.itf.PersistenceException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests reading objects by very many keys, by inserting the keys into a temporary table
+ * and joining against it.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class TemporaryKeyTableTest {
+
+    protected TestDatabase              database      = null;
+    protected IPersistenceConfiguration configuration = null;
+    protected ObjectDao                 dao           = null;
+
+    @Before
+    public void setUp() throws Exception {
+        this.database      = TestDatabase.open();
+        this.configuration = this.database.getPersistenceManager().getConfiguration();
+        this.configuration.setDatabase(Database.H2);
+        this.configuration.setTemporaryTableKeyThreshold(10);
+        this.dao           = (ObjectDao) this.database.getDaos().getObjectDao();
+        this.database.insertPersons(1000, 50);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.database.close();
+    }
+
+    @Test
+    public void testKeyColumnType() {
+        assertEquals("bigint", this.dao.getTemporaryKeyColumnType(
+                Arrays.asList(new Object[]{Long.valueOf(1), Integer.valueOf(2), null})));
+        assertEquals("numeric(38)", this.dao.getTemporaryKeyColumnType(
+                Arrays.asList(new Object[]{Long.valueOf(1), new BigInteger("123456789012345678901234567890")})));
+        assertEquals("numeric(38, 10)", this.dao.getTemporaryKeyColumnType(
+                Arrays.asList(new Object[]{Long.valueOf(1), new BigDecimal("1.5"), Double.valueOf(2.5)})));
+        assertEquals("double precision", this.dao.getTemporaryKeyColumnType(
+                Arrays.asList(new Object[]{Long.valueOf(1), Double.valueOf(2.5)})));
+        assertEquals("varchar(4000)", this.dao.getTemporaryKeyColumnType(Arrays.asList(new Object[]{"a", "b"})));
+        assertEquals("varchar(4000)", this.dao.getTemporaryKeyColumnType(Arrays.asList(new Object[]{null})));
+        assertNull(this.dao.getTemporaryKeyColumnType(Arrays.asList(new Object[]{Long.valueOf(1), "2"})));
+    }
+
+    @Test
+    public void testTemporaryTableThreshold() throws Exception {
+        assertFalse(this.dao.isTemporaryTableUsed(9));
+        assertTrue(this.dao.isTemporaryTableUsed(10));
+
+        this.configuration.setTemporaryTableKeyThreshold(0);
+        assertFalse(this.dao.isTemporaryTableUsed(100000));
+
+        this.configuration.setTemporaryTableKeyThreshold(10);
+        this.configuration.setDatabase(Database.DERBY);
+        assertFalse(this.dao.isTemporaryTableUsed(100000));
+    }
+
+    @Test
+    public void testReadByPrimaryKeys() throws Exception {
+        List keys = new ArrayList();
+        for(long i=1; i<=1500; i+=3){
+            keys.add(Long.valueOf(i));
+        }
+        List persons = this.dao.readListByPrimaryKeys(Person.class, keys);
+        assertEquals(334, persons.size());
+        for(int i=0; i<persons.size(); i++){
+            assertEquals(1, ((Person) persons.get(i)).getId() % 3);
+        }
+        assertEquals(0, countKeys("BP_KEYS_BIGINT"));
+    }
+
+    @Test
+    public void testReadByForeignKeys() throws Exception {
+        List ages = new ArrayList();
+        for(int i=0; i<200; i++){
+            ages.add(Integer.valueOf(i % 60));
+        }
+        this.configuration.setTemporaryTableBatchSize(7);
+        Map persons = this.dao.readListByForeignKeys(Person.class, "AGE", ages);
+        assertEquals(60, persons.size());
+        assertEquals(20, ((List) persons.get(Integer.valueOf(3))).size());
+        assertEquals(0, ((List) persons.get(Integer.valueOf(55))).size());
+        assertEquals(0, countKeys("BP_KEYS_BIGINT"));
+    }
+
+    @Test
+    public void testReadByStringValues() throws Exception {
+        List names = new ArrayList();
+        for(int i=1; i<=20; i++){
+            names.add("name" + i);
+        }
+        names.add(null);
+        assertEquals(20, this.dao.readListByColumnValues(Person.class, "NAME", names).size());
+        assertEquals(0, countKeys("BP_KEYS_VARCHAR"));
+    }
+
+    @Test
+    public void testReadErrorIsThrownAndKeysAreDeleted() throws Exception {
+        List keys = new ArrayList();
+        for(long i=1; i<=20; i++){
+            keys.add(Long.valueOf(i));
+        }
+        try {
+            this.dao.readListByColumnValues(Person.class, "NO_SUCH_COLUMN", keys);
+            fail("Reading by an unknown column should fail");
+        } catch (PersistenceException e) {
+            assertTrue(String.valueOf(e.getCause()), String.valueOf(e.getCause()).indexOf("NO_SUCH_COLUMN") > -1);
+        }
+        assertEquals(0, countKeys("BP_KEYS_BIGINT"));
+    }
+
+    protected int countKeys(String keyTable) throws Exception {
+        Statement statement = this.database.getConnection().createStatement();
+        try {
+            ResultSet result = statement.executeQuery("select count(*) from " + keyTable);
+            result.next();
+            return result.getInt(1);
+        } finally {
+            statement.close();
+        }
+    }
+}
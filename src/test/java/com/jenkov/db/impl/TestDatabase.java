@@ -0,0 +1,115 @@
+/*
+    Copyright 2008 Jenkov Development
+
+    Licensed under the Apache License, Version 2.0 (the "License");
+    you may not use this file except in compliance with the License.
+    You may obtain a copy of the License at
+
+        http://www.apache.org/licenses/LICENSE-2.0
+
+    Unless required by applicable law or agreed to in writing, software
+    distributed under the License is distributed on an "AS IS" BASIS,
+    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+    See the License for the specific language governing permissions and
+    limitations under the License.
+*/
+
+
+
+package com.jenkov.db.impl;
+
+import com.jenkov.db.PersistenceManager;
+import com.jenkov.db.itf.IDaos;
+import com.jenkov.db.itf.PersistenceException;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates in-memory H2 databases with a PERSON table for the tests. Each call to
+ * <code>open()</code> creates a new database, so tests do not see each others data.
+ *
+ * @author Jakob Jenkov,  Jenkov Development
+ */
+public class TestDatabase {
+
+    private static final AtomicInteger databaseCount = new AtomicInteger();
+
+    protected Connection         connection         = null;
+    protected PersistenceManager persistenceManager = null;
+    protected IDaos              daos               = null;
+
+    public static TestDatabase open() throws SQLException {
+        TestDatabase database = new TestDatabase();
+        database.connection = DriverManager.getConnection("jdbc:h2:mem:test" + databaseCount.incrementAndGet());
+        database.update("create table PERSON(ID bigint primary key, NAME varchar(50), AGE int, SCORE double, RANK int)");
+        database.persistenceManager = new PersistenceManager();
+        database.daos = database.persistenceManager.createDaos(database.connection);
+        return database;
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    public PersistenceManager getPersistenceManager() {
+        return persistenceManager;
+    }
+
+    public IDaos getDaos() {
+        return daos;
+    }
+
+    /**
+     * Returns a connection that delegates to the connection of this database, and adds the SQL
+     * of each statement it prepares to the given list.
+     */
+    public Connection recordStatements(final List statements) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                new InvocationHandler(){
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if(method.getName().startsWith("prepare")) statements.add(args[0]);
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    }
+                });
+    }
+
+    public void update(String sql) throws SQLException {
+        Statement statement = this.connection.createStatement();
+        try {
+            statement.execute(sql);
+        } finally {
+            statement.close();
+        }
+    }
+
+    /**
+     * Inserts persons with the ids 1 to count. The age of each person is its id modulo ageModulo.
+     */
+    public List insertPersons(int count, int ageModulo) throws PersistenceException {
+        List persons = new ArrayList();
+        for(int i=1; i<=count; i++){
+            persons.add(new Person(i, "name" + i, i % ageModulo));
+        }
+        this.daos.getObjectDao().insertBatch(persons);
+        return persons;
+    }
+
+    public void close() throws SQLException {
+        update("drop all objects");
+        this.connection.close();
+    }
+}